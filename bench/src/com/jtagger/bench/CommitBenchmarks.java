@@ -0,0 +1,78 @@
+package com.jtagger.bench;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.MediaFile;
+import com.jtagger.SaveStrategy;
+import com.jtagger.StreamInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/*
+ * Saves a fresh copy of the sample on every invocation, so each one takes the same path. A reversed title
+ * has the same size and is written in place, a long one outgrows the padding and moves the audio.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class CommitBenchmarks {
+
+    private static final int SHIFT_TITLE_LENGTH = 256 * 1024;
+
+    @Param({ "mpeg", "flac", "m4a", "vorbis", "opus", "oggflac" })
+    public String format;
+
+    @Param({ "in-place", "shift" })
+    public String mode;
+
+    private File sample;
+    private File copy;
+    private MediaFile<AbstractTag, StreamInfo> mediaFile;
+
+    @Setup(Level.Trial)
+    public void setUp(Samples samples) throws IOException {
+        sample = samples.get(format);
+        copy   = File.createTempFile("jtagger-commit", "." + format);
+    }
+
+    @Setup(Level.Invocation)
+    public void open() throws IOException {
+
+        Files.copy(sample.toPath(), copy.toPath(), REPLACE_EXISTING);
+        mediaFile = new MediaFile<>();
+        mediaFile.scan(copy, "rw");
+        mediaFile.setSaveStrategy(SaveStrategy.IN_PLACE);
+
+        AbstractTag tag = mediaFile.getTag();
+        String title    = tag.getStringField(AbstractTag.TITLE);
+        tag.setStringField(AbstractTag.TITLE, mode.equals("shift") ? "x".repeat(SHIFT_TITLE_LENGTH) : reverse(title));
+        mediaFile.setTag(tag);
+    }
+
+    @Benchmark
+    public void commit() throws IOException {
+        mediaFile.save();
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() throws IOException {
+        mediaFile.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(copy.toPath());
+    }
+
+    private static String reverse(String title) {
+        return title == null || title.isEmpty() ? "title" : new StringBuilder(title).reverse().toString();
+    }
+}
@@ -0,0 +1,244 @@
+package com.jtagger.bench;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.MediaFile;
+import com.jtagger.SaveStrategy;
+import com.jtagger.ScanPart;
+import com.jtagger.StreamInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/*
+ * End-to-end throughput over a whole corpus: files/s for scans and MB/s for commits, per format.
+ * Reads and cache hits per scan come from the read-ahead cache every file scan goes through.
+ * An empty or missing directory is filled by CorpusGenerator with its defaults first.
+ *
+ * java -cp bench/build/libs/jtagger-bench.jar com.jtagger.bench.CorpusBenchmark [-w warmupRounds] [-r rounds] <corpus directory>
+ */
+public class CorpusBenchmark {
+
+    private static final int SHIFT_TITLE_LENGTH = 64 * 1024;
+
+    private static class Result {
+
+        int files;
+        long bytes;
+        long taggedBytes;
+        int failures;
+
+        long scanNanos;
+        long metadataScanNanos;
+        long inPlaceNanos;
+        long shiftNanos;
+
+        long scans;
+        long cacheMisses;
+        long cacheHits;
+
+        void add(Result result) {
+            files             += result.files;
+            bytes             += result.bytes;
+            taggedBytes       += result.taggedBytes;
+            failures          += result.failures;
+            scanNanos         += result.scanNanos;
+            metadataScanNanos += result.metadataScanNanos;
+            inPlaceNanos      += result.inPlaceNanos;
+            shiftNanos        += result.shiftNanos;
+            scans             += result.scans;
+            cacheMisses       += result.cacheMisses;
+            cacheHits         += result.cacheHits;
+        }
+    }
+
+    private final int warmupRounds;
+    private final int rounds;
+    private final Path tempDirectory;
+
+    private final Map<String, List<Path>> corpus = new LinkedHashMap<>();
+    private final Map<String, List<Path>> tagged = new LinkedHashMap<>();
+    private final Map<String, Result> results    = new LinkedHashMap<>();
+
+    private CorpusBenchmark(int warmupRounds, int rounds) throws IOException {
+        this.warmupRounds  = warmupRounds;
+        this.rounds        = rounds;
+        this.tempDirectory = Files.createTempDirectory("jtagger-corpus");
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(directory)) {
+            return walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private void load(List<Path> files) throws IOException {
+        for (Path file : files) {
+            try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+                mediaFile.scan(file.toFile(), "r", ScanPart.metadataOnly());
+                String mimeType = mediaFile.getMimeType();
+                if (mimeType == null) continue;
+
+                corpus.computeIfAbsent(mimeType, key -> new ArrayList<>()).add(file);
+                Result result = results.computeIfAbsent(mimeType, key -> new Result());
+                result.files++;
+                result.bytes += Files.size(file);
+
+                // files without a tag are only scanned
+                if (mediaFile.getTag() != null) {
+                    tagged.computeIfAbsent(mimeType, key -> new ArrayList<>()).add(file);
+                    result.taggedBytes += Files.size(file);
+                }
+            } catch (Exception e) {
+                System.err.println("Skipping " + file + ": " + e);
+            }
+        }
+    }
+
+    private static long scan(List<Path> files, EnumSet<ScanPart> scanParts, Result result) {
+        long elapsed = 0;
+        for (Path file : files) {
+            long start = System.nanoTime();
+            try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+                mediaFile.scan(file.toFile(), "r", scanParts);
+                result.scans++;
+                result.cacheMisses += mediaFile.getReadCache().getMissCount();
+                result.cacheHits   += mediaFile.getReadCache().getHitCount();
+            } catch (Exception e) {
+                result.failures++;
+            }
+            elapsed += System.nanoTime() - start;
+        }
+        return elapsed;
+    }
+
+    // commits a fresh copy of every file, only open, edit, save and close are timed
+    private long commit(List<Path> files, UnaryOperator<String> title, Result result) throws IOException {
+        long elapsed = 0;
+        for (Path file : files) {
+
+            Path copy = tempDirectory.resolve(file.getFileName());
+            Files.copy(file, copy, REPLACE_EXISTING);
+
+            long start = System.nanoTime();
+            try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+
+                mediaFile.scan(copy.toFile(), "rw");
+                mediaFile.setSaveStrategy(SaveStrategy.IN_PLACE);
+
+                AbstractTag tag = mediaFile.getTag();
+                tag.setStringField(AbstractTag.TITLE, title.apply(tag.getStringField(AbstractTag.TITLE)));
+                mediaFile.setTag(tag);
+                mediaFile.save();
+            } catch (Exception e) {
+                result.failures++;
+            }
+            elapsed += System.nanoTime() - start;
+            Files.delete(copy);
+        }
+        return elapsed;
+    }
+
+    private void round(boolean measure) throws IOException {
+        for (Map.Entry<String, List<Path>> entry : corpus.entrySet()) {
+
+            List<Path> files = entry.getValue();
+            List<Path> edits = tagged.getOrDefault(entry.getKey(), new ArrayList<>());
+            Result result    = measure ? results.get(entry.getKey()) : new Result();
+
+            result.scanNanos         += scan(files, ScanPart.all(), result);
+            result.metadataScanNanos += scan(files, ScanPart.metadataOnly(), result);
+            // a reversed title has the same size, a long one forces the audio to move
+            result.inPlaceNanos      += commit(edits, CorpusBenchmark::reverse, result);
+            result.shiftNanos        += commit(edits, title -> "x".repeat(SHIFT_TITLE_LENGTH), result);
+        }
+    }
+
+    private double filesPerSecond(Result result, long nanos) {
+        return nanos == 0 ? 0 : result.files * (double) rounds / (nanos / 1e9);
+    }
+
+    private double megabytesPerSecond(Result result, long nanos) {
+        return nanos == 0 ? 0 : result.taggedBytes * (double) rounds / (1024 * 1024) / (nanos / 1e9);
+    }
+
+    private double perScan(Result result, long count) {
+        return result.scans == 0 ? 0 : count / (double) result.scans;
+    }
+
+    private void print(String format, Result result) {
+        System.out.printf("%-20s %6d %9.1f %14.1f %14.1f %14.1f %14.1f %11.1f %10.1f %8d\n",
+                format,
+                result.files,
+                result.bytes / (1024.0 * 1024.0),
+                filesPerSecond(result, result.scanNanos),
+                filesPerSecond(result, result.metadataScanNanos),
+                megabytesPerSecond(result, result.inPlaceNanos),
+                megabytesPerSecond(result, result.shiftNanos),
+                perScan(result, result.cacheMisses),
+                perScan(result, result.cacheHits),
+                result.failures);
+    }
+
+    private void run() throws IOException {
+
+        for (int i = 0; i < warmupRounds; i++) round(false);
+        for (int i = 0; i < rounds; i++) round(true);
+
+        System.out.printf("%-20s %6s %9s %14s %14s %14s %14s %11s %10s %8s\n",
+                "format", "files", "MB", "scan files/s", "meta files/s", "in-place MB/s", "shift MB/s",
+                "reads/scan", "hits/scan", "failed");
+
+        Result total = new Result();
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            print(entry.getKey(), entry.getValue());
+            total.add(entry.getValue());
+        }
+        print("total", total);
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        int warmupRounds = 1;
+        int rounds       = 3;
+        Path directory   = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-w": warmupRounds = Integer.parseInt(args[++i]); break;
+                case "-r": rounds       = Integer.parseInt(args[++i]); break;
+                default:   directory    = Path.of(args[i]);
+            }
+        }
+        if (directory == null) {
+            System.err.println("Usage: CorpusBenchmark [-w warmupRounds] [-r rounds] <corpus directory>");
+            System.exit(1);
+        }
+
+        List<Path> files = listFiles(directory);
+        if (files.isEmpty()) {
+            files = CorpusGenerator.newBuilder().build().generate(directory);
+        }
+
+        CorpusBenchmark benchmark = new CorpusBenchmark(warmupRounds, rounds);
+        benchmark.load(files);
+        benchmark.run();
+
+        Files.deleteIfExists(benchmark.tempDirectory);
+    }
+
+    private static String reverse(String title) {
+        return title == null || title.isEmpty() ? "title" : new StringBuilder(title).reverse().toString();
+    }
+}
@@ -0,0 +1,833 @@
+package com.jtagger.bench;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.AttachedPicture;
+import com.jtagger.flac.FLAC;
+import com.jtagger.flac.PictureBlock;
+import com.jtagger.flac.VorbisCommentBlock;
+import com.jtagger.mp3.id3.AbstractFrame;
+import com.jtagger.mp3.id3.ChapterFrame;
+import com.jtagger.mp3.id3.FrameHeader;
+import com.jtagger.mp3.id3.ID3V1Tag;
+import com.jtagger.mp3.id3.ID3V2Tag;
+import com.jtagger.mp3.id3.TableOfContentsFrame;
+import com.jtagger.mp3.id3.TagHeader;
+import com.jtagger.mp3.id3.TextEncoding;
+import com.jtagger.mp3.id3.TextFrame;
+import com.jtagger.mp4.MP4;
+import com.jtagger.mp4.MP4Atom;
+import com.jtagger.ogg.OggPacket;
+import com.jtagger.ogg.OggPage;
+import com.jtagger.ogg.OggPageHeader;
+import com.jtagger.ogg.vorbis.VorbisComments;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static com.jtagger.flac.AbstractMetadataBlock.BLOCK_TYPE_PADDING;
+import static com.jtagger.flac.AbstractMetadataBlock.BLOCK_TYPE_STREAMINFO;
+import static com.jtagger.AttachedPicture.PICTURE_TYPE_FRONT_COVER;
+import static com.jtagger.mp3.id3.ID3V1Tag.ID3V1_1;
+import static com.jtagger.mp3.id3.TagHeaderParser.HEADER_LENGTH;
+import static com.jtagger.mp3.id3.TableOfContentsFrame.FLAG_ORDERED;
+import static com.jtagger.mp3.id3.TableOfContentsFrame.FLAG_TOP_LEVEL;
+
+/*
+ * Writes a reproducible corpus of synthetic files for every supported container.
+ * Containers and metadata are valid, the audio is filler that only has the right framing.
+ *
+ * java -cp bench/build/libs/jtagger-bench.jar com.jtagger.bench.CorpusGenerator [-n copies] [-s audioKiB] [-f frames]
+ *      [-p paddingKiB] [-c coverKiB] [-ch chapters] [-seed seed] <directory>
+ */
+public class CorpusGenerator {
+
+    public enum VbrHeader { NONE, XING, VBRI }
+
+    public enum MP4Layout { MOOV_FIRST, MOOV_LAST, FRAGMENTED }
+
+    // MPEG-1 Layer III, 128 kbps, 44100 Hz, joint stereo
+    private static final byte[] MPEG_FRAME_HEADER = { (byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x64 };
+    private static final int MPEG_FRAME_LENGTH    = 417;
+    private static final int MPEG_FRAME_SAMPLES   = 1152;
+    private static final int MPEG_SIDE_INFO_END   = 36;
+
+    private static final int FLAC_FRAME_LENGTH  = 8192;
+    private static final int FLAC_FRAME_SAMPLES = 4096;
+
+    private static final int VORBIS_PACKET_LENGTH  = 372;
+    private static final int VORBIS_PACKET_SAMPLES = 1024;
+    private static final int OPUS_PACKET_LENGTH    = 320;
+    private static final int OPUS_PACKET_SAMPLES   = 960;
+    private static final int OPUS_PRE_SKIP         = 312;
+    private static final int OGG_PAGE_TARGET       = 4096;
+
+    private static final int AAC_SAMPLE_LENGTH   = 372;
+    private static final int AAC_FRAME_SAMPLES   = 1024;
+    private static final int AAC_CHUNK_SAMPLES   = 16;
+    private static final int FRAGMENT_SAMPLES    = 64;
+
+    private static final int SAMPLE_RATE      = 44100;
+    private static final int OPUS_SAMPLE_RATE = 48000;
+
+    private int copies       = 2;
+    private int audioSize    = 512 * 1024;
+    private int frameCount   = 0;
+    private int padding      = 4 * 1024;
+    private int coverSize    = 64 * 1024;
+    private int chapterCount = 4;
+    private long seed        = 1;
+
+    private byte[] noise;
+    private int noiseOffset;
+
+    public static Builder newBuilder() {
+        return new CorpusGenerator().new Builder();
+    }
+
+    // number of frames, packets or samples for a payload of the configured size
+    private int frames(int frameLength) {
+        return frameCount > 0 ? frameCount : Math.max(1, audioSize / frameLength);
+    }
+
+    // filler never contains 0xFF, so it cannot be mistaken for an MPEG or FLAC sync word
+    private void fill(byte[] buffer, int offset, int length) {
+
+        if (noise == null) {
+            noise = new byte[64 * 1024 + 1];
+            new Random(seed).nextBytes(noise);
+            for (int i = 0; i < noise.length; i++) noise[i] &= 0x7F;
+        }
+
+        int end = offset + length;
+        while (offset < end) {
+            int count = Math.min(end - offset, noise.length - noiseOffset);
+            System.arraycopy(noise, noiseOffset, buffer, offset, count);
+            offset      += count;
+            noiseOffset  = (noiseOffset + count + 1) % noise.length;
+        }
+    }
+
+    private byte[] filler(int length) {
+        byte[] buffer = new byte[length];
+        fill(buffer, 0, length);
+        return buffer;
+    }
+
+    private AttachedPicture cover() {
+
+        if (coverSize <= 0) return null;
+
+        byte[] jpeg = filler(Math.max(coverSize, 24));
+        byte[] app0 = {
+                (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0x00, 0x10,
+                0x4A, 0x46, 0x49, 0x46, 0x00, 0x01, 0x01, 0x00, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00
+        };
+        System.arraycopy(app0, 0, jpeg, 0, app0.length);
+        jpeg[jpeg.length - 2] = (byte) 0xFF;
+        jpeg[jpeg.length - 1] = (byte) 0xD9;
+
+        return new AttachedPicture(PICTURE_TYPE_FRONT_COVER, "image/jpeg", "cover", 500, 500, 24, jpeg);
+    }
+
+    private static void setFields(AbstractTag tag, int index) {
+        tag.setStringField(AbstractTag.TITLE, String.format("Synthetic title %03d", index));
+        tag.setStringField(AbstractTag.ARTIST, "Synthetic artist");
+        tag.setStringField(AbstractTag.ALBUM, "Synthetic album");
+    }
+
+    private static String timestamp(long millis) {
+        return String.format("%02d:%02d:%02d.%03d",
+                millis / 3_600_000, millis / 60_000 % 60, millis / 1000 % 60, millis % 1000);
+    }
+
+    // CHAPTERxxx / CHAPTERxxxNAME pairs, as written by most Vorbis comment editors
+    private void setChapters(VorbisComments comments, long durationMillis) {
+        for (int i = 0; i < chapterCount; i++) {
+            String key = String.format("CHAPTER%03d", i + 1);
+            comments.setComment(key, timestamp(durationMillis * i / chapterCount));
+            comments.setComment(key + "NAME", "Chapter " + (i + 1));
+        }
+    }
+
+    private VorbisComments vorbisComments(boolean framingBit, int index, long durationMillis, boolean picture) {
+        VorbisComments comments = new VorbisComments(framingBit);
+        setFields(comments, index);
+        setChapters(comments, durationMillis);
+        if (picture && coverSize > 0) comments.setPictureField(cover());
+        return comments;
+    }
+
+    private static OutputStream newOutputStream(Path path) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024);
+    }
+
+    private byte[] id3v2Tag(byte version, int index, long durationMillis) {
+
+        ID3V2Tag tag = ID3V2Tag.newBuilder()
+                .setHeader(TagHeader.newBuilder(version).build(version))
+                .build();
+        setFields(tag, index);
+
+        AttachedPicture picture = cover();
+        if (picture != null) tag.setPictureField(picture);
+
+        if (chapterCount > 0) {
+
+            ArrayList<String> childIds = new ArrayList<>();
+            for (int i = 0; i < chapterCount; i++) childIds.add("ch" + i);
+
+            tag.setFrame(TableOfContentsFrame.newBuilder()
+                    .setHeader(FrameHeader.createFrameHeader(AbstractFrame.TABLE_OF_CONTENTS, version))
+                    .setElementId("toc")
+                    .setFlags(FLAG_TOP_LEVEL | FLAG_ORDERED)
+                    .setChildIds(childIds)
+                    .build(version));
+
+            for (int i = 0; i < chapterCount; i++) {
+
+                @SuppressWarnings("rawtypes") // ChapterFrame keeps its sub-frames in a raw map
+                LinkedHashMap<String, AbstractFrame> frames = new LinkedHashMap<>();
+                frames.put("TIT2", TextFrame.createInstance(
+                        "TIT2", "Chapter " + (i + 1), TextEncoding.getEncodingForVersion(version), version
+                ));
+
+                tag.setFrame(ChapterFrame.newBuilder()
+                        .setHeader(FrameHeader.createFrameHeader(AbstractFrame.CHAPTER, version))
+                        .setElementId(childIds.get(i))
+                        .setStartTime(durationMillis * i / chapterCount)
+                        .setEndTime(durationMillis * (i + 1) / chapterCount)
+                        .setStartOffset(0xFFFFFFFFL)
+                        .setEndOffset(0xFFFFFFFFL)
+                        .setFrames(frames)
+                        .build(version));
+            }
+        }
+
+        byte[] frames = tag.assemble(version);
+        byte[] bytes  = new byte[frames.length + padding];
+        System.arraycopy(frames, 0, bytes, 0, frames.length);
+
+        TagHeader header = tag.getTagHeader();
+        header.setTagSize(bytes.length - HEADER_LENGTH);
+        System.arraycopy(header.assemble(version), 0, bytes, 0, HEADER_LENGTH);
+        return bytes;
+    }
+
+    private static byte[] id3v1Tag(int index) {
+        return ID3V1Tag.newBuilder()
+                .setVersion(ID3V1_1)
+                .setTitle(String.format("Synthetic title %03d", index))
+                .setArtist("Synthetic artist")
+                .setAlbum("Synthetic album")
+                .setYear("2024")
+                .setAlbumTrack(index % 255 + 1)
+                .setGenre(12)
+                .build(ID3V1_1)
+                .getBytes();
+    }
+
+    private byte[] mpegFrame() {
+        byte[] frame = filler(MPEG_FRAME_LENGTH);
+        System.arraycopy(MPEG_FRAME_HEADER, 0, frame, 0, MPEG_FRAME_HEADER.length);
+        return frame;
+    }
+
+    // an otherwise empty first frame carrying the Xing or VBRI header
+    private static byte[] mpegInfoFrame(VbrHeader vbrHeader, int frames) {
+
+        byte[] frame = new byte[MPEG_FRAME_LENGTH];
+        System.arraycopy(MPEG_FRAME_HEADER, 0, frame, 0, MPEG_FRAME_HEADER.length);
+        ByteBuilder info = new ByteBuilder();
+
+        if (vbrHeader == VbrHeader.XING) {
+            info.ascii("Xing").u32(0x0F).u32(frames).u32((long) frames * MPEG_FRAME_LENGTH);
+            for (int i = 0; i < 100; i++) info.u8(i * 256 / 100);
+            info.u32(50).ascii("LAME3.100");
+        } else {
+            info.ascii("VBRI").u16(1).u16(576).u16(75)
+                    .u32((long) frames * MPEG_FRAME_LENGTH).u32(frames)
+                    .u16(0).u16(1).u16(2).u16(1);
+        }
+
+        byte[] bytes = info.toByteArray();
+        System.arraycopy(bytes, 0, frame, MPEG_SIDE_INFO_END, bytes.length);
+        return frame;
+    }
+
+    /*
+     * [ID3v2 tag + padding] [Xing/VBRI frame] [audio frames] [ID3v1 tag]
+     * id3v2Version is 3, 4 or 0 for no ID3v2 tag
+     */
+    public void writeMpeg(Path path, byte id3v2Version, VbrHeader vbrHeader, boolean id3v1, int index) throws IOException {
+
+        int frames = frames(MPEG_FRAME_LENGTH);
+        long durationMillis = (long) frames * MPEG_FRAME_SAMPLES * 1000 / SAMPLE_RATE;
+
+        try (OutputStream out = newOutputStream(path)) {
+
+            if (id3v2Version != 0) out.write(id3v2Tag(id3v2Version, index, durationMillis));
+            if (vbrHeader != VbrHeader.NONE) out.write(mpegInfoFrame(vbrHeader, frames));
+
+            for (int i = 0; i < frames; i++) out.write(mpegFrame());
+            if (id3v1) out.write(id3v1Tag(index));
+        }
+    }
+
+    private static byte[] streamInfoBody(int sampleRate, long totalSamples) {
+        return new ByteBuilder()
+                .u16(FLAC_FRAME_SAMPLES).u16(FLAC_FRAME_SAMPLES)
+                .u24(0).u24(0)
+                // 20 bits sample rate, 3 bits channels - 1, 5 bits bits per sample - 1, 36 bits total samples
+                .u32((long) sampleRate << 12 | 1 << 9 | 15 << 4 | (totalSamples >>> 32) & 0x0F)
+                .u32(totalSamples & 0xFFFFFFFFL)
+                .zeros(16)
+                .toByteArray();
+    }
+
+    private static byte[] metadataBlock(int type, boolean last, byte[] body) {
+        return new ByteBuilder().u8((last ? 0x80 : 0) | type).u24(body.length).bytes(body).toByteArray();
+    }
+
+    private byte[] flacFrame() {
+        byte[] frame = filler(FLAC_FRAME_LENGTH);
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xF8;
+        return frame;
+    }
+
+    // fLaC, STREAMINFO, VORBIS_COMMENT, PICTURE, PADDING, frames
+    public void writeFlac(Path path, int index) throws IOException {
+
+        int frames = frames(FLAC_FRAME_LENGTH);
+        long totalSamples = (long) frames * FLAC_FRAME_SAMPLES;
+
+        FLAC flac = new FLAC();
+        setFields(flac, index);
+        for (int i = 0; i < chapterCount; i++) {
+            String key = String.format("CHAPTER%03d", i + 1);
+            flac.setComment(key, timestamp(totalSamples * 1000 / SAMPLE_RATE * i / chapterCount));
+            flac.setComment(key + "NAME", "Chapter " + (i + 1));
+        }
+        AttachedPicture picture = cover();
+        if (picture != null) flac.setPictureField(picture);
+
+        try (OutputStream out = newOutputStream(path)) {
+            out.write(FLAC.MAGIC.getBytes(StandardCharsets.ISO_8859_1));
+            out.write(metadataBlock(BLOCK_TYPE_STREAMINFO, false, streamInfoBody(SAMPLE_RATE, totalSamples)));
+            out.write(flac.assemble());
+            out.write(metadataBlock(BLOCK_TYPE_PADDING, true, new byte[padding]));
+            for (int i = 0; i < frames; i++) out.write(flacFrame());
+        }
+    }
+
+    private static byte[] segmentTable(List<byte[]> packets) {
+        ByteBuilder table = new ByteBuilder();
+        for (byte[] packet : packets) {
+            for (int i = 0; i < packet.length / 255; i++) table.u8(255);
+            table.u8(packet.length % 255);
+        }
+        return table.toByteArray();
+    }
+
+    /*
+     * The first header packet gets a page of its own, the other headers follow through OggPage.fromPackets.
+     * Audio packets are grouped into pages of about OGG_PAGE_TARGET bytes and never span pages.
+     */
+    private void writeOggStream(OutputStream out,
+                                List<OggPacket> headerPackets,
+                                int packets,
+                                int packetLength,
+                                int packetSamples,
+                                int granuleOffset,
+                                PacketWriter packetWriter) throws IOException
+    {
+        int serial = (int) seed * 0x9E3779B1;
+
+        OggPage identPage = OggPage.fromPackets(headerPackets.subList(0, 1), serial, 0).get(0);
+        identPage.getHeader().setFirstPage(true);
+        out.write(identPage.assemble());
+
+        ArrayList<OggPage> headerPages = OggPage.fromPackets(headerPackets, serial, 1);
+        for (OggPage page : headerPages) out.write(page.assemble());
+
+        int sequence  = 1 + headerPages.size();
+        long granule  = granuleOffset;
+        int perPage   = Math.max(1, Math.min(OGG_PAGE_TARGET / packetLength, 255 / (packetLength / 255 + 1)));
+
+        for (int written = 0; written < packets; ) {
+
+            List<byte[]> pagePackets = new ArrayList<>();
+            ByteBuilder data = new ByteBuilder();
+
+            for (int i = 0; i < perPage && written < packets; i++, written++) {
+                byte[] packet = packetWriter.packet(packetLength);
+                pagePackets.add(packet);
+                data.bytes(packet);
+                granule += packetSamples;
+            }
+
+            byte[] segments = segmentTable(pagePackets);
+            OggPageHeader header = new OggPageHeader();
+            header.setSerialNumber(serial);
+            header.setSequenceNumber(sequence++);
+            header.setGranulePosition(granule);
+            header.setPageSegments(segments.length);
+            header.setSegmentTable(segments);
+            header.setLastPage(written == packets);
+
+            out.write(new OggPage(header, data.toByteArray()).assemble());
+        }
+    }
+
+    private interface PacketWriter {
+        byte[] packet(int length);
+    }
+
+    public void writeOggVorbis(Path path, int index) throws IOException {
+
+        int packets = frames(VORBIS_PACKET_LENGTH);
+        long durationMillis = (long) packets * VORBIS_PACKET_SAMPLES * 1000 / SAMPLE_RATE;
+
+        byte[] ident = new ByteBuilder()
+                .u8(1).ascii("vorbis").u32le(0).u8(2).u32le(SAMPLE_RATE)
+                .u32le(0).u32le(128000).u32le(0).u8(0xB8).u8(1)
+                .toByteArray();
+        byte[] comments = new ByteBuilder()
+                .u8(3).ascii("vorbis").bytes(vorbisComments(true, index, durationMillis, true).assemble())
+                .toByteArray();
+        byte[] setup = new ByteBuilder()
+                .u8(5).ascii("vorbis").ascii("BCV").bytes(filler(3000)).u8(1)
+                .toByteArray();
+
+        List<OggPacket> headers = List.of(new OggPacket(ident), new OggPacket(comments), new OggPacket(setup));
+        try (OutputStream out = newOutputStream(path)) {
+            writeOggStream(out, headers, packets, VORBIS_PACKET_LENGTH, VORBIS_PACKET_SAMPLES, 0, length -> {
+                byte[] packet = filler(length);
+                packet[0] &= ~1; // audio packet flag
+                return packet;
+            });
+        }
+    }
+
+    public void writeOggOpus(Path path, int index) throws IOException {
+
+        int packets = frames(OPUS_PACKET_LENGTH);
+        long durationMillis = (long) packets * OPUS_PACKET_SAMPLES * 1000 / OPUS_SAMPLE_RATE;
+
+        byte[] head = new ByteBuilder()
+                .ascii("OpusHead").u8(1).u8(2).u16le(OPUS_PRE_SKIP).u32le(OPUS_SAMPLE_RATE).u16le(0).u8(0)
+                .toByteArray();
+        byte[] tags = new ByteBuilder()
+                .ascii("OpusTags").bytes(vorbisComments(false, index, durationMillis, true).assemble())
+                .toByteArray();
+
+        List<OggPacket> headers = List.of(new OggPacket(head), new OggPacket(tags));
+        try (OutputStream out = newOutputStream(path)) {
+            writeOggStream(out, headers, packets, OPUS_PACKET_LENGTH, OPUS_PACKET_SAMPLES, OPUS_PRE_SKIP, length -> {
+                byte[] packet = filler(length);
+                packet[0] = (byte) 0xFC; // CELT fullband 20 ms, stereo, one frame
+                return packet;
+            });
+        }
+    }
+
+    // FLAC in Ogg: mapping header with STREAMINFO, then one metadata block per packet
+    public void writeOggFlac(Path path, int index) throws IOException {
+
+        int packets = frames(FLAC_FRAME_LENGTH);
+        long totalSamples = (long) packets * FLAC_FRAME_SAMPLES;
+
+        VorbisCommentBlock commentBlock = new VorbisCommentBlock();
+        commentBlock.setVorbisComments(vorbisComments(false, index, totalSamples * 1000 / SAMPLE_RATE, false));
+
+        List<OggPacket> headers = new ArrayList<>();
+        List<byte[]> blocks = new ArrayList<>();
+
+        commentBlock.setBlockLast(coverSize <= 0);
+        commentBlock.assemble();
+        blocks.add(commentBlock.getBytes());
+
+        AttachedPicture picture = cover();
+        if (picture != null) {
+            PictureBlock pictureBlock = new PictureBlock();
+            pictureBlock.setPicture(picture);
+            pictureBlock.setBlockLast(true);
+            pictureBlock.assemble();
+            blocks.add(pictureBlock.getBytes());
+        }
+
+        headers.add(new OggPacket(new ByteBuilder()
+                .u8(0x7F).ascii("FLAC").u8(1).u8(0).u16(blocks.size())
+                .ascii(FLAC.MAGIC)
+                .bytes(metadataBlock(BLOCK_TYPE_STREAMINFO, false, streamInfoBody(SAMPLE_RATE, totalSamples)))
+                .toByteArray()));
+        for (byte[] block : blocks) headers.add(new OggPacket(block));
+
+        try (OutputStream out = newOutputStream(path)) {
+            writeOggStream(out, headers, packets, FLAC_FRAME_LENGTH, FLAC_FRAME_SAMPLES, 0, length -> flacFrame());
+        }
+    }
+
+    private static byte[] atom(String type, byte[]... children) {
+        ByteBuilder body = new ByteBuilder();
+        for (byte[] child : children) body.bytes(child);
+        return new ByteBuilder().u32(8 + body.size()).ascii(type).bytes(body.toByteArray()).toByteArray();
+    }
+
+    private static byte[] fullAtom(String type, int version, int flags, byte[]... children) {
+        byte[][] body = new byte[children.length + 1][];
+        body[0] = new ByteBuilder().u8(version).u24(flags).toByteArray();
+        System.arraycopy(children, 0, body, 1, children.length);
+        return atom(type, body);
+    }
+
+    private static byte[] matrix() {
+        return new ByteBuilder()
+                .u32(0x10000).u32(0).u32(0)
+                .u32(0).u32(0x10000).u32(0)
+                .u32(0).u32(0).u32(0x40000000)
+                .toByteArray();
+    }
+
+    private static byte[] descriptor(int tag, byte[] body) {
+        // the four byte length form, which the parser expects
+        return new ByteBuilder().u8(tag).u8(0x80).u8(0x80).u8(0x80).u8(body.length).bytes(body).toByteArray();
+    }
+
+    private static byte[] mp4aSampleEntry() {
+
+        byte[] decoderConfig = descriptor(0x04, new ByteBuilder()
+                .u8(0x40).u8(0x15).u24(0).u32(128000).u32(128000)
+                .bytes(descriptor(0x05, new byte[] { 0x12, 0x10 }))
+                .toByteArray());
+        byte[] esDescriptor = descriptor(0x03, new ByteBuilder()
+                .u16(1).u8(0)
+                .bytes(decoderConfig)
+                .bytes(descriptor(0x06, new byte[] { 0x02 }))
+                .toByteArray());
+
+        return atom("mp4a",
+                new ByteBuilder().zeros(6).u16(1).zeros(8).u16(2).u16(16).zeros(4).u32((long) SAMPLE_RATE << 16).toByteArray(),
+                fullAtom("esds", 0, 0, esDescriptor));
+    }
+
+    private static byte[] chunkOffsets(boolean co64, long[] offsets) {
+        ByteBuilder table = new ByteBuilder().u32(offsets.length);
+        for (long offset : offsets) {
+            if (co64) table.u64(offset);
+            else table.u32(offset);
+        }
+        return fullAtom(co64 ? "co64" : "stco", 0, 0, table.toByteArray());
+    }
+
+    private static byte[] sampleTable(int samples, boolean co64, long[] chunkOffsets) {
+
+        ByteBuilder stts = new ByteBuilder();
+        ByteBuilder stsc = new ByteBuilder();
+        if (samples > 0) {
+            stts.u32(1).u32(samples).u32(AAC_FRAME_SAMPLES);
+            stsc.u32(1).u32(1).u32(AAC_CHUNK_SAMPLES).u32(1);
+        } else {
+            stts.u32(0);
+            stsc.u32(0);
+        }
+
+        return atom("stbl",
+                fullAtom("stsd", 0, 0, new ByteBuilder().u32(1).toByteArray(), mp4aSampleEntry()),
+                fullAtom("stts", 0, 0, stts.toByteArray()),
+                fullAtom("stsc", 0, 0, stsc.toByteArray()),
+                fullAtom("stsz", 0, 0, new ByteBuilder().u32(samples > 0 ? AAC_SAMPLE_LENGTH : 0).u32(samples).toByteArray()),
+                chunkOffsets(co64, chunkOffsets));
+    }
+
+    private byte[] moov(int samples, boolean fragmented, boolean co64, long[] chunkOffsets, byte[] ilst) {
+
+        long duration = (long) samples * AAC_FRAME_SAMPLES;
+        int tableSamples = fragmented ? 0 : samples;
+
+        byte[] mvhd = fullAtom("mvhd", 0, 0, new ByteBuilder()
+                .u32(0).u32(0).u32(SAMPLE_RATE).u32(duration).u32(0x10000).u16(0x100).zeros(10)
+                .bytes(matrix()).zeros(24).u32(2)
+                .toByteArray());
+        byte[] tkhd = fullAtom("tkhd", 0, 7, new ByteBuilder()
+                .u32(0).u32(0).u32(1).u32(0).u32(duration).zeros(8).u16(0).u16(0).u16(0x100).u16(0)
+                .bytes(matrix()).u32(0).u32(0)
+                .toByteArray());
+        byte[] mdhd = fullAtom("mdhd", 0, 0, new ByteBuilder()
+                .u32(0).u32(0).u32(SAMPLE_RATE).u32(duration).u16(0x55C4).u16(0)
+                .toByteArray());
+        byte[] hdlr = fullAtom("hdlr", 0, 0, new ByteBuilder()
+                .u32(0).ascii("soun").zeros(12).ascii("SoundHandler").u8(0)
+                .toByteArray());
+        byte[] minf = atom("minf",
+                fullAtom("smhd", 0, 0, new byte[4]),
+                atom("dinf", fullAtom("dref", 0, 0, new ByteBuilder().u32(1).toByteArray(), fullAtom("url ", 0, 1))),
+                sampleTable(tableSamples, co64, chunkOffsets));
+
+        byte[] trak = atom("trak", tkhd, atom("mdia", mdhd, hdlr, minf));
+        byte[] meta = fullAtom("meta", 0, 0,
+                fullAtom("hdlr", 0, 0, new ByteBuilder().u32(0).ascii("mdirappl").zeros(9).toByteArray()),
+                ilst,
+                atom("free", new byte[padding]));
+
+        if (fragmented) {
+            byte[] mvex = atom("mvex", fullAtom("trex", 0, 0, new ByteBuilder()
+                    .u32(1).u32(1).u32(AAC_FRAME_SAMPLES).u32(AAC_SAMPLE_LENGTH).u32(0)
+                    .toByteArray()));
+            return atom("moov", mvhd, trak, mvex, atom("udta", meta));
+        }
+        return atom("moov", mvhd, trak, atom("udta", meta));
+    }
+
+    private byte[] moof(int sequence, long decodeTime, int samples, int dataOffset) {
+        byte[] traf = atom("traf",
+                // default-base-is-moof, default sample duration and size
+                fullAtom("tfhd", 0, 0x020018, new ByteBuilder().u32(1).u32(AAC_FRAME_SAMPLES).u32(AAC_SAMPLE_LENGTH).toByteArray()),
+                fullAtom("tfdt", 1, 0, new ByteBuilder().u64(decodeTime).toByteArray()),
+                fullAtom("trun", 0, 0x000001, new ByteBuilder().u32(samples).u32(dataOffset).toByteArray()));
+        return atom("moof", fullAtom("mfhd", 0, 0, new ByteBuilder().u32(sequence).toByteArray()), traf);
+    }
+
+    private void writeMdat(OutputStream out, long length) throws IOException {
+        out.write(new ByteBuilder().u32(8 + length).ascii("mdat").toByteArray());
+        byte[] sample = new byte[AAC_SAMPLE_LENGTH];
+        for (long written = 0; written < length; written += sample.length) {
+            fill(sample, 0, sample.length);
+            out.write(sample);
+        }
+    }
+
+    /*
+     * ftyp, moov (with udta/meta/ilst and a free atom of the configured padding) and mdat in the given order.
+     * Fragmented files carry an empty sample table and one moof + mdat pair per FRAGMENT_SAMPLES samples.
+     */
+    public void writeMP4(Path path, MP4Layout layout, boolean co64, int index) throws IOException {
+
+        int samples = frames(AAC_SAMPLE_LENGTH);
+        boolean fragmented = layout == MP4Layout.FRAGMENTED;
+
+        // only the ilst of the tag is assembled, the rest of the moov is written below
+        MP4 mp4 = new MP4(new ArrayList<>(List.of(new MP4Atom("moov"))));
+        setFields(mp4, index);
+        AttachedPicture picture = cover();
+        if (picture != null) mp4.setPictureField(picture);
+        byte[] ilst = mp4.assemble();
+
+        byte[] ftyp = fragmented ?
+                atom("ftyp", new ByteBuilder().ascii("iso6").u32(0).ascii("iso6dashM4A ").toByteArray()) :
+                atom("ftyp", new ByteBuilder().ascii("M4A ").u32(0x200).ascii("M4A mp42isom").toByteArray());
+
+        try (OutputStream out = newOutputStream(path)) {
+
+            out.write(ftyp);
+            if (fragmented) {
+
+                out.write(moov(samples, true, co64, new long[0], ilst));
+
+                int sequence = 1;
+                for (int written = 0; written < samples; written += FRAGMENT_SAMPLES) {
+                    int count = Math.min(FRAGMENT_SAMPLES, samples - written);
+                    int moofLength = moof(sequence, 0, count, 0).length;
+                    out.write(moof(sequence++, (long) written * AAC_FRAME_SAMPLES, count, moofLength + 8));
+                    writeMdat(out, (long) count * AAC_SAMPLE_LENGTH);
+                }
+                return;
+            }
+
+            long[] chunkOffsets = new long[(samples + AAC_CHUNK_SAMPLES - 1) / AAC_CHUNK_SAMPLES];
+            int moovLength = moov(samples, false, co64, chunkOffsets, ilst).length;
+            long mdatData  = ftyp.length + 8 + (layout == MP4Layout.MOOV_FIRST ? moovLength : 0);
+
+            for (int i = 0; i < chunkOffsets.length; i++) {
+                chunkOffsets[i] = mdatData + (long) i * AAC_CHUNK_SAMPLES * AAC_SAMPLE_LENGTH;
+            }
+
+            byte[] moov = moov(samples, false, co64, chunkOffsets, ilst);
+            if (layout == MP4Layout.MOOV_FIRST) out.write(moov);
+            writeMdat(out, (long) samples * AAC_SAMPLE_LENGTH);
+            if (layout == MP4Layout.MOOV_LAST) out.write(moov);
+        }
+    }
+
+    // every MPEG, FLAC, Ogg and MP4 variant, copies times over
+    public List<Path> generate(Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+
+        for (int i = 0; i < copies; i++) {
+
+            for (byte version : new byte[] { 3, 4, 0 }) {
+                for (VbrHeader vbrHeader : VbrHeader.values()) {
+                    for (boolean id3v1 : new boolean[] { false, true }) {
+                        if (version == 0 && !id3v1 && vbrHeader != VbrHeader.NONE) continue;
+                        Path path = directory.resolve(String.format("mpeg-%s-%s%s-%03d.mp3",
+                                version == 0 ? "noid3v2" : "id3v2" + version,
+                                vbrHeader.name().toLowerCase(),
+                                id3v1 ? "-id3v1" : "",
+                                i));
+                        writeMpeg(path, version, vbrHeader, id3v1, i);
+                        files.add(path);
+                    }
+                }
+            }
+
+            Path flac = directory.resolve(String.format("flac-%03d.flac", i));
+            writeFlac(flac, i);
+            files.add(flac);
+
+            Path vorbis = directory.resolve(String.format("vorbis-%03d.ogg", i));
+            writeOggVorbis(vorbis, i);
+            files.add(vorbis);
+
+            Path opus = directory.resolve(String.format("opus-%03d.opus", i));
+            writeOggOpus(opus, i);
+            files.add(opus);
+
+            Path oggFlac = directory.resolve(String.format("oggflac-%03d.oga", i));
+            writeOggFlac(oggFlac, i);
+            files.add(oggFlac);
+
+            for (MP4Layout layout : MP4Layout.values()) {
+                for (boolean co64 : new boolean[] { false, true }) {
+                    if (layout == MP4Layout.FRAGMENTED && co64) continue;
+                    Path path = directory.resolve(String.format("m4a-%s-%s-%03d.m4a",
+                            layout.name().toLowerCase().replace('_', '-'),
+                            layout == MP4Layout.FRAGMENTED ? "moof" : co64 ? "co64" : "stco",
+                            i));
+                    writeMP4(path, layout, co64, i);
+                    files.add(path);
+                }
+            }
+        }
+        return files;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Builder builder = newBuilder();
+        Path directory  = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-n":    builder.setCopies(Integer.parseInt(args[++i]));             break;
+                case "-s":    builder.setAudioSize(Integer.parseInt(args[++i]) * 1024);   break;
+                case "-f":    builder.setFrameCount(Integer.parseInt(args[++i]));         break;
+                case "-p":    builder.setPadding(Integer.parseInt(args[++i]) * 1024);     break;
+                case "-c":    builder.setCoverSize(Integer.parseInt(args[++i]) * 1024);   break;
+                case "-ch":   builder.setChapterCount(Integer.parseInt(args[++i]));       break;
+                case "-seed": builder.setSeed(Long.parseLong(args[++i]));                 break;
+                default:      directory = Path.of(args[i]);
+            }
+        }
+        if (directory == null) {
+            System.err.println("Usage: CorpusGenerator [-n copies] [-s audioKiB] [-f frames] " +
+                    "[-p paddingKiB] [-c coverKiB] [-ch chapters] [-seed seed] <directory>");
+            System.exit(1);
+        }
+
+        List<Path> files = builder.build().generate(directory);
+        long size = 0;
+        for (Path file : files) size += Files.size(file);
+        System.out.printf("%d files, %.1f MB in %s\n", files.size(), size / (1024.0 * 1024.0), directory);
+    }
+
+    public class Builder {
+
+        public Builder setCopies(int copies) {
+            CorpusGenerator.this.copies = copies;
+            return this;
+        }
+
+        // approximate size of the audio payload of every file
+        public Builder setAudioSize(int audioSize) {
+            CorpusGenerator.this.audioSize = audioSize;
+            return this;
+        }
+
+        // frames, packets or samples per file, overrides the audio size when positive
+        public Builder setFrameCount(int frameCount) {
+            CorpusGenerator.this.frameCount = frameCount;
+            return this;
+        }
+
+        // ID3v2 padding, FLAC PADDING block and MP4 free atom
+        public Builder setPadding(int padding) {
+            CorpusGenerator.this.padding = padding;
+            return this;
+        }
+
+        public Builder setCoverSize(int coverSize) {
+            CorpusGenerator.this.coverSize = coverSize;
+            return this;
+        }
+
+        public Builder setChapterCount(int chapterCount) {
+            CorpusGenerator.this.chapterCount = chapterCount;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            CorpusGenerator.this.seed = seed;
+            return this;
+        }
+
+        public CorpusGenerator build() {
+            return CorpusGenerator.this;
+        }
+    }
+
+    private static class ByteBuilder extends ByteArrayOutputStream {
+
+        ByteBuilder u8(int value) {
+            write(value);
+            return this;
+        }
+
+        ByteBuilder u16(int value) {
+            return u8(value >>> 8).u8(value);
+        }
+
+        ByteBuilder u24(int value) {
+            return u8(value >>> 16).u16(value);
+        }
+
+        ByteBuilder u32(long value) {
+            return u16((int) (value >>> 16)).u16((int) value);
+        }
+
+        ByteBuilder u64(long value) {
+            return u32(value >>> 32).u32(value);
+        }
+
+        ByteBuilder u16le(int value) {
+            return u8(value).u8(value >>> 8);
+        }
+
+        ByteBuilder u32le(long value) {
+            return u16le((int) value).u16le((int) (value >>> 16));
+        }
+
+        ByteBuilder bytes(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        ByteBuilder ascii(String string) {
+            return bytes(string.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        ByteBuilder zeros(int count) {
+            return bytes(new byte[count]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.jtagger.bench;
+
+import com.jtagger.utils.BytesIO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// alternates between opening and closing a gap near the start of a file, like a tag growing and shrinking
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class MoveBlockBenchmark {
+
+    private static final int FILE_SIZE = 16 * 1024 * 1024;
+    private static final int SHIFT     = 64 * 1024;
+
+    private File target;
+    private RandomAccessFile file;
+    private boolean grow = true;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        target = File.createTempFile("jtagger-move", ".bin");
+        file   = new RandomAccessFile(target, "rw");
+        file.setLength(FILE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        file.close();
+        Files.deleteIfExists(target.toPath());
+    }
+
+    @Benchmark
+    public void moveBlock() throws IOException {
+        long length = file.length();
+        if (grow) {
+            BytesIO.moveBlock(file, 4096, 4096 + SHIFT, SHIFT, length - 4096);
+        } else {
+            BytesIO.moveBlock(file, 4096 + SHIFT, 4096, -SHIFT, length - 4096 - SHIFT);
+        }
+        grow = !grow;
+    }
+}
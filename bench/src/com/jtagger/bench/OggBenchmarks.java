@@ -0,0 +1,53 @@
+package com.jtagger.bench;
+
+import com.jtagger.ogg.OggPacket;
+import com.jtagger.ogg.OggParser;
+import com.jtagger.ogg.flac.OggFlacParser;
+import com.jtagger.ogg.opus.OggOpusParser;
+import com.jtagger.ogg.vorbis.OggVorbisParser;
+import com.jtagger.utils.SeekableSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class OggBenchmarks {
+
+    @Param({ "vorbis", "opus", "oggflac" })
+    public String format;
+
+    private SeekableSource file;
+
+    static OggParser newOggParser(String format) {
+        switch (format) {
+            case "vorbis": return new OggVorbisParser();
+            case "opus":   return new OggOpusParser();
+            default:       return new OggFlacParser();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(Samples samples) throws IOException {
+        file = SeekableSource.of(new RandomAccessFile(samples.get(format), "r"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        file.close();
+    }
+
+    @Benchmark
+    public ArrayList<OggPacket> parsePages() throws IOException {
+        file.seek(0);
+        OggParser parser = newOggParser(format);
+        return parser.parsePackets(parser.parsePages(file));
+    }
+}
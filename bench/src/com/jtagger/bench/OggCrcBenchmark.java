@@ -0,0 +1,56 @@
+package com.jtagger.bench;
+
+import com.jtagger.ogg.OggCrc;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// compares the former byte-at-a-time page checksum with OggCrc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class OggCrcBenchmark {
+
+    private static final int[] CRC_LOOKUP = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 24;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+            }
+            CRC_LOOKUP[i] = crc;
+        }
+    }
+
+    @Param({ "4096", "65536" })
+    public int pageSize;
+
+    private byte[] page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        page = new byte[pageSize];
+        new Random(pageSize).nextBytes(page);
+    }
+
+    // the loop OggPage.computePageChecksum used before OggCrc
+    @Benchmark
+    public int table() {
+        long checksum = 0;
+        for (byte b : page) {
+            byte index = (byte) ((checksum ^ (b << 24)) >> 24);
+            checksum = ((checksum << 8) ^ (CRC_LOOKUP[Byte.toUnsignedInt(index)]));
+        }
+        return (int) checksum;
+    }
+
+    @Benchmark
+    public int slicing() {
+        return OggCrc.compute(page, 0, page.length);
+    }
+}
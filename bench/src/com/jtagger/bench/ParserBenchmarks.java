@@ -0,0 +1,76 @@
+package com.jtagger.bench;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.MediaFile;
+import com.jtagger.ScanPart;
+import com.jtagger.StreamInfo;
+import com.jtagger.flac.FLAC;
+import com.jtagger.flac.FlacParser;
+import com.jtagger.mp3.MpegStreamInfo;
+import com.jtagger.mp3.MpegStreamInfoParser;
+import com.jtagger.mp3.id3.ID3V2Tag;
+import com.jtagger.mp4.MP4;
+import com.jtagger.mp4.MP4Parser;
+import com.jtagger.utils.SeekableSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ParserBenchmarks {
+
+    private SeekableSource mpeg;
+    private SeekableSource flac;
+    private SeekableSource mp4;
+    private ID3V2Tag id3Tag;
+
+    private static SeekableSource open(File sample) throws IOException {
+        return SeekableSource.of(new RandomAccessFile(sample, "r"));
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(Samples samples) throws IOException {
+
+        mpeg = open(samples.get("mpeg"));
+        flac = open(samples.get("flac"));
+        mp4  = open(samples.get("m4a"));
+
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(samples.get("mpeg"), "r", ScanPart.metadataOnly());
+            id3Tag = mediaFile.getTag() instanceof ID3V2Tag ? (ID3V2Tag) mediaFile.getTag() : null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        mpeg.close();
+        flac.close();
+        mp4.close();
+    }
+
+    @Benchmark
+    public MpegStreamInfo mpegStreamInfoParser() throws IOException {
+        mpeg.seek(0);
+        return new MpegStreamInfoParser(id3Tag).parseStreamInfo(mpeg);
+    }
+
+    @Benchmark
+    public FLAC flacParser() throws IOException {
+        flac.seek(0);
+        return new FlacParser().parseTag(flac);
+    }
+
+    @Benchmark
+    public MP4 mp4Parser() throws IOException {
+        mp4.seek(0);
+        return new MP4Parser().parseTag(mp4);
+    }
+}
@@ -0,0 +1,94 @@
+package com.jtagger.bench;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.MediaFile;
+import com.jtagger.ScanPart;
+import com.jtagger.StreamInfo;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.jtagger.MediaFile.FileContentTypeDetector.*;
+
+/*
+ * The first file of every format found under the samples directory, set with -p samples=/path/to/samples.
+ * Without one, the default corpus of CorpusGenerator is written to a temp directory for the trial.
+ */
+@State(Scope.Benchmark)
+public class Samples {
+
+    // the format names benchmarks take as @Param values
+    static final Map<String, String> FORMATS = Map.of(
+            "mpeg",    MPEG_MIME_TYPE,
+            "flac",    FLAC_MIME_TYPE,
+            "m4a",     M4A_MIME_TYPE,
+            "vorbis",  OGG_VORBIS_MIME_TYPE,
+            "opus",    OGG_OPUS_MIME_TYPE,
+            "oggflac", OGG_FLAC_MIME_TYPE
+    );
+
+    @Param("")
+    public String samples;
+
+    private final Map<String, Path> files = new HashMap<>();
+    private Path generated;
+
+    private static String getMimeType(Path path) {
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "r", ScanPart.metadataOnly());
+            return mediaFile.getMimeType();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        List<Path> paths;
+        if (samples.isEmpty()) {
+            generated = Files.createTempDirectory("jtagger-samples");
+            paths     = CorpusGenerator.newBuilder().setCopies(1).build().generate(generated);
+        } else {
+            try (Stream<Path> walk = Files.walk(Path.of(samples))) {
+                paths = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+        }
+        for (Path path : paths) {
+            String mimeType = getMimeType(path);
+            if (mimeType != null) files.putIfAbsent(mimeType, path);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (generated == null) return;
+        try (Stream<Path> walk = Files.walk(generated)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    public File get(String format) {
+        Path path = files.get(FORMATS.get(format));
+        if (path == null) {
+            throw new IllegalStateException("No " + format + " sample in " + samples);
+        }
+        return path.toFile();
+    }
+}
@@ -0,0 +1,46 @@
+package com.jtagger.bench;
+
+import com.jtagger.ogg.OggPacket;
+import com.jtagger.ogg.OggParser;
+import com.jtagger.ogg.vorbis.VorbisComments;
+import com.jtagger.ogg.vorbis.VorbisCommentsParser;
+import com.jtagger.utils.SeekableSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// parses the comment packet of the sample, without its Vorbis or Opus packet header
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class VorbisCommentsBenchmark {
+
+    @Param({ "vorbis", "opus" })
+    public String format;
+
+    private byte[] commentData;
+    private boolean isVorbis;
+
+    @Setup(Level.Trial)
+    public void setUp(Samples samples) throws IOException {
+
+        OggParser parser = OggBenchmarks.newOggParser(format);
+        try (SeekableSource file = SeekableSource.of(new RandomAccessFile(samples.get(format), "r"))) {
+
+            OggPacket packet = parser.parsePackets(parser.parsePages(file)).get(1);
+            isVorbis         = format.equals("vorbis");
+            commentData      = Arrays.copyOfRange(packet.getData(), isVorbis ? 7 : 8, packet.getData().length);
+        }
+    }
+
+    @Benchmark
+    public VorbisComments parse() {
+        return new VorbisCommentsParser().parse(commentData, isVorbis);
+    }
+}
@@ -0,0 +1,67 @@
+package com.jtagger.mp3.id3;
+
+import com.jtagger.bench.Samples;
+import com.jtagger.utils.SeekableSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.jtagger.mp3.id3.TagHeaderParser.HEADER_LENGTH;
+
+// lives in this package because FrameParser is package-private
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ID3Benchmarks {
+
+    private SeekableSource file;
+    private TagHeader header;
+    private byte[] frameData;
+
+    @Setup(Level.Trial)
+    public void setUp(Samples samples) throws IOException {
+
+        file = SeekableSource.of(new RandomAccessFile(samples.get("mpeg"), "r"));
+
+        byte[] headerData = new byte[HEADER_LENGTH];
+        file.seek(0);
+        file.readFully(headerData);
+
+        TagHeaderParser headerParser = new TagHeaderParser();
+        headerParser.setHeaderData(headerData);
+        header = headerParser.parse();
+        if (header == null) {
+            throw new IllegalStateException("The mpeg sample has no ID3v2 tag");
+        }
+
+        frameData = new byte[header.getTagSize()];
+        file.readFully(frameData);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        file.close();
+    }
+
+    @Benchmark
+    public ID3V2Tag parseTag() throws IOException {
+        file.seek(0);
+        return new ID3V2TagParser(new TagHeaderParser(), new FrameParser()).parseTag(file);
+    }
+
+    @Benchmark
+    public ArrayList<AbstractFrame> parseFrames() {
+        ArrayList<AbstractFrame> frames = new ArrayList<>();
+        FrameParser frameParser = new FrameParser();
+        frameParser.setTagHeader(header);
+        frameParser.setFrames(frameData);
+        frameParser.parseFrames(frames);
+        return frames;
+    }
+}
@@ -1,5 +1,7 @@
 package com.jtagger;
 
+import java.util.zip.CRC32C;
+
 public abstract class AbstractTag implements Component {
 
     public static final String TITLE             = "TITLE";
@@ -106,8 +108,56 @@ public abstract class AbstractTag implements Component {
             WWW_AUDIO_SOURCE,
     };
 
+    private int modCount = 0;
+    private boolean exposed = false;
+    private long storedHash;
+
+    /*
+     * Bumped by every mutator, so that an editor can tell whether the tag changed since it was read or saved.
+     */
+    protected void markModified() {
+        modCount++;
+    }
+
+    int getModCount() {
+        return modCount;
+    }
+
+    /*
+     * Called by accessors that hand out mutable parts of the tag. Reading them is not a change,
+     * so the serialized tag is hashed instead and the editor compares the hash before saving.
+     */
+    protected void markExposed() {
+        if (!exposed) {
+            storedHash = hashBytes();
+            exposed    = true;
+        }
+    }
+
+    // whether the parts handed out were changed in place since the tag was stored
+    boolean isChangedInPlace() {
+        return exposed && hashBytes() != storedHash;
+    }
+
+    void markStored() {
+        if (exposed) storedHash = hashBytes();
+    }
+
+    // the tag serialized as its editor writes it
+    protected byte[] assembleStored() {
+        return assemble();
+    }
+
+    private long hashBytes() {
+        byte[] bytes = assembleStored();
+        CRC32C crc   = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue() << 32 | bytes.length;
+    }
+
     public void setStringField(String fieldId, String value) {
         if (fieldId.equals(PICTURE)) throw new IllegalArgumentException("Must be a string field");
+        markModified();
         setFieldValue(fieldId, value.isEmpty() ? " " : value);
     }
 
@@ -117,10 +167,12 @@ public abstract class AbstractTag implements Component {
     }
 
     public AttachedPicture getPictureField() {
+        markExposed(); // the picture can be changed in place
         return getFieldValue(PICTURE);
     }
 
     public void setPictureField(AttachedPicture picture) {
+        markModified();
         setFieldValue(PICTURE, picture);
     }
 
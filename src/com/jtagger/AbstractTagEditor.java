@@ -1,31 +1,108 @@
 package com.jtagger;
 
 import com.jtagger.mp3.id3.ID3Tag;
+import com.jtagger.utils.BytesIO;
+import com.jtagger.utils.CachedSource;
+import com.jtagger.utils.FileSource;
+import com.jtagger.utils.SeekableSource;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 public abstract class AbstractTagEditor<T extends AbstractTag> {
 
-    protected RandomAccessFile file;
+    protected RandomAccessFile file; // null when scanned from a read-only source
+    protected SeekableSource source;
     protected T tag;
     protected boolean hasTag = false;
 
     protected String mimeType;
+    protected EnumSet<ScanPart> scanParts = ScanPart.all();
+
+    private File fileObj;
+    private String accessMode;
+
+    private SaveStrategy saveStrategy;
+    private RandomAccessFile original;
+    private File tempFile;
+
+    private AbstractTag storedTag;
+    private int storedModCount;
 
     abstract protected void parseTag() throws IOException;
     abstract public void setTag(AbstractTag tag);
 
     public void commit() throws IOException {
+        EnumSet<ScanPart> skipped = EnumSet.copyOf(ScanPart.TAG_PARTS);
+        skipped.removeAll(scanParts);
+        if (!skipped.isEmpty()) {
+            throw new IllegalStateException("Cannot save a tag scanned without " + skipped);
+        }
         if (tag != null) {
-            if (tag instanceof ID3Tag) {
-                tag.assemble(((ID3Tag) tag).getVersion());
-            } else {
-                tag.assemble();
-            }
+            assembleTag();
         }
     }
 
+    protected void assembleTag() {
+        if (tag instanceof ID3Tag) {
+            tag.assemble(((ID3Tag) tag).getVersion());
+        } else {
+            tag.assemble();
+        }
+    }
+
+    // the tag as it is now matches the file
+    void markStored() {
+        storedTag      = tag;
+        storedModCount = tag != null ? tag.getModCount() : 0;
+        if (tag != null) tag.markStored();
+    }
+
+    // whether save has anything to write, editors add the changes they make to the file on their own
+    protected boolean isModified() {
+        if (tag != storedTag) return true;
+        return tag != null && (tag.getModCount() != storedModCount || tag.isChangedInPlace());
+    }
+
+    /*
+     * Writes the part of buffer that differs from the file at position, returns the number of bytes written.
+     * Used when the serialized size is unchanged, so that an edit only rewrites the bytes it changed.
+     */
+    protected int writeChanged(byte[] buffer, int offset, int length, long position) throws IOException {
+
+        FileChannel channel = file.getChannel();
+        ByteBuffer stored   = ByteBuffer.allocate(length);
+        while (stored.hasRemaining()) {
+            if (channel.read(stored, position + stored.position()) < 0) break;
+        }
+
+        final int read = stored.position();
+        int first = Arrays.mismatch(buffer, offset, offset + length, stored.array(), 0, read);
+        if (first < 0) return 0;
+
+        int last = length - 1;
+        if (read == length) {
+            while (buffer[offset + last] == stored.get(last)) last--;
+        }
+
+        ByteBuffer changed = ByteBuffer.wrap(buffer, offset + first, last - first + 1);
+        while (changed.hasRemaining()) {
+            channel.write(changed, position + changed.position() - offset);
+        }
+        return last - first + 1;
+    }
+
     protected void convertTag(AbstractTag from, T to) {
 
         AttachedPicture picture = from.getPictureField();
@@ -44,15 +121,108 @@ public abstract class AbstractTagEditor<T extends AbstractTag> {
         }
     }
 
-    void load(RandomAccessFile file, String mimeType) throws IOException {
+    protected void moveTail(long from, long to) throws IOException {
+
+        final long fLen  = file.length();
+        final long count = fLen - from;
+
+        if (saveStrategy == null || tempFile != null ||
+            fileObj == null || !saveStrategy.isCopyOnWrite(fileObj, count))
+        {
+            BytesIO.moveBlock(file, from, to, to - from, count);
+            return;
+        }
+
+        copyOnWrite();
+        BytesIO.transferBlock(original.getChannel(), 0, file.getChannel(), 0, Math.min(from, to));
+        BytesIO.transferBlock(original.getChannel(), from, file.getChannel(), to, count);
+        file.setLength(to + count);
+    }
+
+    // points file at an empty sibling temp file that replaces the original once save commits, returns the original
+    protected RandomAccessFile copyOnWrite() throws IOException {
+
+        if (fileObj == null || tempFile != null) {
+            throw new IllegalStateException("Cannot rewrite " + fileObj);
+        }
+
+        File parent = fileObj.getAbsoluteFile().getParentFile();
+        tempFile    = File.createTempFile("." + fileObj.getName() + ".", ".tmp", parent);
+        original    = file;
+        file        = new RandomAccessFile(tempFile, "rw");
+        return original;
+    }
 
-        if (this.file != null) release();
-        this.mimeType = mimeType;
-        this.file     = file;
+    private void replaceFile() throws IOException {
+
+        Path target = fileObj.toPath();
+        Path temp   = tempFile.toPath();
+
+        file.getChannel().force(true);
+        file.close();
+        original.close();
+
+        if (Files.getFileAttributeView(target, PosixFileAttributeView.class) != null) {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        }
+
+        Files.move(temp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        file     = new RandomAccessFile(fileObj, accessMode);
+        original = null;
+        tempFile = null;
+    }
+
+    private void discardTempFile() throws IOException {
+        if (tempFile != null) {
+            file.close();
+            file     = original.getChannel().isOpen() ? original : new RandomAccessFile(fileObj, accessMode);
+            original = null;
+            Files.deleteIfExists(tempFile.toPath());
+            tempFile = null;
+        }
+    }
+
+    void save(SaveStrategy saveStrategy) throws IOException {
+        if (file == null) {
+            throw new IllegalStateException("Cannot save a tag scanned from a read-only source");
+        }
+        if (!isModified()) return;
+
+        this.saveStrategy = saveStrategy;
+        try {
+            commit();
+            if (tempFile != null) replaceFile();
+            markStored();
+        } finally {
+            this.saveStrategy = null;
+            discardTempFile();
+            source = new CachedSource(new FileSource(file)); // blocks read before the save are stale
+        }
+    }
+
+    void load(
+            File fileObj,
+            String accessMode,
+            RandomAccessFile file,
+            SeekableSource source,
+            String mimeType,
+            EnumSet<ScanPart> scanParts) throws IOException
+    {
+        if (this.source != null) release();
+        this.fileObj    = fileObj;
+        this.accessMode = accessMode;
+        this.mimeType   = mimeType;
+        this.file       = file;
+        this.source     = source;
+        this.scanParts  = scanParts;
 
         parseTag();
     }
 
+    protected Path getPath() {
+        return fileObj != null ? fileObj.toPath() : source.getPath();
+    }
+
     public T getTag() {
         return tag;
     }
@@ -66,7 +236,9 @@ public abstract class AbstractTagEditor<T extends AbstractTag> {
     }
 
     public void release() throws IOException {
-        file.close();
+        if (file != null) file.close();
+        source.close();
+        source   = null;
         tag      = null;
         mimeType = null;
     }
@@ -2,9 +2,18 @@ package com.jtagger;
 
 import com.jtagger.utils.ImageReader;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
 
 public class AttachedPicture {
 
@@ -66,6 +75,12 @@ public class AttachedPicture {
 
     private byte[] pictureData;
 
+    // lazy picture data: a buffer slice or a region of a file, read when the bytes are needed
+    private ByteBuffer pictureBuffer;
+    private Path sourcePath;
+    private long sourceOffset;
+    private int sourceLength;
+
     public AttachedPicture() { /* empty constructor */ }
 
     public AttachedPicture(
@@ -111,9 +126,60 @@ public class AttachedPicture {
     }
 
     public byte[] getPictureData() {
+        if (pictureData == null && (pictureBuffer != null || sourcePath != null)) {
+            byte[] data = new byte[getPictureLength()];
+            readPictureData(data, 0);
+            setPictureData(data);
+        }
         return pictureData;
     }
 
+    public int getPictureLength() {
+        if (pictureData != null)   return pictureData.length;
+        if (pictureBuffer != null) return pictureBuffer.remaining();
+        if (sourcePath != null)    return sourceLength;
+        return 0;
+    }
+
+    public boolean isFileBacked() {
+        return sourcePath != null;
+    }
+
+    public void readPictureData(byte[] buffer, int offset) {
+        if (pictureData != null) {
+            System.arraycopy(pictureData, 0, buffer, offset, pictureData.length);
+        }
+        else if (pictureBuffer != null) {
+            pictureBuffer.duplicate().get(buffer, offset, pictureBuffer.remaining());
+        }
+        else if (sourcePath != null) {
+            try (FileChannel channel = FileChannel.open(sourcePath, READ)) {
+
+                ByteBuffer target = ByteBuffer.wrap(buffer, offset, sourceLength);
+                while (target.hasRemaining()) {
+                    if (channel.read(target, sourceOffset + target.position() - offset) < 0) {
+                        throw new EOFException("Picture data is truncated: " + sourcePath);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public InputStream openStream() throws IOException {
+        if (pictureData != null) {
+            return new ByteArrayInputStream(pictureData);
+        }
+        if (pictureBuffer != null) {
+            return new BufferInputStream(pictureBuffer.duplicate());
+        }
+        if (sourcePath != null) {
+            return new RegionInputStream(FileChannel.open(sourcePath, READ), sourceOffset, sourceLength);
+        }
+        return null;
+    }
+
     public void setPictureType(int type) {
         this.pictureType = type;
     }
@@ -139,7 +205,23 @@ public class AttachedPicture {
     }
 
     public void setPictureData(byte[] pictureData) {
-        this.pictureData = pictureData;
+        this.pictureData   = pictureData;
+        this.pictureBuffer = null;
+        this.sourcePath    = null;
+    }
+
+    public void setPictureData(ByteBuffer pictureBuffer) {
+        this.pictureData   = null;
+        this.pictureBuffer = pictureBuffer.slice();
+        this.sourcePath    = null;
+    }
+
+    public void setPictureData(Path path, long offset, int length) {
+        this.pictureData   = null;
+        this.pictureBuffer = null;
+        this.sourcePath    = path;
+        this.sourceOffset  = offset;
+        this.sourceLength  = length;
     }
 
     public void setPictureData(File file) throws IOException {
@@ -151,4 +233,78 @@ public class AttachedPicture {
         setPictureData(ImageReader.readFromURL(url));
         setMimeType(ImageReader.getMimeType(url));
     }
+
+    private static class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static class RegionInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        RegionInputStream(FileChannel channel, long position, long length) {
+            this.channel   = channel;
+            this.position  = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (remaining <= 0) return -1;
+
+            ByteBuffer target = ByteBuffer.wrap(b, off, (int) Math.min(len, remaining));
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new EOFException("Picture data is truncated");
+            }
+
+            position  += read;
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
 }
@@ -0,0 +1,364 @@
+package com.jtagger;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class LibraryScanner implements AutoCloseable {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService timer;
+    private boolean ownsExecutor;
+
+    private int threadCount    = Runtime.getRuntime().availableProcessors();
+    private int maxPending     = 0;
+    private long timeoutMillis = 0;
+
+    private boolean virtualThreads = false;
+    private boolean ordered        = true;
+
+    private EnumSet<ScanPart> scanParts = ScanPart.all();
+
+    private LibraryScanner() {
+        /* empty constructor */
+    }
+
+    public Stream<ScanResult> scan(Path directory) throws IOException {
+        Stream<Path> paths = Files.walk(directory).filter(Files::isRegularFile);
+        return scan(paths);
+    }
+
+    public Stream<ScanResult> scan(Stream<Path> paths) {
+
+        ResultIterator iterator = ordered ?
+                new OrderedIterator(paths.iterator()) :
+                new UnorderedIterator(paths.iterator());
+
+        int characteristics = Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+                .onClose(iterator::cancel)
+                .onClose(paths::close);
+    }
+
+    private ScanResult scanFile(Path path) {
+
+        MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>();
+        try {
+
+            mediaFile.scan(path.toFile(), "r", scanParts);
+            return new ScanResult(
+                    path,
+                    mediaFile.getMimeType(),
+                    mediaFile.getTag(),
+                    mediaFile.getStreamInfo(),
+                    null
+            );
+
+        } catch (Exception e) {
+            return new ScanResult(path, null, null, null, e);
+        } finally {
+            try {
+                mediaFile.close();
+            } catch (IOException e) {
+                System.err.printf("LibraryScanner: failed to close %s: %s\n", path, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) executor.shutdownNow();
+        if (timer != null) timer.shutdownNow();
+    }
+
+    public static Builder newBuilder() {
+        return new LibraryScanner().new Builder();
+    }
+
+    private final class ScanTask extends FutureTask<ScanResult> {
+
+        private final Path path;
+        private final BlockingQueue<ScanTask> completed;
+        private volatile ScheduledFuture<?> watchdog;
+
+        ScanTask(Path path, BlockingQueue<ScanTask> completed) {
+            super(() -> scanFile(path));
+            this.path      = path;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            if (timer != null && !isDone()) {
+                watchdog = timer.schedule(() -> cancel(true), timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            super.run();
+        }
+
+        @Override
+        protected void done() {
+            ScheduledFuture<?> watchdog = this.watchdog;
+            if (watchdog != null) watchdog.cancel(false);
+            if (completed != null) completed.add(this);
+        }
+
+        ScanResult getResult() {
+            try {
+                return get();
+            } catch (CancellationException e) {
+                return new ScanResult(path, null, null, null,
+                        new TimeoutException("Scan timed out after " + timeoutMillis + " ms"));
+            } catch (ExecutionException e) {
+                return new ScanResult(path, null, null, null, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(true);
+                return new ScanResult(path, null, null, null, e);
+            }
+        }
+    }
+
+    private abstract class ResultIterator implements Iterator<ScanResult> {
+
+        private final Iterator<Path> source;
+        protected int pending = 0;
+
+        ResultIterator(Iterator<Path> source) {
+            this.source = source;
+        }
+
+        abstract protected ScanTask newTask(Path path);
+        abstract protected ScanTask take();
+        abstract void cancel();
+
+        @Override
+        public boolean hasNext() {
+            while (pending < maxPending && source.hasNext()) {
+                executor.execute(newTask(source.next()));
+                pending++;
+            }
+            return pending > 0;
+        }
+
+        @Override
+        public ScanResult next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            ScanTask task = take();
+            pending--;
+            return task.getResult();
+        }
+    }
+
+    private final class OrderedIterator extends ResultIterator {
+
+        private final ArrayDeque<ScanTask> tasks = new ArrayDeque<>();
+
+        OrderedIterator(Iterator<Path> source) {
+            super(source);
+        }
+
+        @Override
+        protected ScanTask newTask(Path path) {
+            ScanTask task = new ScanTask(path, null);
+            tasks.add(task);
+            return task;
+        }
+
+        @Override
+        protected ScanTask take() {
+            return tasks.poll();
+        }
+
+        @Override
+        void cancel() {
+            for (ScanTask task : tasks) task.cancel(true);
+            tasks.clear();
+            pending = 0;
+        }
+    }
+
+    private final class UnorderedIterator extends ResultIterator {
+
+        private final BlockingQueue<ScanTask> completed = new LinkedBlockingQueue<>();
+        private final Set<ScanTask> tasks = ConcurrentHashMap.newKeySet();
+
+        UnorderedIterator(Iterator<Path> source) {
+            super(source);
+        }
+
+        @Override
+        protected ScanTask newTask(Path path) {
+            ScanTask task = new ScanTask(path, completed);
+            tasks.add(task);
+            return task;
+        }
+
+        @Override
+        protected ScanTask take() {
+            try {
+                ScanTask task = completed.take();
+                tasks.remove(task);
+                return task;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CancellationException("Interrupted while waiting for scan results");
+            }
+        }
+
+        @Override
+        void cancel() {
+            for (ScanTask task : tasks) task.cancel(true);
+            tasks.clear();
+            completed.clear();
+            pending = 0;
+        }
+    }
+
+    public static class ScanResult {
+
+        private final Path path;
+        private final String mimeType;
+        private final AbstractTag tag;
+        private final StreamInfo streamInfo;
+        private final Throwable error;
+
+        ScanResult(
+                Path path,
+                String mimeType,
+                AbstractTag tag,
+                StreamInfo streamInfo,
+                Throwable error)
+        {
+            this.path       = path;
+            this.mimeType   = mimeType;
+            this.tag        = tag;
+            this.streamInfo = streamInfo;
+            this.error      = error;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public AbstractTag getTag() {
+            return tag;
+        }
+
+        public StreamInfo getStreamInfo() {
+            return streamInfo;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSupported() {
+            return mimeType != null;
+        }
+
+        public boolean hasError() {
+            return error != null;
+        }
+
+        @Override
+        public String toString() {
+            return hasError() ?
+                    String.format("%s: %s", path, error) :
+                    String.format("%s: %s", path, mimeType);
+        }
+    }
+
+    public class Builder {
+
+        public Builder setExecutor(ExecutorService executor) {
+            LibraryScanner.this.executor = executor;
+            return this;
+        }
+
+        public Builder setThreadCount(int threadCount) {
+            if (threadCount <= 0) throw new IllegalArgumentException("Invalid thread count: " + threadCount);
+            LibraryScanner.this.threadCount = threadCount;
+            return this;
+        }
+
+        public Builder setVirtualThreads(boolean virtualThreads) {
+            LibraryScanner.this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public Builder setMaxPendingScans(int maxPending) {
+            if (maxPending <= 0) throw new IllegalArgumentException("Invalid number of pending scans: " + maxPending);
+            LibraryScanner.this.maxPending = maxPending;
+            return this;
+        }
+
+        public Builder setTimeout(long timeout, TimeUnit unit) {
+            LibraryScanner.this.timeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder setOrdered(boolean ordered) {
+            LibraryScanner.this.ordered = ordered;
+            return this;
+        }
+
+        public Builder setScanParts(EnumSet<ScanPart> scanParts) {
+            LibraryScanner.this.scanParts = EnumSet.copyOf(scanParts);
+            return this;
+        }
+
+        private ExecutorService newVirtualThreadExecutor() {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("LibraryScanner: virtual threads are not available, using a fixed thread pool");
+                return null;
+            }
+        }
+
+        private ExecutorService newFixedThreadExecutor() {
+            return Executors.newFixedThreadPool(threadCount, runnable -> {
+                Thread thread = new Thread(runnable, "jtagger-scanner");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        public LibraryScanner build() {
+
+            if (executor == null) {
+                if (virtualThreads) executor = newVirtualThreadExecutor();
+                if (executor == null) executor = newFixedThreadExecutor();
+                ownsExecutor = true;
+            }
+            if (maxPending == 0) {
+                maxPending = threadCount * 4;
+            }
+            if (timeoutMillis > 0) {
+                timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "jtagger-scanner-timeout");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            return LibraryScanner.this;
+        }
+    }
+}
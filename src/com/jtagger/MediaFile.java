@@ -10,12 +10,16 @@ import com.jtagger.ogg.OggTagEditor;
 import com.jtagger.ogg.flac.OggFlacTagEditor;
 import com.jtagger.ogg.opus.OggOpusTagEditor;
 import com.jtagger.ogg.vorbis.OggVorbisTagEditor;
+import com.jtagger.utils.CachedSource;
+import com.jtagger.utils.FileSource;
+import com.jtagger.utils.SeekableSource;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.EnumSet;
 
 import static com.jtagger.ogg.opus.OggOpusParser.OPUS_IDENTIFICATION_HEADER_MAGIC;
 import static com.jtagger.ogg.vorbis.VorbisHeader.VORBIS_HEADER_MAGIC;
@@ -26,30 +30,70 @@ public class MediaFile<T extends AbstractTag, I extends StreamInfo> implements A
     protected AbstractTagEditor<T> tagEditor;
     protected StreamInfoParser<I> streamInfoParser;
     protected I streamInfo;
+    private CachedSource cache;
+
+    private SaveStrategy saveStrategy = SaveStrategy.AUTO;
 
     private final FileContentTypeDetector contentTypeDetector = new FileContentTypeDetector();
 
-    @SuppressWarnings("unchecked")
     public void scan(File fileObj, String accessMode) throws IOException {
+        scan(fileObj, accessMode, ScanPart.all());
+    }
+
+    public void scan(File fileObj, String accessMode, EnumSet<ScanPart> scanParts) throws IOException {
 
         if (tagEditor != null) {
             close();
         }
 
         RandomAccessFile file = new RandomAccessFile(fileObj.getAbsolutePath(), accessMode);
-        String mimeType = contentTypeDetector.getFileContentType(file);
+        cache = new CachedSource(new FileSource(file, fileObj.toPath()));
+        scan(fileObj, accessMode, file, cache, scanParts);
+    }
 
-        if (mimeType == null) {
-            file.close();
-            return;
+    // scans an in-memory or mapped source read-only, the source is closed with this MediaFile
+    public void scan(SeekableSource source) throws IOException {
+        scan(source, ScanPart.all());
+    }
+
+    public void scan(SeekableSource source, EnumSet<ScanPart> scanParts) throws IOException {
+
+        if (tagEditor != null) {
+            close();
         }
+        cache = null;
+        scan(null, null, null, source, scanParts);
+    }
 
-        tagEditor = getEditor(mimeType);
-        tagEditor.load(file, mimeType);
+    @SuppressWarnings("unchecked")
+    private void scan(
+            File fileObj,
+            String accessMode,
+            RandomAccessFile file,
+            SeekableSource source,
+            EnumSet<ScanPart> scanParts) throws IOException
+    {
+        try {
+
+            String mimeType = contentTypeDetector.getFileContentType(source);
+            if (mimeType == null) {
+                source.close();
+                return;
+            }
+
+            tagEditor = getEditor(mimeType);
+            tagEditor.load(fileObj, accessMode, file, source, mimeType, EnumSet.copyOf(scanParts));
 
-        if (streamInfo == null) {
-            streamInfoParser = getParser(mimeType);
-            streamInfo = streamInfoParser.parseStreamInfo(file);
+            if (streamInfo == null && scanParts.contains(ScanPart.STREAM_INFO)) {
+                streamInfoParser = getParser(mimeType);
+                streamInfo = streamInfoParser.parseStreamInfo(source);
+            }
+            tagEditor.markStored();
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            tagEditor  = null;
+            streamInfo = null;
+            throw e;
         }
     }
 
@@ -77,7 +121,7 @@ public class MediaFile<T extends AbstractTag, I extends StreamInfo> implements A
     protected StreamInfoParser getParser(String mimeType) {
         switch (mimeType) {
             case MPEG_MIME_TYPE:
-                return new MpegStreamInfoParser((ID3V2Tag) getTag());
+                return getMpegParser((ID3V2Tag) getTag());
             case FLAC_MIME_TYPE:
                 return ((FlacTagEditor) tagEditor).getParser();
             case M4A_MIME_TYPE:
@@ -91,6 +135,11 @@ public class MediaFile<T extends AbstractTag, I extends StreamInfo> implements A
         }
     }
 
+    // parser for MPEG stream info, also the one content type detection reads untagged files with
+    protected MpegStreamInfoParser getMpegParser(ID3V2Tag tag) {
+        return new MpegStreamInfoParser(tag);
+    }
+
     public void setTag(AbstractTag tag) {
         tagEditor.setTag(tag);
     }
@@ -107,12 +156,21 @@ public class MediaFile<T extends AbstractTag, I extends StreamInfo> implements A
         return tagEditor != null ? tagEditor.getTag() : null;
     }
 
+    // read-ahead cache the last file scan read through, its counters show the reads it saved
+    public CachedSource getReadCache() {
+        return cache;
+    }
+
     public I getStreamInfo() {
         return streamInfo;
     }
 
+    public void setSaveStrategy(SaveStrategy saveStrategy) {
+        this.saveStrategy = saveStrategy;
+    }
+
     public void save() throws IOException {
-        tagEditor.commit();
+        tagEditor.save(saveStrategy);
     }
 
     @Override
@@ -136,7 +194,7 @@ public class MediaFile<T extends AbstractTag, I extends StreamInfo> implements A
         }
 
         @SuppressWarnings("unchecked")
-        public String getFileContentType(RandomAccessFile file) throws IOException {
+        public String getFileContentType(SeekableSource file) throws IOException {
 
             final String oggMagic    = "OggS";
             final String id3Magic    = "ID3";
@@ -187,7 +245,7 @@ public class MediaFile<T extends AbstractTag, I extends StreamInfo> implements A
                 }
             }
 
-            MpegStreamInfoParser parser   = new MpegStreamInfoParser();
+            MpegStreamInfoParser parser   = getMpegParser(null);
             MpegStreamInfo mpegStreamInfo = parser.parseStreamInfo(file);
 
             if (mpegStreamInfo != null) {
@@ -0,0 +1,21 @@
+package com.jtagger;
+
+import java.io.File;
+
+public interface SaveStrategy {
+
+    long MIN_COPY_ON_WRITE_SHIFT = 4 * 1024 * 1024;
+
+    SaveStrategy IN_PLACE      = (file, shiftLength) -> false;
+    SaveStrategy COPY_ON_WRITE = (file, shiftLength) -> true;
+
+    SaveStrategy AUTO = (file, shiftLength) -> {
+        long fileLength = file.length();
+        return shiftLength >= MIN_COPY_ON_WRITE_SHIFT &&
+               shiftLength * 2 >= fileLength &&
+               file.getUsableSpace() > fileLength;
+    };
+
+    // true to rewrite the file into a sibling temp file instead of shifting shiftLength bytes in place
+    boolean isCopyOnWrite(File file, long shiftLength);
+}
@@ -0,0 +1,26 @@
+package com.jtagger;
+
+import java.util.EnumSet;
+
+public enum ScanPart {
+
+    STREAM_INFO,
+    PICTURES,
+    LYRICS,
+    CHAPTERS;
+
+    static final EnumSet<ScanPart> TAG_PARTS = EnumSet.of(PICTURES, LYRICS, CHAPTERS);
+
+    public static EnumSet<ScanPart> all() {
+        return EnumSet.allOf(ScanPart.class);
+    }
+
+    public static EnumSet<ScanPart> metadataOnly() {
+        return EnumSet.noneOf(ScanPart.class);
+    }
+
+    // a tag scanned without pictures, lyrics or chapters is incomplete and cannot be saved
+    public static boolean isTagComplete(EnumSet<ScanPart> scanParts) {
+        return scanParts.containsAll(TAG_PARTS);
+    }
+}
@@ -1,9 +1,10 @@
 package com.jtagger;
 
+import com.jtagger.utils.SeekableSource;
+
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 public interface StreamInfoParser<I extends StreamInfo> {
 
-    I parseStreamInfo(RandomAccessFile file) throws IOException;
+    I parseStreamInfo(SeekableSource file) throws IOException;
 }
@@ -1,9 +1,10 @@
 package com.jtagger;
 
+import com.jtagger.utils.SeekableSource;
+
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 public interface TagParser <T extends AbstractTag> {
 
-    T parseTag(RandomAccessFile file) throws IOException;
+    T parseTag(SeekableSource file) throws IOException;
 }
@@ -62,6 +62,7 @@ public class FLAC extends AbstractTag {
     }
 
     void addBlock(AbstractMetadataBlock block) {
+        markModified();
         AbstractMetadataBlock metadataBlock = getBlock(block.getBlockType());
         if (metadataBlock != null) {
             metadataBlocks.set(metadataBlocks.indexOf(metadataBlock), block);
@@ -71,6 +72,7 @@ public class FLAC extends AbstractTag {
     }
 
     void removeBlock(byte type) {
+        markModified();
         AbstractMetadataBlock toRemove = null;
         for (AbstractMetadataBlock block : metadataBlocks) {
             if (block.getBlockType() == type) {
@@ -82,6 +84,7 @@ public class FLAC extends AbstractTag {
     }
 
     public LinkedHashMap<String, String> getCommentsMap() {
+        markExposed();
         return getVorbisCommentBlock() ? vorbisComment.getVorbisComments().getCommentsMap() : null;
     }
 
@@ -90,20 +93,24 @@ public class FLAC extends AbstractTag {
     }
 
     public AttachedPicture getPicture() {
+        markExposed();
         return getPictureBlock() ? pictureBlock.getPicture() : null;
     }
 
     public void setComment(String field, String value) {
+        markModified();
         setVorbisCommentBlock();
         vorbisComment.setComment(field, value);
     }
 
     public void setPicture(AttachedPicture picture) {
+        markModified();
         setPictureBlock();
         pictureBlock.setPicture(picture);
     }
 
     public void removeComment(String field) {
+        markModified();
         if (getVorbisCommentBlock()) {
             vorbisComment.removeComment(field);
         }
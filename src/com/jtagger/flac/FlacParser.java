@@ -1,19 +1,27 @@
 package com.jtagger.flac;
 
+import com.jtagger.AttachedPicture;
+import com.jtagger.ScanPart;
 import com.jtagger.StreamInfo;
 import com.jtagger.StreamInfoParser;
 import com.jtagger.TagParser;
 import com.jtagger.utils.IntegerUtils;
+import com.jtagger.utils.SeekableSource;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.EnumSet;
 
 import static com.jtagger.flac.FLAC.*;
 import static com.jtagger.flac.AbstractMetadataBlock.*;
 
 public class FlacParser implements TagParser<FLAC>, StreamInfoParser<StreamInfoBlock> {
 
+    private static final int PICTURE_HEADER_LENGTH = 1024;
+
     private FLAC flac;
-    private int streamOffset = 0;
+    private long streamOffset = 0;
+    private EnumSet<ScanPart> scanParts = ScanPart.all();
+    private Path sourcePath;
 
     private final StreamInfoBlockParser streamInfoParser = new StreamInfoBlockParser();
     private final VorbisCommentBlockParser commentParser = new VorbisCommentBlockParser();
@@ -41,26 +49,79 @@ public class FlacParser implements TagParser<FLAC>, StreamInfoParser<StreamInfoB
         return parser;
     }
 
-    public static int getBitrate(StreamInfo streamInfo, int streamLength) {
+    public void setScanParts(EnumSet<ScanPart> scanParts) {
+        this.scanParts = scanParts;
+        commentParser.setScanParts(scanParts);
+    }
+
+    public void setSourcePath(Path sourcePath) {
+        this.sourcePath = sourcePath;
+    }
+
+    // reads the fields of a PICTURE block and leaves the picture data in the file
+    private PictureBlock parseLazyPicture(SeekableSource file, int blockLength) throws IOException {
+
+        final long blockOffset = file.getFilePointer();
+
+        byte[] pictureHeader = new byte[PICTURE_HEADER_LENGTH];
+        file.readFully(pictureHeader);
+
+        AttachedPicture picture = new AttachedPicture();
+        int position;
+        int pictureLength;
+        try {
+            position      = pictureParser.parsePictureHeader(pictureHeader, picture);
+            pictureLength = PictureBlockParser.getPictureLength(pictureHeader, position);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            position      = -1;
+            pictureLength = -1;
+        }
+
+        if (position < 0 || position > pictureHeader.length ||
+            pictureLength < 0 || position + pictureLength > blockLength)
+        {
+            file.seek(blockOffset);
+            return null; // description is too long or the block is invalid
+        }
+
+        PictureBlock pictureBlock = new PictureBlock();
+        picture.setPictureData(sourcePath, blockOffset + position, pictureLength);
+        pictureBlock.setPicture(picture);
+
+        file.seek(blockOffset + blockLength);
+        return pictureBlock;
+    }
+
+    private boolean isSkipped(int blockType) {
+        return blockType == BLOCK_TYPE_PADDING ||
+              (blockType == BLOCK_TYPE_PICTURE && !scanParts.contains(ScanPart.PICTURES));
+    }
+
+    public static int getBitrate(StreamInfo streamInfo, long streamLength) {
         return (int) ((streamLength * 8f) / (streamInfo.getDuration() * 1000f));
     }
 
-    int getStreamOffset() {
+    long getStreamOffset() {
         return streamOffset;
     }
 
+    // a save that resizes the metadata moves the frames that follow it
+    void setStreamOffset(long streamOffset) {
+        this.streamOffset = streamOffset;
+    }
+
     @Override
-    public StreamInfoBlock parseStreamInfo(RandomAccessFile file) throws IOException {
+    public StreamInfoBlock parseStreamInfo(SeekableSource file) throws IOException {
 
         if (flac == null)
             parseTag(file);
 
         StreamInfoBlock streamInfo;
-        int streamLength;
+        long streamLength;
         int bitrate;
 
         streamInfo   = flac.getBlock(BLOCK_TYPE_STREAMINFO);
-        streamLength = (int) (file.length() - streamOffset);
+        streamLength = file.length() - streamOffset;
         bitrate      = getBitrate(streamInfo, streamLength);
 
         streamInfo.setBitrate(bitrate);
@@ -69,7 +130,7 @@ public class FlacParser implements TagParser<FLAC>, StreamInfoParser<StreamInfoB
 
     @Override
     @SuppressWarnings("rawtypes")
-    public FLAC parseTag(RandomAccessFile file) throws IOException {
+    public FLAC parseTag(SeekableSource file) throws IOException {
 
         if (flac != null) return flac;
         flac = new FLAC();
@@ -110,7 +171,17 @@ public class FlacParser implements TagParser<FLAC>, StreamInfoParser<StreamInfoB
             if (blockLength <= 0)
                 throw new IllegalStateException(String.format("Invalid size for metadata block: %d\n", blockLength));
 
-            if (blockType != BLOCK_TYPE_PADDING) {
+            PictureBlock pictureBlock = null;
+            if (blockType == BLOCK_TYPE_PICTURE && sourcePath != null &&
+                blockLength > PICTURE_HEADER_LENGTH && !isSkipped(blockType))
+            {
+                pictureBlock = parseLazyPicture(file, blockLength);
+            }
+
+            if (pictureBlock != null) {
+                flac.addBlock(pictureBlock);
+            }
+            else if (!isSkipped(blockType)) {
 
                 blockData = new byte[blockLength];
                 file.readFully(blockData);
@@ -119,8 +190,11 @@ public class FlacParser implements TagParser<FLAC>, StreamInfoParser<StreamInfoB
                 flac.addBlock(parser != null ? parser.parse(blockData) :
                         new UnknownMetadataBlock(blockData, blockHeader));
             }
+            else {
+                file.seek(file.getFilePointer() + blockLength);
+            }
             if (isLastBlock) {
-                streamOffset = (int) file.getFilePointer() + blockLength;
+                streamOffset = file.getFilePointer();
                 break;
             }
             blockIndex++;
@@ -21,7 +21,9 @@ public class FlacTagEditor extends AbstractTagEditor<FLAC> {
     @Override
     protected void parseTag() throws IOException {
         parser = new FlacParser();
-        tag    = parser.parseTag(file);
+        parser.setScanParts(scanParts);
+        parser.setSourcePath(getPath());
+        tag    = parser.parseTag(source);
         sInfo  = (StreamInfoBlock) tag.getBlocks().get(0);
     }
 
@@ -38,17 +40,20 @@ public class FlacTagEditor extends AbstractTagEditor<FLAC> {
         super.commit();
         byte[] tagBuffer = tag.getBytes();
 
-        int origSize = parser.getStreamOffset() - 4; // subtract fLaC signature
-        int maxPad   = BytesIO.getPadding((int) file.length());
+        int origSize = (int) parser.getStreamOffset() - 4; // subtract fLaC signature
+        int maxPad   = BytesIO.getPadding(file.length());
         int padding  = origSize - tagBuffer.length;
 
-        file.seek(4);
         if ((padding - 4) >= PADDING_MIN && (padding - 4) <= maxPad) {
             padding -= 4;
-            file.write(tagBuffer);
-            file.write(BLOCK_TYPE_PADDING | 0x80);
-            file.write(IntegerUtils.fromUInt24BE(padding));
-            file.write(new byte[padding]);
+
+            byte[] paddingBlock = new byte[4 + padding];
+            paddingBlock[0] = (byte) (BLOCK_TYPE_PADDING | 0x80);
+            IntegerUtils.putUInt24BE(paddingBlock, 1, padding);
+
+            // the metadata keeps its size, only the bytes that changed are written
+            writeChanged(tagBuffer, 0, tagBuffer.length, 4);
+            writeChanged(paddingBlock, 0, paddingBlock.length, 4 + tagBuffer.length);
             return;
         } else {
             padding = PADDING_MIN;
@@ -56,15 +61,16 @@ public class FlacTagEditor extends AbstractTagEditor<FLAC> {
 
         int newSize = tagBuffer.length + padding + 4; // +4 block header size
         int delta   = newSize - origSize;
-        int from    = parser.getStreamOffset();
-        int to      = from + delta;
+        long from   = parser.getStreamOffset();
+        long to     = from + delta;
 
-        BytesIO.moveBlock(file, from, to, delta, (int) file.length() - from);
+        moveTail(from, to);
         BytesIO.writeBlock(file, tagBuffer, 4);
 
         file.write(BLOCK_TYPE_PADDING | 0x80);
         file.write(IntegerUtils.fromUInt24BE(padding));
         file.write(new byte[padding]);
+        parser.setStreamOffset(to);
     }
 
     @Override
@@ -40,9 +40,9 @@ METADATA_BLOCK_PICTURE
  */
 
 import com.jtagger.AttachedPicture;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import static com.jtagger.utils.IntegerUtils.fromUInt32BE;
+import static com.jtagger.utils.IntegerUtils.putUInt32BE;
 
 public class PictureBlock extends AbstractMetadataBlock {
 
@@ -67,11 +67,11 @@ public class PictureBlock extends AbstractMetadataBlock {
         int height      = picture.getHeight();
         int colorDepth  = picture.getColorDepth();
 
-        byte[] pictureData      = picture.getPictureData();
+        int pictureLength       = picture.getPictureLength();
         byte[] mimeTypeBytes    = mimeType.getBytes(StandardCharsets.US_ASCII);
         byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
 
-        int size = 4 * 8 + pictureData.length + mimeTypeBytes.length + descriptionBytes.length;
+        int size = 4 * 8 + pictureLength + mimeTypeBytes.length + descriptionBytes.length;
         byte[] block = new byte[size];
 
         final int pictureTypeOffset       = 0;
@@ -85,16 +85,20 @@ public class PictureBlock extends AbstractMetadataBlock {
         final int pictureDataLengthOffset = colorDepthOffset + 8;
         final int pictureDataOffset       = pictureDataLengthOffset + 4;
 
-        System.arraycopy(fromUInt32BE(pictureType), 0, block, pictureTypeOffset, 4);
-        System.arraycopy(fromUInt32BE(mimeTypeBytes.length), 0, block, mimeTypeLengthOffset, 4);
+        putUInt32BE(block, pictureTypeOffset, pictureType);
+        putUInt32BE(block, mimeTypeLengthOffset, mimeTypeBytes.length);
         System.arraycopy(mimeTypeBytes, 0, block, mimeTypeOffset, mimeTypeBytes.length);
-        System.arraycopy(fromUInt32BE(descriptionBytes.length), 0, block, descriptionLengthOffset, 4);
+        putUInt32BE(block, descriptionLengthOffset, descriptionBytes.length);
         System.arraycopy(descriptionBytes, 0, block, descriptionOffset, descriptionBytes.length);
-        System.arraycopy(fromUInt32BE(width), 0, block, widthOffset, 4);
-        System.arraycopy(fromUInt32BE(height), 0, block, heightOffset, 4);
-        System.arraycopy(Arrays.copyOf(fromUInt32BE(colorDepth), 8), 0, block, colorDepthOffset, 8);
-        System.arraycopy(fromUInt32BE(pictureData.length), 0, block, pictureDataLengthOffset, 4);
-        System.arraycopy(pictureData, 0, block, pictureDataOffset, pictureData.length);
+        putUInt32BE(block, widthOffset, width);
+        putUInt32BE(block, heightOffset, height);
+        putUInt32BE(block, colorDepthOffset, colorDepth); // followed by 4 zero bytes
+        putUInt32BE(block, pictureDataLengthOffset, pictureLength);
+        picture.readPictureData(block, pictureDataOffset);
+
+        if (picture.isFileBacked()) { // the file region is rewritten on save
+            picture.setPictureData(ByteBuffer.wrap(block, pictureDataOffset, pictureLength));
+        }
 
         this.blockBody = block;
         return block;
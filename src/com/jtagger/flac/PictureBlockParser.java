@@ -2,6 +2,7 @@ package com.jtagger.flac;
 
 import com.jtagger.AttachedPicture;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import static com.jtagger.utils.IntegerUtils.toUInt32BE;
 
@@ -13,25 +14,41 @@ public class PictureBlockParser implements BlockBodyParser<PictureBlock> {
         PictureBlock pictureBlock = new PictureBlock();
         AttachedPicture picture   = new AttachedPicture();
 
+        int index         = parsePictureHeader(block, picture);
+        int pictureLength = getPictureLength(block, index);
+
+        // the picture is a view of the block, not a copy
+        picture.setPictureData(ByteBuffer.wrap(block, index, Math.min(pictureLength, block.length - index)));
+        pictureBlock.setPicture(picture);
+
+        return pictureBlock;
+    }
+
+    static int getPictureLength(byte[] block, int pictureOffset) {
+        return toUInt32BE(block, pictureOffset - 4);
+    }
+
+    // parses the fields before the picture data, returns the offset of the picture data
+    int parsePictureHeader(byte[] block, AttachedPicture picture) {
+
         int index          = 0;
-        int pictureType    = toUInt32BE(Arrays.copyOfRange(block, index, index + 4)); index += 4;
-        int mimeTypeLength = toUInt32BE(Arrays.copyOfRange(block, index, index + 4)); index += 4;
+        int pictureType    = toUInt32BE(block, index); index += 4;
+        int mimeTypeLength = toUInt32BE(block, index); index += 4;
 
         String mimeType = new String(Arrays.copyOfRange(block, index, index + mimeTypeLength));
         index += mimeTypeLength;
 
-        int descriptionLength = toUInt32BE(Arrays.copyOfRange(block, index, index + 4));
+        int descriptionLength = toUInt32BE(block, index);
         index += 4;
 
         String description = new String(Arrays.copyOfRange(block, index, index + descriptionLength));
         index += descriptionLength;
 
-        int width      = toUInt32BE(Arrays.copyOfRange(block, index, index + 4)); index += 4;
-        int height     = toUInt32BE(Arrays.copyOfRange(block, index, index + 4)); index += 4;
-        int colorDepth = toUInt32BE(Arrays.copyOfRange(block, index, index + 4)); index += 8;
+        int width      = toUInt32BE(block, index); index += 4;
+        int height     = toUInt32BE(block, index); index += 4;
+        int colorDepth = toUInt32BE(block, index); index += 8;
 
-        int pictureLength  = toUInt32BE(Arrays.copyOfRange(block, index, index + 4)); index += 4;
-        byte[] pictureData = Arrays.copyOfRange(block, index, index + pictureLength);
+        index += 4; // picture data length
 
         picture.setPictureType(pictureType);
         picture.setMimeType(mimeType);
@@ -39,11 +56,7 @@ public class PictureBlockParser implements BlockBodyParser<PictureBlock> {
         picture.setPictureWidth(width);
         picture.setPictureHeight(height);
         picture.setPictureColorDepth(colorDepth);
-        picture.setPictureData(pictureData);
 
-        pictureBlock.setPicture(picture);
-        pictureBlock.assemble();
-
-        return pictureBlock;
+        return index;
     }
 }
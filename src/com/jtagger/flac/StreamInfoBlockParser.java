@@ -15,17 +15,17 @@ public class StreamInfoBlockParser implements BlockBodyParser<StreamInfoBlock> {
     @Override
     public StreamInfoBlock parse(byte[] block) {
 
-        short minBlockSize = toUInt16BE(Arrays.copyOfRange(block, 0, 2));
-        short maxBlockSize = toUInt16BE(Arrays.copyOfRange(block, 2, 4));
+        short minBlockSize = toUInt16BE(block, 0);
+        short maxBlockSize = toUInt16BE(block, 2);
 
-        int minFrameSize = toUInt24BE(Arrays.copyOfRange(block, 4, 7));
-        int maxFrameSize = toUInt24BE(Arrays.copyOfRange(block, 7, 10));
-        int bits         = toUInt24BE(Arrays.copyOfRange(block, 10, 13));
+        int minFrameSize = toUInt24BE(block, 4);
+        int maxFrameSize = toUInt24BE(block, 7);
+        int bits         = toUInt24BE(block, 10);
         int sampleRate   = bits >> 4;
 
-        byte channels      = (byte) ((bits >> 1 & 0x7) + 1); bits = toUInt32BE(Arrays.copyOfRange(block,10, 14));
+        byte channels      = (byte) ((bits >> 1 & 0x7) + 1); bits = toUInt32BE(block, 10);
         byte bitsPerSample = (byte) (((bits >> 4) & 0x1f) + 1);
-        int totalSamples   = toUInt32BE(Arrays.copyOfRange(block, 14, 18));
+        int totalSamples   = toUInt32BE(block, 14);
 
         byte[] signature = Arrays.copyOfRange(block, 18, 34);
         String md5 = toHexString(signature);
@@ -1,16 +1,27 @@
 package com.jtagger.flac;
 
+import com.jtagger.ScanPart;
 import com.jtagger.ogg.vorbis.VorbisComments;
 import com.jtagger.ogg.vorbis.VorbisCommentsParser;
 
+import java.util.EnumSet;
+
 public class VorbisCommentBlockParser implements BlockBodyParser<VorbisCommentBlock> {
 
+    private EnumSet<ScanPart> scanParts = ScanPart.all();
+
+    public void setScanParts(EnumSet<ScanPart> scanParts) {
+        this.scanParts = scanParts;
+    }
+
     @Override
     public VorbisCommentBlock parse(byte[] data) {
 
         VorbisCommentsParser parser           = new VorbisCommentsParser();
         VorbisCommentBlock vorbisCommentBlock = new VorbisCommentBlock();
 
+        parser.setScanParts(scanParts);
+
         VorbisComments vorbisComments = parser.parse(data, false);
         vorbisCommentBlock.setVorbisComments(vorbisComments);
 
@@ -8,15 +8,52 @@ import static com.jtagger.MediaFile.FileContentTypeDetector.MPEG_MIME_TYPE;
 
 public class MpegFile extends MediaFile<ID3V2Tag, MpegStreamInfo> {
 
+    private boolean lazyFrames    = false;
+    private boolean appendTag     = false;
+    private boolean exactDuration = false;
+    private boolean indexFrames   = false;
+
     @Override
     protected MpegStreamInfoParser getParser(String mimeType) {
         if (!mimeType.equals(MPEG_MIME_TYPE)) throw new IllegalArgumentException("Not a MP3 file");
-        return new MpegStreamInfoParser(tagEditor.getTag());
+        return getMpegParser(tagEditor.getTag());
+    }
+
+    @Override
+    protected MpegStreamInfoParser getMpegParser(ID3V2Tag tag) {
+        MpegStreamInfoParser parser = new MpegStreamInfoParser(tag);
+        parser.setExactDuration(exactDuration);
+        parser.setIndexFrames(indexFrames);
+        return parser;
     }
 
     @Override
     protected ID3V2TagEditor getEditor(String mimeType) {
         if (!mimeType.equals(MPEG_MIME_TYPE)) throw new IllegalArgumentException("Not a MPEG file");
-        return new ID3V2TagEditor();
+        ID3V2TagEditor editor = new ID3V2TagEditor();
+        editor.setLazyFrames(lazyFrames);
+        editor.setAppendTag(appendTag);
+        return editor;
+    }
+
+    // takes effect on the next scan
+    public void setLazyFrames(boolean lazyFrames) {
+        this.lazyFrames = lazyFrames;
+        if (tagEditor != null) ((ID3V2TagEditor) tagEditor).setLazyFrames(lazyFrames);
+    }
+
+    // takes effect on the next scan
+    public void setExactDuration(boolean exactDuration) {
+        this.exactDuration = exactDuration;
+    }
+
+    // takes effect on the next scan, the index is then available from the stream info
+    public void setIndexFrames(boolean indexFrames) {
+        this.indexFrames = indexFrames;
+    }
+
+    public void setAppendTag(boolean appendTag) {
+        this.appendTag = appendTag;
+        if (tagEditor != null) ((ID3V2TagEditor) tagEditor).setAppendTag(appendTag);
     }
 }
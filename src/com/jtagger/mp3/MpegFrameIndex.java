@@ -0,0 +1,112 @@
+package com.jtagger.mp3;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/*
+ * Seek table of a stream: the offsets of every FRAME_INTERVAL-th audio frame, counted from the first
+ * audio frame so that the index stays valid when a tag in front of the audio changes size. Built by a
+ * frame walk and saved to a sidecar file, so that it is only built once per file.
+ */
+public class MpegFrameIndex {
+
+    public static final int FRAME_INTERVAL = 16;
+
+    private static final int MAGIC   = 0x4D504649; // MPFI
+    private static final int VERSION = 1;
+
+    private final int sampleRate;
+    private final int samplesPerFrame;
+    private final long frameCount;
+
+    private final int[] frames;
+    private final long[] offsets;
+
+    MpegFrameIndex(int sampleRate, int samplesPerFrame, long frameCount, int[] frames, long[] offsets) {
+        this.sampleRate      = sampleRate;
+        this.samplesPerFrame = samplesPerFrame;
+        this.frameCount      = frameCount;
+        this.frames          = frames;
+        this.offsets         = offsets;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getSamplesPerFrame() {
+        return samplesPerFrame;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    // number of indexed frames
+    public int size() {
+        return frames.length;
+    }
+
+    public long getDurationMillis() {
+        return frameCount * samplesPerFrame * 1000 / sampleRate;
+    }
+
+    // offset from the first audio frame of the last indexed frame that starts at or before the time
+    public long seek(long timeMs) {
+
+        if (timeMs < 0) throw new IllegalArgumentException("Negative time: " + timeMs);
+        if (frames.length == 0) return 0;
+
+        long frame = Math.min(timeMs * sampleRate / (1000L * samplesPerFrame), Integer.MAX_VALUE);
+        int index  = Arrays.binarySearch(frames, (int) frame);
+        if (index < 0) index = Math.max(0, -index - 2);
+
+        return offsets[index];
+    }
+
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sampleRate);
+            out.writeInt(samplesPerFrame);
+            out.writeLong(frameCount);
+            out.writeInt(frames.length);
+
+            for (int i = 0; i < frames.length; i++) {
+                out.writeInt(frames[i]);
+                out.writeLong(offsets[i]);
+            }
+        }
+    }
+
+    public static MpegFrameIndex load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalArgumentException("Not a frame index: " + path);
+            }
+
+            int sampleRate      = in.readInt();
+            int samplesPerFrame = in.readInt();
+            long frameCount     = in.readLong();
+            int size            = in.readInt();
+
+            if (sampleRate <= 0 || samplesPerFrame <= 0 || size < 0 || size > frameCount) {
+                throw new IllegalArgumentException("Corrupt frame index: " + path);
+            }
+
+            int[] frames   = new int[size];
+            long[] offsets = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                frames[i]  = in.readInt();
+                offsets[i] = in.readLong();
+            }
+            return new MpegFrameIndex(sampleRate, samplesPerFrame, frameCount, frames, offsets);
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.jtagger.mp3;
 
+import com.jtagger.mp3.id3.ID3SynchSafeInteger;
 import com.jtagger.mp3.id3.ID3V2Tag;
-import com.jtagger.mp3.id3.TagHeader;
-import com.jtagger.utils.IntegerUtils;
+import com.jtagger.utils.BytesIO;
+import com.jtagger.utils.SeekableSource;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.List;
 
 import static com.jtagger.mp3.MpegFrameHeader.*;
@@ -13,6 +13,8 @@ import static java.lang.Byte.toUnsignedInt;
 
 public class MpegFrameParser {
 
+    private static final int SYNC_SEARCH_WINDOW = 64 * 1024;
+
     private static final int[][] MODE_EXTENSION;
     private static final int[][] SAMPLE_RATE;
     private static final int[][] BITRATE;
@@ -88,35 +90,36 @@ public class MpegFrameParser {
         return true;
     }
 
-    private static int[] findSync(RandomAccessFile file, int from) {
+    private static int[] findSync(SeekableSource file, long from) {
         try {
 
             file.seek(from);
-            long startPos = file.getFilePointer();
-            long endPos   = startPos + 64 * 1024;
-
-            byte[] buffer = new byte[4];
-            boolean found = false;
-            int header    = -1;
-
-            while (file.getFilePointer() < endPos) {
-
-                file.readFully(buffer);
-                header = IntegerUtils.toUInt32BE(buffer);
-
-                if (isHeaderValid(header)) {
-                    found = true;
-                    break;
+            long endPos   = from + SYNC_SEARCH_WINDOW + 3;
+            long position = from;
+
+            byte[] buffer = new byte[BytesIO.BUFFER_SIZE];
+            int chunk     = 256;
+            int header    = 0;
+            int read;
+
+            // start small: the sync is usually right at the start position
+            while (position < endPos &&
+                  (read = file.read(buffer, 0, (int) Math.min(chunk, endPos - position))) > 0)
+            {
+                for (int i = 0; i < read; i++) {
+                    header = (header << 8) | (buffer[i] & 0xFF);
+                    if (position + i - from >= 3 && isHeaderValid(header)) {
+                        file.seek(position + i + 1);
+                        return new int[] {
+                                (header >>> 24) & 0xFF,
+                                (header >>> 16) & 0xFF,
+                                (header >>> 8)  & 0xFF,
+                                header & 0xFF
+                        };
+                    }
                 }
-                file.seek(file.getFilePointer() - 3);
-            }
-            if (found) {
-                return new int[] {
-                        (header >>> 24) & 0xFF,
-                        (header >>> 16) & 0xFF,
-                        (header >>> 8)  & 0xFF,
-                        header & 0xFF
-                };
+                position += read;
+                chunk = Math.min(chunk * 2, buffer.length);
             }
             return null;
         } catch (IOException e) {
@@ -125,11 +128,10 @@ public class MpegFrameParser {
         }
     }
 
-    public static int[] findSync(RandomAccessFile file, ID3V2Tag id3V2Tag) {
+    public static int[] findSync(SeekableSource file, ID3V2Tag id3V2Tag) {
         int id3v2Size = 0;
-        if (id3V2Tag != null) {
-            TagHeader header = id3V2Tag.getTagHeader();
-            id3v2Size += header.getTagSize() + 10 + (header.hasFooter() ? 10 : 0);
+        if (id3V2Tag != null && !id3V2Tag.isAppended()) {
+            id3v2Size += id3V2Tag.getTagSize() + 10 + (id3V2Tag.hasFooter() ? 10 : 0);
         }
         return findSync(file, id3v2Size);
     }
@@ -144,7 +146,58 @@ public class MpegFrameParser {
         return (int) ((((header.getSamplesPerFrame() / 8f * bitrate * 1000f) / sampleRate) + padding) * slot);
     }
 
-    public int parseFrame(RandomAccessFile file, ID3V2Tag id3V2Tag) {
+    private static int getBitrateColumn(int version, int layer) {
+        if (version == MPEG_VERSION_1) return layer == MPEG_LAYER_1 ? 0 : layer == MPEG_LAYER_2 ? 1 : 2;
+        return layer == MPEG_LAYER_1 ? 3 : 4;
+    }
+
+    // size of the frame the 4 header bytes start, 0 if they are not a valid header or the frame is free format
+    static int getFrameSize(int header) {
+
+        if (!isHeaderValid(header)) return 0;
+
+        final int version    = (header >>> 19) & 0x3;
+        final int layer      = (header >>> 17) & 0x3;
+        final int bitrate    = BITRATE[(header >>> 12) & 0xF][getBitrateColumn(version, layer)];
+        final int sampleRate = SAMPLE_RATE[(header >>> 10) & 0x3][version];
+        final int padding    = (header >>> 9) & 0x1;
+        final int slot       = layer == MPEG_LAYER_1 ? 4 : 1;
+
+        return (SAMPLES_PER_FRAME[layer][version] / 8 / slot * bitrate * 1000 / sampleRate + padding) * slot;
+    }
+
+    // end of the audio, before an ID3v1 tag and an appended ID3v2 tag
+    static long getAudioEnd(SeekableSource file) throws IOException {
+
+        long end = file.length();
+        byte[] magic = new byte[3];
+
+        if (end >= 128) {
+            file.seek(end - 128);
+            file.readFully(magic);
+            if (magic[0] == 'T' && magic[1] == 'A' && magic[2] == 'G') end -= 128;
+        }
+        if (end >= 20) {
+            byte[] footer = new byte[10];
+            file.seek(end - 10);
+            file.readFully(footer);
+            if (footer[0] == '3' && footer[1] == 'D' && footer[2] == 'I') {
+                long tagStart = end - 20 - ID3SynchSafeInteger.fromSynchSafeIntegerBytes(footer, 6);
+                if (tagStart >= 0) end = tagStart;
+            }
+        }
+        return end;
+    }
+
+    static int getSamplesPerFrame(int header) {
+        return SAMPLES_PER_FRAME[(header >>> 17) & 0x3][(header >>> 19) & 0x3];
+    }
+
+    static int getSampleRate(int header) {
+        return SAMPLE_RATE[(header >>> 10) & 0x3][(header >>> 19) & 0x3];
+    }
+
+    public int parseFrame(SeekableSource file, ID3V2Tag id3V2Tag) {
         try {
 
             int[] headerBuff = findSync(file, id3V2Tag);
@@ -165,7 +218,7 @@ public class MpegFrameParser {
             file.readFully(frameData);
             mpegFrame = new MpegFrame(header, frameData);
 
-            if (findSync(file, (int) file.getFilePointer()) != null)
+            if (findSync(file, file.getFilePointer()) != null)
                 return syncPosition;
             return -1;
 
@@ -174,7 +227,7 @@ public class MpegFrameParser {
         }
     }
 
-    private MpegFrameHeader parseFrameHeader(RandomAccessFile file, int[] header) {
+    private MpegFrameHeader parseFrameHeader(SeekableSource file, int[] header) {
 
         if (!isSync(header[0], header[1])) {
             return null;
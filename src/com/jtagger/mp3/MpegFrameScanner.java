@@ -0,0 +1,271 @@
+package com.jtagger.mp3;
+
+import com.jtagger.utils.SeekableSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static com.jtagger.mp3.MpegFrameParser.*;
+import static java.nio.file.StandardOpenOption.READ;
+
+/*
+ * Counts the frames of a stream by stepping from header to header. The audio is split into chunks that
+ * are walked in parallel on a fork-join pool, each chunk syncs to its first frame on its own and a chunk
+ * is joined to its left neighbour where the walk of that one ended, walking the chunk again in the rare
+ * case the two disagree. The result is the same as one walk from the first frame.
+ * With an index interval, every chunk also records the offsets of every interval-th frame it walked.
+ */
+class MpegFrameScanner {
+
+    private static final int CHUNK_SIZE  = 1024 * 1024;
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    // sync, version, layer and sample rate, which stay the same for every frame of a stream
+    private static final int STREAM_MASK = 0xFFFE0C00;
+
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    private final long start;
+    private final long limit;
+    private final int indexInterval;
+    private int stream;
+
+    private MpegFrameScanner(FileChannel channel, ByteBuffer data, long start, long limit, int indexInterval) {
+        this.channel       = channel;
+        this.data          = data;
+        this.start         = start;
+        this.limit         = limit;
+        this.indexInterval = indexInterval;
+    }
+
+    /*
+     * Walks the frames from start, the position of the first frame header, to the end of the audio, and
+     * indexes them if indexInterval is above 0. Sources already in memory are walked in place, sources
+     * backed by a file are read through their own channel, others are copied into memory.
+     */
+    static Chunk scan(SeekableSource file, long start, ForkJoinPool pool, int indexInterval) throws IOException {
+
+        final long limit       = getAudioEnd(file);
+        final Path path        = file.getPath();
+        final ByteBuffer bytes = file.getByteBuffer();
+
+        if (bytes != null) {
+            return new MpegFrameScanner(null, bytes, start, limit, indexInterval).scan(pool);
+        }
+        if (path == null) {
+            byte[] data = new byte[(int) limit];
+            file.seek(0);
+            file.readFully(data);
+            return new MpegFrameScanner(null, ByteBuffer.wrap(data), start, limit, indexInterval).scan(pool);
+        }
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            return new MpegFrameScanner(channel, null, start, limit, indexInterval).scan(pool);
+        }
+    }
+
+    private Chunk scan(ForkJoinPool pool) throws IOException {
+        stream = new Window().getInt(start) & STREAM_MASK;
+        try {
+
+            Chunk chunk = pool.invoke(new Walk(start, limit));
+            if (indexInterval > 0 && stream != 0) {
+                chunk.frameIndex = new MpegFrameIndex(
+                        getSampleRate(stream),
+                        getSamplesPerFrame(stream),
+                        chunk.frameCount,
+                        Arrays.copyOf(chunk.indexFrames, chunk.indexSize),
+                        Arrays.copyOf(chunk.indexOffsets, chunk.indexSize)
+                );
+            }
+            return chunk;
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /*
+     * Frames counted from a range of the audio. The walk starts at the first frame in the range and
+     * stops at the first frame at or after its end, so neighbouring chunks line up where next of the
+     * left one is first of the right one.
+     */
+    static class Chunk {
+
+        private final long from;
+        private long to;
+        private long first = -1;
+        private long next;
+
+        private long frameCount;
+        private long audioBytes;
+
+        // frames numbered from the start of the chunk and their offsets from the first frame of the stream
+        private int[] indexFrames   = new int[0];
+        private long[] indexOffsets = new long[0];
+        private int indexSize;
+        private MpegFrameIndex frameIndex;
+
+        private Chunk(long from, long to) {
+            this.from = from;
+            this.to   = to;
+            this.next = to;
+        }
+
+        private void addIndexEntry(long frame, long offset) {
+            if (indexSize == indexFrames.length) {
+                int capacity = Math.max(16, indexSize * 2);
+                indexFrames  = Arrays.copyOf(indexFrames, capacity);
+                indexOffsets = Arrays.copyOf(indexOffsets, capacity);
+            }
+            indexFrames[indexSize]  = (int) Math.min(frame, Integer.MAX_VALUE);
+            indexOffsets[indexSize] = offset;
+            indexSize++;
+        }
+
+        long getFrameCount() {
+            return frameCount;
+        }
+
+        // bytes of all counted frames, headers included
+        long getAudioBytes() {
+            return audioBytes;
+        }
+
+        // null unless the scan was given an index interval
+        MpegFrameIndex getFrameIndex() {
+            return frameIndex;
+        }
+    }
+
+    private class Walk extends RecursiveTask<Chunk> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        private Walk(long from, long to) {
+            this.from = from;
+            this.to   = to;
+        }
+
+        @Override
+        protected Chunk compute() {
+            try {
+
+                if (to - from <= CHUNK_SIZE) {
+                    Window window = new Window();
+                    long first    = from == start ? start : sync(window, from, to);
+                    return walk(window, from, first < 0 ? to : first, to);
+                }
+
+                long middle = from + (to - from) / 2;
+                Walk left   = new Walk(from, middle);
+                left.fork();
+
+                Chunk right = new Walk(middle, to).compute();
+                return merge(left.join(), right);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Chunk merge(Chunk left, Chunk right) throws IOException {
+
+        if (left.next < right.to && left.next != right.first) {
+            right = walk(new Window(), right.from, left.next, right.to);
+        }
+        if (left.next < right.to) {
+            for (int i = 0; i < right.indexSize; i++) {
+                left.addIndexEntry(left.frameCount + right.indexFrames[i], right.indexOffsets[i]);
+            }
+            left.frameCount += right.frameCount;
+            left.audioBytes += right.audioBytes;
+            left.next        = right.next;
+        }
+        left.to = right.to;
+        return left;
+    }
+
+    private Chunk walk(Window window, long from, long position, long to) throws IOException {
+
+        Chunk chunk = new Chunk(from, to);
+        chunk.first = position < to ? position : -1;
+
+        while (position < to) {
+
+            int frameSize = getStreamFrameSize(window, position);
+            if (frameSize == 0) {
+                long sync = sync(window, position + 1, limit);
+                position  = sync < 0 ? limit : sync;
+                continue;
+            }
+            if (indexInterval > 0 && chunk.frameCount % indexInterval == 0) {
+                chunk.addIndexEntry(chunk.frameCount, position - start);
+            }
+            chunk.frameCount++;
+            chunk.audioBytes += frameSize;
+            position += frameSize;
+        }
+        chunk.next = position;
+        return chunk;
+    }
+
+    // first position in the range that starts a frame followed by another one or the end of the audio, -1 if none
+    private long sync(Window window, long from, long to) throws IOException {
+        for (long position = from; position < to; position++) {
+            int frameSize = getStreamFrameSize(window, position);
+            if (frameSize > 0 && (position + frameSize == limit || getStreamFrameSize(window, position + frameSize) > 0)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    // size of a frame of this stream at the position, 0 if there is none or it runs past the audio
+    private int getStreamFrameSize(Window window, long position) throws IOException {
+        int header = window.getInt(position);
+        if ((header & STREAM_MASK) != stream) return 0;
+
+        int frameSize = getFrameSize(header);
+        return position + frameSize <= limit ? frameSize : 0;
+    }
+
+    // a walk's own view of the audio, refilled from the channel as the walk moves past it
+    private class Window {
+
+        private final ByteBuffer buffer;
+        private long base = 0;
+
+        private Window() {
+            buffer = channel != null ? ByteBuffer.allocate(WINDOW_SIZE).limit(0) : data;
+        }
+
+        // big-endian int at the position, 0 past the end of the audio
+        private int getInt(long position) throws IOException {
+            if (position < 0 || position + 4 > limit) return 0;
+            if (position < base || position + 4 > base + buffer.limit()) {
+                fill(position);
+                if (position + 4 > base + buffer.limit()) return 0;
+            }
+            return buffer.getInt((int) (position - base));
+        }
+
+        private void fill(long position) throws IOException {
+            buffer.clear();
+            while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+                /* read until full or the end of the file */
+            }
+            buffer.flip();
+            base = position;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.jtagger.mp3;
 
 import com.jtagger.StreamInfo;
+
 import static com.jtagger.mp3.MpegFrameHeader.CHANNEL_MODE_SINGLE_CHANNEL;
+import static java.lang.Byte.toUnsignedInt;
+import static java.lang.Integer.toUnsignedLong;
 
 public class MpegStreamInfo implements StreamInfo {
 
@@ -11,6 +14,11 @@ public class MpegStreamInfo implements StreamInfo {
 
     private int bitrate;
     private int duration;
+    private long frameCount = -1;
+
+    private long streamOffset;
+    private long audioOffset;
+    private MpegFrameIndex frameIndex;
 
     private MpegStreamInfo() {
         /* empty constructor */
@@ -58,6 +66,72 @@ public class MpegStreamInfo implements StreamInfo {
         return mpegHeader.getSampleRate();
     }
 
+    // frames counted by an exact duration scan, -1 if the stream was not walked
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    void setFrameCount(long frameCount) {
+        this.frameCount = frameCount;
+    }
+
+    // position of the first frame, the one carrying the Xing or VBRI header if there is one
+    public long getStreamOffset() {
+        return streamOffset;
+    }
+
+    // position of the first audio frame
+    public long getAudioOffset() {
+        return audioOffset;
+    }
+
+    void setOffsets(long streamOffset, long audioOffset) {
+        this.streamOffset = streamOffset;
+        this.audioOffset  = audioOffset;
+    }
+
+    public MpegFrameIndex getFrameIndex() {
+        return frameIndex;
+    }
+
+    // attaches an index built by an earlier scan, for example one loaded from a sidecar file
+    public void setFrameIndex(MpegFrameIndex frameIndex) {
+        if (frameIndex != null && (frameIndex.getSampleRate() != getSampleRate() ||
+                frameIndex.getSamplesPerFrame() != mpegHeader.getSamplesPerFrame()))
+        {
+            throw new IllegalArgumentException("Frame index does not belong to this stream");
+        }
+        this.frameIndex = frameIndex;
+    }
+
+    /*
+     * Position in the file to start reading at to play from the time. The Xing table of contents locates
+     * it to 1% of the stream and lands between frames, a frame index returns the last indexed frame before
+     * it. Without either the position is estimated from the bitrate.
+     */
+    public long seek(long timeMs) {
+
+        if (timeMs < 0) throw new IllegalArgumentException("Negative time: " + timeMs);
+
+        if (xingHeader != null && xingHeader.hasTableOfContents()) {
+
+            long durationMs = (long) xingHeader.getTotalFrames() * mpegHeader.getSamplesPerFrame() * 1000 / getSampleRate();
+            byte[] toc      = xingHeader.getTableOfContents();
+
+            double percent = durationMs > 0 ? Math.min(100d, timeMs * 100d / durationMs) : 0d;
+            int index      = Math.min(99, (int) percent);
+            double from    = toUnsignedInt(toc[index]);
+            double to      = index < 99 ? toUnsignedInt(toc[index + 1]) : 256d;
+
+            double position = from + (to - from) * (percent - index);
+            return streamOffset + (long) (position / 256d * toUnsignedLong(xingHeader.getTotalBytes()));
+        }
+        if (frameIndex != null) {
+            return audioOffset + frameIndex.seek(timeMs);
+        }
+        return audioOffset + timeMs * bitrate / 8;
+    }
+
     public boolean isVBR() {
         return (xingHeader != null && xingHeader.isVBR()) || vbriHeader != null;
     }
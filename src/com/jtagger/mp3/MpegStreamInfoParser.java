@@ -2,13 +2,15 @@ package com.jtagger.mp3;
 
 import com.jtagger.StreamInfoParser;
 import com.jtagger.mp3.id3.ID3V2Tag;
+import com.jtagger.utils.SeekableSource;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.jtagger.mp3.MpegFrameHeader.CHANNEL_MODE_SINGLE_CHANNEL;
 import static com.jtagger.mp3.MpegFrameHeader.MPEG_VERSION_1;
+import static com.jtagger.mp3.MpegFrameParser.getAudioEnd;
 import static com.jtagger.mp3.MpegFrameParser.getFrameSize;
 import static com.jtagger.mp3.XingHeader.*;
 import static com.jtagger.mp3.XingHeader.FLAG_QUALITY;
@@ -20,7 +22,12 @@ import static java.lang.Integer.toUnsignedLong;
 
 public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
 
+    private static final int LAME_HEADER_LENGTH = 36;
+
     private ID3V2Tag tag;
+    private boolean exactDuration = false;
+    private boolean indexFrames   = false;
+    private ForkJoinPool pool     = ForkJoinPool.commonPool();
 
     public MpegStreamInfoParser() {
 
@@ -30,31 +37,49 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
         this.tag = tag;
     }
 
+    /*
+     * Streams without a Xing or VBRI header are measured by walking every frame instead of being
+     * estimated from the bitrate of the first one, which is wrong for VBR files.
+     */
+    public void setExactDuration(boolean exactDuration) {
+        this.exactDuration = exactDuration;
+    }
+
+    // builds a frame index for MpegStreamInfo.seek of streams without a Xing table of contents
+    public void setIndexFrames(boolean indexFrames) {
+        this.indexFrames = indexFrames;
+    }
+
+    // pool frame walks run on, the common pool by default
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     private LAMEHeader parseLAMEHeader(byte[] frame, int offset) {
 
-        if (offset + 9 >= frame.length) {
+        if (offset + LAME_HEADER_LENGTH > frame.length) {
             return null;
         }
 
-        String version = new String(Arrays.copyOfRange(frame, offset, offset += 9));
+        String version = new String(frame, offset, 9); offset += 9;
         int tagVersion = frame[offset] >> 4;
         int vbrMethod  = frame[offset++] & 0xF;
         int lowpassFlt = toUnsignedInt(frame[offset++]);
 
-        long replayGain   = toUInt64BE(Arrays.copyOfRange(frame, offset, offset += 8));
+        long replayGain   = toUInt64BE(frame, offset); offset += 8;
         int encodingFlags = frame[offset] >> 4;
         int lameAthType   = frame[offset++] & 0xF;
         int bitrate       = toUnsignedInt(frame[offset++]);
-        int encoderDelays = toUInt24BE(Arrays.copyOfRange(frame, offset, offset += 3));
+        int encoderDelays = toUInt24BE(frame, offset); offset += 3;
         int startDelay    = encoderDelays >> 12;
         int endDelay      = encoderDelays & 0xFFF;
         int miscellaneous = toUnsignedInt(frame[offset++]);
         int mp3Gain       = toUnsignedInt(frame[offset++]);
-        int surroundInfo  = Short.toUnsignedInt(toUInt16BE(Arrays.copyOfRange(frame, offset, offset += 2)));
+        int surroundInfo  = Short.toUnsignedInt(toUInt16BE(frame, offset)); offset += 2;
 
-        long lengthBytes = toUnsignedLong(toUInt32BE(Arrays.copyOfRange(frame, offset, offset += 4)));
-        int musicCRC     = Short.toUnsignedInt(toUInt16BE(Arrays.copyOfRange(frame, offset, offset += 2)));
-        int infoCRC      = Short.toUnsignedInt(toUInt16BE(Arrays.copyOfRange(frame, offset, offset += 2)));
+        long lengthBytes = toUnsignedLong(toUInt32BE(frame, offset)); offset += 4;
+        int musicCRC     = Short.toUnsignedInt(toUInt16BE(frame, offset)); offset += 2;
+        int infoCRC      = Short.toUnsignedInt(toUInt16BE(frame, offset));
 
         return new LAMEHeader(
                 version,
@@ -97,7 +122,7 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
         }
 
         offset += 4;
-        int flags = toUInt32BE(Arrays.copyOfRange(frameBody, offset, offset + 4)); offset += 4;
+        int flags = toUInt32BE(frameBody, offset); offset += 4;
 
         int totalFrames;
         int totalBytes;
@@ -109,11 +134,11 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
         builder = builder.setFlags(flags);
 
         if ((flags & FLAG_FRAMES) != 0x0) {
-            totalFrames = toUInt32BE(Arrays.copyOfRange(frameBody, offset, offset + 4)); offset += 4;
+            totalFrames = toUInt32BE(frameBody, offset); offset += 4;
             builder     = builder.setTotalFrames(totalFrames);
         }
         if ((flags & FLAG_BYTES) != 0x0) {
-            totalBytes  = toUInt32BE(Arrays.copyOfRange(frameBody, offset, offset + 4)); offset += 4;
+            totalBytes  = toUInt32BE(frameBody, offset); offset += 4;
             builder     = builder.setTotalBytes(totalBytes);
         }
         if ((flags & FLAG_TOC) != 0x0) {
@@ -121,7 +146,7 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
             builder = builder.setTableOfContents(toc);
         }
         if ((flags & FLAG_QUALITY) != 0x0) {
-            quality = toUInt32BE(Arrays.copyOfRange(frameBody, offset, offset + 4)); offset += 4;
+            quality = toUInt32BE(frameBody, offset); offset += 4;
             builder = builder.setQualityIndicator(quality);
         }
 
@@ -135,19 +160,18 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
 
     private VBRIHeader parseVBRIHeader(MpegFrame frame) {
 
-        int offset    = 0;
+        // zero padded when the frame is shorter than the header
         byte[] header = Arrays.copyOfRange(frame.getFrameBody(), 32, 32 + 18);
-        byte[] magic  = Arrays.copyOfRange(header, offset, offset += 4);
 
-        if (!Arrays.equals(magic, VBRIHeader.VBRI_MAGIC)) {
+        if (!Arrays.equals(header, 0, 4, VBRIHeader.VBRI_MAGIC, 0, 4)) {
             return null;
         }
 
-        short version   = toUInt16BE(Arrays.copyOfRange(header, offset, offset += 2));
-        float delay     = intBitsToFloat(toUInt16BE(Arrays.copyOfRange(header, offset, offset += 2)));
-        short quality   = toUInt16BE(Arrays.copyOfRange(header, offset, offset += 2));
-        int totalBytes  = toUInt32BE(Arrays.copyOfRange(header, offset, offset += 4));
-        int totalFrames = toUInt32BE(Arrays.copyOfRange(header, offset, offset += 4));
+        short version   = toUInt16BE(header, 4);
+        float delay     = intBitsToFloat(toUInt16BE(header, 6));
+        short quality   = toUInt16BE(header, 8);
+        int totalBytes  = toUInt32BE(header, 10);
+        int totalFrames = toUInt32BE(header, 14);
 
         return new VBRIHeader(
                 version,
@@ -174,7 +198,7 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
     }
 
     @Override
-    public MpegStreamInfo parseStreamInfo(RandomAccessFile file) throws IOException {
+    public MpegStreamInfo parseStreamInfo(SeekableSource file) throws IOException {
 
         MpegFrameParser mpegFrameParser = new MpegFrameParser();
         int syncPosition = mpegFrameParser.parseFrame(file, tag);
@@ -197,9 +221,22 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
         if (xingHeader != null) builder = builder.setXingHeader(xingHeader);
         if (vbriHeader != null) builder = builder.setVBRIHeader(vbriHeader);
 
+        // the frame carrying a VBR header is not audio
+        final boolean hasVBRHeader = xingHeader != null || vbriHeader != null;
+        final long streamOffset    = syncPosition - 4;
+        final long audioEnd        = getAudioEnd(file);
+        long audioOffset           = streamOffset;
+
+        if (hasVBRHeader) {
+            file.seek(streamOffset);
+            audioOffset += getFrameSize(file.readInt());
+        }
+
         MpegStreamInfo mpegStreamInfo = builder.build();
+        mpegStreamInfo.setOffsets(streamOffset, audioOffset);
+
         int bitrate = mpegHeader.getBitrate() * 1000;
-        float duration = ((float) file.length() - syncPosition) * 8f / bitrate;
+        float duration = ((float) audioEnd - syncPosition) * 8f / bitrate;
 
         int samplesFrame = mpegHeader.getSamplesPerFrame();
         int sampleRate   = mpegHeader.getSampleRate();
@@ -220,9 +257,27 @@ public class MpegStreamInfoParser implements StreamInfoParser<MpegStreamInfo> {
             duration = getDuration(samples, sampleRate);
         }
         else if (vbriHeader != null) {
-            bitrate  = getBitrate(vbriHeader.getTotalBytes() - syncPosition + 4, sampleRate, vbriHeader.getTotalFrames() * samplesFrame);
+            // counted with or without the VBRI frame depending on the encoder, the file has the last word
+            int audioBytes = (int) Math.min(toUnsignedLong(vbriHeader.getTotalBytes()), audioEnd - audioOffset);
+            bitrate  = getBitrate(audioBytes, sampleRate, vbriHeader.getTotalFrames() * samplesFrame);
             duration = getDuration(vbriHeader.getTotalFrames() * samplesFrame, sampleRate);
         }
+
+        final boolean buildIndex = indexFrames && (xingHeader == null || !xingHeader.hasTableOfContents());
+        if (buildIndex || exactDuration && !hasVBRHeader) {
+
+            int interval = buildIndex ? MpegFrameIndex.FRAME_INTERVAL : 0;
+            MpegFrameScanner.Chunk frames = MpegFrameScanner.scan(file, audioOffset, pool, interval);
+            long samples = frames.getFrameCount() * samplesFrame;
+
+            // a walk for the index measures the stream as well
+            if (!hasVBRHeader && samples > 0) {
+                bitrate  = (int) Math.rint(frames.getAudioBytes() * 8d * sampleRate / samples);
+                duration = (float) Math.rint((double) samples / sampleRate);
+            }
+            mpegStreamInfo.setFrameCount(frames.getFrameCount());
+            mpegStreamInfo.setFrameIndex(frames.getFrameIndex());
+        }
         mpegStreamInfo.setBitrate(bitrate / 1000);
         mpegStreamInfo.setDuration((int) duration);
         return mpegStreamInfo;
@@ -48,6 +48,12 @@ public class XingHeader implements VBRHeader {
         return tableOfContents;
     }
 
+    // a table of contents is only usable for seeking together with the frame and byte counts
+    public boolean hasTableOfContents() {
+        final int required = FLAG_FRAMES | FLAG_BYTES | FLAG_TOC;
+        return tableOfContents != null && (flags & required) == required;
+    }
+
     public int getQuality() {
         return qualityIndicator;
     }
@@ -176,6 +176,9 @@ public abstract class AbstractFrame<T> implements Component {
         byte[] frameBody  = frameBytes;
         byte[] fieldBytes = header.buildFlagFields(frameBody.length);
 
+        if (fieldBytes.length == 0 && !header.isFrameCompressed() && !header.isFrameUnsynch()) {
+            return frameBody; // stored as it is encoded
+        }
         if (header.isFrameCompressed()) frameBody = compressFrame(frameBody);
         if (header.isFrameUnsynch())    frameBody = toUnsynch(frameBody);
 
@@ -35,6 +35,7 @@ import com.jtagger.AttachedPicture;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import static com.jtagger.mp3.id3.TextEncoding.*;
 
@@ -52,10 +53,10 @@ public class AttachedPictureFrame extends AbstractFrame<AttachedPicture> {
     @Override
     public final byte[] assemble(byte version) {
 
-        byte[] pictureBytes = getPictureData();
-        byte[] mimeType     = TextEncoding.getStringBytes(getMimeType(), TextEncoding.ENCODING_LATIN_1);
-        byte[] description  = TextEncoding.getStringBytes(getDescription(), encoding);
-        int size = 1 + mimeType.length + 1 + description.length + pictureBytes.length;
+        int pictureLength  = picture.getPictureLength();
+        byte[] mimeType    = TextEncoding.getStringBytes(getMimeType(), TextEncoding.ENCODING_LATIN_1);
+        byte[] description = TextEncoding.getStringBytes(getDescription(), encoding);
+        int size = 1 + mimeType.length + 1 + description.length + pictureLength;
 
         byte[] frame = new byte[size];
 
@@ -70,7 +71,11 @@ public class AttachedPictureFrame extends AbstractFrame<AttachedPicture> {
 
         System.arraycopy(mimeType, 0, frame, mimeTypeOffset, mimeType.length);
         System.arraycopy(description, 0, frame, descriptionOffset, description.length);
-        System.arraycopy(pictureBytes, 0, frame, pictureDataOffset, pictureBytes.length);
+        picture.readPictureData(frame, pictureDataOffset);
+
+        if (picture.isFileBacked()) { // the file region is rewritten on save
+            picture.setPictureData(ByteBuffer.wrap(frame, pictureDataOffset, pictureLength));
+        }
 
         this.frameBytes = frame;
         header = FrameHeader.newBuilder(header)
@@ -165,6 +170,12 @@ public class AttachedPictureFrame extends AbstractFrame<AttachedPicture> {
 
     @Override
     public void parseFrameData(byte[] buffer, FrameHeader header) {
+        int position = parsePictureHeader(buffer, header);
+        setPictureData(Arrays.copyOfRange(buffer, position, buffer.length));
+    }
+
+    // returns the offset of the picture data
+    int parsePictureHeader(byte[] buffer, FrameHeader header) {
 
         int position = 0;
         int strLength;
@@ -188,9 +199,9 @@ public class AttachedPictureFrame extends AbstractFrame<AttachedPicture> {
         this.header = header;
         setMimeType(mimeType);
         setDescription(description);
-        setPictureData(Arrays.copyOfRange(buffer, position, buffer.length));
         setPictureType(pictureType);
         setEncoding(encoding);
+        return position;
     }
 
     public class Builder {
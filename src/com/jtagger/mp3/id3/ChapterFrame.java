@@ -1,14 +1,13 @@
 package com.jtagger.mp3.id3;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 
 import static com.jtagger.mp3.id3.ID3V2Tag.assembleFrames;
 import static com.jtagger.mp3.id3.TagHeaderParser.HEADER_LENGTH;
 import static com.jtagger.mp3.id3.TextEncoding.ENCODING_LATIN_1;
-import static com.jtagger.utils.IntegerUtils.fromUInt32BE;
+import static com.jtagger.utils.IntegerUtils.putUInt32BE;
 import static com.jtagger.utils.IntegerUtils.toUInt32BE;
 import static java.lang.Integer.toUnsignedLong;
 
@@ -154,11 +153,11 @@ public class ChapterFrame extends AbstractFrame<LinkedHashMap<String, AbstractFr
         byte[] buffer = new byte[assembleEmbeddedFrames(frameMap.values(), version) + idBuffer.length + 16];
 
         System.arraycopy(idBuffer, 0, buffer, position, idBuffer.length); position += idBuffer.length;
-        System.arraycopy(fromUInt32BE((int) startTime), 0, buffer, position, 4); position += 4;
-        System.arraycopy(fromUInt32BE((int) endTime), 0, buffer, position, 4);   position += 4;
+        putUInt32BE(buffer, position, (int) startTime); position += 4;
+        putUInt32BE(buffer, position, (int) endTime);   position += 4;
 
-        System.arraycopy(fromUInt32BE((int) startOffset), 0, buffer, position, 4); position += 4;
-        System.arraycopy(fromUInt32BE((int) endOffset), 0, buffer, position, 4);   position += 4;
+        putUInt32BE(buffer, position, (int) startOffset); position += 4;
+        putUInt32BE(buffer, position, (int) endOffset);   position += 4;
 
         assembleFrames(
                 frameMap.values(),
@@ -191,10 +190,10 @@ public class ChapterFrame extends AbstractFrame<LinkedHashMap<String, AbstractFr
         int offset   = idLength;
 
         elementId   = TextEncoding.getString(buffer, 0, idLength, ENCODING_LATIN_1);
-        startTime   = toUnsignedLong(toUInt32BE(Arrays.copyOfRange(buffer, offset, offset += 4)));
-        endTime     = toUnsignedLong(toUInt32BE(Arrays.copyOfRange(buffer, offset, offset += 4)));
-        startOffset = toUnsignedLong(toUInt32BE(Arrays.copyOfRange(buffer, offset, offset += 4)));
-        endOffset   = toUnsignedLong(toUInt32BE(Arrays.copyOfRange(buffer, offset, offset += 4)));
+        startTime   = toUnsignedLong(toUInt32BE(buffer, offset)); offset += 4;
+        endTime     = toUnsignedLong(toUInt32BE(buffer, offset)); offset += 4;
+        startOffset = toUnsignedLong(toUInt32BE(buffer, offset)); offset += 4;
+        endOffset   = toUnsignedLong(toUInt32BE(buffer, offset)); offset += 4;
         parseEmbeddedFrames(buffer, offset, frameMap, header.getVersion());
     }
 
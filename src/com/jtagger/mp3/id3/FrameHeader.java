@@ -10,6 +10,7 @@ import static com.jtagger.mp3.id3.ID3SynchSafeInteger.toSynchSafeInteger;
 import static com.jtagger.mp3.id3.ID3V2Tag.ID3V2_3;
 import static com.jtagger.mp3.id3.ID3V2Tag.ID3V2_4;
 import static com.jtagger.utils.IntegerUtils.fromUInt32BE;
+import static com.jtagger.utils.IntegerUtils.putUInt32BE;
 
 public class FrameHeader implements Component {
 
@@ -103,8 +104,7 @@ public class FrameHeader implements Component {
     }
 
     private void addDataLengthIndicator(int frameLength, byte index, byte[] fields) {
-        System.arraycopy(version == ID3V2_4 ? fromUInt32BE(toSynchSafeInteger(frameLength)) : fromUInt32BE(frameLength),
-                0, fields, index, Integer.BYTES);
+        putUInt32BE(fields, index, version == ID3V2_4 ? toSynchSafeInteger(frameLength) : frameLength);
     }
 
     public byte[] buildFlagFields(int frameSize) {
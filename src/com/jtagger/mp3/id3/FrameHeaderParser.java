@@ -29,15 +29,10 @@ public class FrameHeaderParser {
     }
 
     private int parseFrameSize() {
-        byte[] frameSize = Arrays.copyOfRange(
-                this.header,
-                FrameHeader.FRAME_HEADER_SIZE_OFFSET,
-                FrameHeader.FRAME_HEADER_SIZE_OFFSET + FrameHeader.FRAME_HEADER_SIZE_LENGTH
-        );
         if (tagHeader.getMajorVersion() == ID3V2Tag.ID3V2_4) {
-            return fromSynchSafeIntegerBytes(frameSize);
+            return fromSynchSafeIntegerBytes(header, FrameHeader.FRAME_HEADER_SIZE_OFFSET);
         }
-        return toUInt32BE(frameSize);
+        return toUInt32BE(header, FrameHeader.FRAME_HEADER_SIZE_OFFSET);
     }
 
     public FrameHeader parseFrameHeader(byte[] tagBuffer, int position) {
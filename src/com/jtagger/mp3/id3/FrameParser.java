@@ -1,8 +1,11 @@
 package com.jtagger.mp3.id3;
 
+import com.jtagger.ScanPart;
+
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 
 import static com.jtagger.mp3.id3.AbstractFrame.decompressFrame;
 import static com.jtagger.mp3.id3.UnsynchronisationUtils.fromUnsynch;
@@ -12,9 +15,11 @@ class FrameParser {
 
     private TagHeader tagHeader;
     private byte[] frameData;
+    private EnumSet<ScanPart> scanParts = ScanPart.all();
 
     private int paddingOffset = 0;
     private int framesOffset  = 0;
+    private boolean lazy      = false;
 
     public int getPaddingOffset() {
         return paddingOffset;
@@ -24,6 +29,10 @@ class FrameParser {
         return framesOffset;
     }
 
+    void setPaddingOffset(int paddingOffset) {
+        this.paddingOffset = paddingOffset;
+    }
+
     public void setFramesOffset(int framesOffset) {
         this.framesOffset = framesOffset;
     }
@@ -36,19 +45,64 @@ class FrameParser {
         this.frameData = frameData;
     }
 
-    private byte[] copyFrame(int pos, int frameSize) {
+    public void setScanParts(EnumSet<ScanPart> scanParts) {
+        this.scanParts = scanParts;
+    }
+
+    // frames are kept as slices of the frame data and decoded by the tag on first access
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    boolean skipsFrames() {
+        return !ScanPart.isTagComplete(scanParts);
+    }
+
+    boolean isSkipped(String frameId) {
+        switch (frameId) {
+            case AbstractFrame.PICTURE:
+                return !scanParts.contains(ScanPart.PICTURES);
+            case AbstractFrame.U_LYRICS:
+            case AbstractFrame.S_LYRICS:
+                return !scanParts.contains(ScanPart.LYRICS);
+            case AbstractFrame.CHAPTER:
+            case AbstractFrame.TABLE_OF_CONTENTS:
+                return !scanParts.contains(ScanPart.CHAPTERS);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isTruncated(byte[] frameData, int pos, int frameSize) {
+        return pos + FrameHeader.FRAME_HEADER_DATA_OFFSET + frameSize > frameData.length;
+    }
+
+    private static byte[] copyFrame(byte[] frameData, int pos, int frameSize) {
 
         final int from = pos + FrameHeader.FRAME_HEADER_DATA_OFFSET;
         final int to   = from + frameSize;
 
-        if (to > frameData.length)
+        if (isTruncated(frameData, pos, frameSize))
             return null;
         return Arrays.copyOfRange(frameData, from, to);
     }
 
-    private AbstractFrame parseFrame(int position, FrameHeader frameHeader) {
+    static AbstractFrame parseFrame(byte[] frameData, int position, FrameHeader frameHeader) {
+
+        byte[] buffer = copyFrame(
+                frameData,
+                position + frameHeader.getFrameDataOffset(),
+                frameHeader.getFrameSize()
+        );
+
+        if (buffer == null)
+            return null;
+        return parseFrame(buffer, frameHeader);
+    }
+
+    // empty frame for the given id, null if it is only kept as an UnknownFrame
+    static AbstractFrame newFrame(String frameId) {
 
-        String frameId = frameHeader.getIdentifier();
         AbstractFrame frame = null;
 
         if (TimestampFrame.isValidFrameId(frameId)) {
@@ -85,14 +139,13 @@ class FrameParser {
                     break;
             }
         }
+        return frame;
+    }
 
-        byte[] buffer = copyFrame(
-                position + frameHeader.getFrameDataOffset(),
-                frameHeader.getFrameSize()
-        );
+    // decodes a frame body as it is stored, or returns null for an encrypted frame
+    static AbstractFrame parseFrame(byte[] buffer, FrameHeader frameHeader) {
 
-        if (buffer == null)
-            return null;
+        AbstractFrame frame = newFrame(frameHeader.getIdentifier());
         if (frame == null)
             return new UnknownFrame(frameHeader, buffer);
 
@@ -128,8 +181,15 @@ class FrameParser {
             }
 
             int frameSize = frameHeader.getFrameSize();
-            if (frameSize > 0) {
-                AbstractFrame frame = parseFrame(position, frameHeader);
+            if (frameSize > 0 && !isSkipped(frameHeader.getIdentifier())) {
+                AbstractFrame frame;
+                if (!lazy) {
+                    frame = parseFrame(frameData, position, frameHeader);
+                } else if (!isTruncated(frameData, position + frameHeader.getFrameDataOffset(), frameSize)) {
+                    frame = new LazyFrame(frameHeader, frameData, position, frames.size());
+                } else {
+                    frame = null;
+                }
                 if (frame != null) frames.add(frame);
             }
             position += (frameSize + FrameHeader.FRAME_HEADER_LENGTH);
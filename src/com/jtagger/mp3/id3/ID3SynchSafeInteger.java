@@ -5,7 +5,11 @@ import com.jtagger.utils.IntegerUtils;
 public class ID3SynchSafeInteger {
 
     public static int fromSynchSafeIntegerBytes(byte[] bytes) {
-        return fromSynchSafeInteger(IntegerUtils.toUInt32BE(bytes));
+        return fromSynchSafeIntegerBytes(bytes, 0);
+    }
+
+    public static int fromSynchSafeIntegerBytes(byte[] bytes, int offset) {
+        return fromSynchSafeInteger(IntegerUtils.toUInt32BE(bytes, offset));
     }
 
     public static int toSynchSafeInteger(int in) {
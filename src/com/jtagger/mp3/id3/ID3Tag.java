@@ -5,4 +5,9 @@ public abstract class ID3Tag extends AbstractTag {
 
     abstract public byte getVersion();
     abstract public void setVersion(byte version);
+
+    @Override
+    protected byte[] assembleStored() {
+        return assemble(getVersion());
+    }
 }
@@ -484,6 +484,7 @@ public class ID3V1Tag extends ID3Tag {
 
     @Override
     public void removeField(String fieldId) {
+        markModified();
         switch (fieldId) {
             case AbstractTag.TITLE:
                 title = "";
@@ -544,6 +545,7 @@ public class ID3V1Tag extends ID3Tag {
         if (version != ID3V1 && version != ID3V1_1) {
             throw new IllegalArgumentException("Invalid version number");
         }
+        markModified();
         this.version = version;
     }
 
@@ -560,26 +562,32 @@ public class ID3V1Tag extends ID3Tag {
     }
 
     public void setTitle(String title) {
+        markModified();
         this.title = title;
     }
 
     public void setArtist(String artist) {
+        markModified();
         this.artist = artist;
     }
 
     public void setAlbum(String album) {
+        markModified();
         this.album = album;
     }
 
     public void setYear(String year) {
+        markModified();
         this.year = year;
     }
 
     public void setComment(String comment) {
+        markModified();
         this.comment = comment;
     }
 
     public void setAlbumTrack(String track) {
+        markModified();
         String[] ints = track.split("/");
         if (ints.length != 0 && isNumeric(ints[0])) {
             int num = Integer.parseInt(ints[0]);
@@ -592,6 +600,7 @@ public class ID3V1Tag extends ID3Tag {
         if (genre.isBlank()) {
             return;
         }
+        markModified();
 
         ArrayList<String> types = GenreFrame.parseTCON(genre);
         int genreIndex;
@@ -615,6 +624,7 @@ public class ID3V1Tag extends ID3Tag {
 
     public void setGenre(int genre) {
         if (genre >= 0 && genre < 256) {
+            markModified();
             this.genre = (byte) Math.min(genre, UNKNOWN);
             return;
         }
@@ -623,6 +633,7 @@ public class ID3V1Tag extends ID3Tag {
 
     public void setAlbumTrack(int trackNumber) {
         if (trackNumber > 0 && trackNumber < 256) {
+            markModified();
             this.trackNumber = (byte) trackNumber;
             return;
         }
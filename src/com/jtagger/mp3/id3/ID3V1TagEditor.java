@@ -11,7 +11,7 @@ public class ID3V1TagEditor extends AbstractTagEditor<ID3V1Tag> {
     @Override
     protected final void parseTag() throws IOException {
         ID3V1TagParser parser = new ID3V1TagParser();
-        tag = parser.parseTag(file);
+        tag = parser.parseTag(source);
         hasTag = tag != null;
     }
 
@@ -32,8 +32,13 @@ public class ID3V1TagEditor extends AbstractTagEditor<ID3V1Tag> {
         if (tag == null && !hasTag) {
             return;
         }
+        if (tag != null && hasTag) {
+            byte[] tagBytes = getTag().getBytes();
+            writeChanged(tagBytes, 0, tagBytes.length, file.length() - 128);
+            return;
+        }
         if (tag != null) {
-            file.seek(hasTag ? file.length() - 128 : file.length());
+            file.seek(file.length());
             file.write(getTag().getBytes());
             return;
         }
@@ -1,9 +1,9 @@
 package com.jtagger.mp3.id3;
 
 import com.jtagger.TagParser;
+import com.jtagger.utils.SeekableSource;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
@@ -14,7 +14,7 @@ import static java.lang.Byte.toUnsignedInt;
 
 public class ID3V1TagParser implements TagParser<ID3V1Tag> {
 
-    public ID3V1Tag parseTag(RandomAccessFile file) {
+    public ID3V1Tag parseTag(SeekableSource file) {
         try {
 
             byte[] buffer = new byte[128];
@@ -2,6 +2,7 @@ package com.jtagger.mp3.id3;
 
 import com.jtagger.AbstractTag;
 import com.jtagger.AttachedPicture;
+import com.jtagger.utils.ArraySink;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -122,43 +123,118 @@ public class ID3V2Tag extends ID3Tag {
     public static final byte ID3V2_4 = 0x04;
 
     private TagHeader tagHeader;
-    private byte[] tagBytes;
+    private ArraySink tagData;
+    private boolean hasLazyFrames;
+    private boolean appended;
 
     public LinkedHashMap<String, AbstractFrame> getFrameMap() {
+        decodeFrames(null);
+        markExposed();
         return frameMap;
     }
 
     public Collection<AbstractFrame> getFrames() {
+        decodeFrames(null);
+        markExposed();
         return frameMap.values();
     }
 
     private void setFrames(ArrayList<AbstractFrame> frames) {
         for (AbstractFrame frame : frames) {
+            if (frame instanceof LazyFrame) {
+                ((LazyFrame) frame).setTag(this);
+                hasLazyFrames = true;
+            }
+            frameMap.put(frame.getKey(), frame);
+        }
+    }
+
+    // puts a decoded frame in place of the lazy one, keeping its position
+    void replaceFrame(LazyFrame lazyFrame, AbstractFrame frame) {
+
+        if (frameMap.get(lazyFrame.getKey()) != lazyFrame) return;
+
+        ArrayList<AbstractFrame> frames = new ArrayList<>(frameMap.values());
+        frameMap.clear();
+
+        for (AbstractFrame stored : frames) {
+            if (stored == lazyFrame) stored = frame;
+            frameMap.put(stored.getKey(), stored);
+        }
+    }
+
+    /*
+     * Replaces the lazy frames with the given id, or all of them if id is null, by their decoded frames.
+     * The map is rebuilt in order so that a decoded frame keeps the position of the stored one.
+     */
+    private void decodeFrames(String id) {
+
+        if (!hasLazyFrames) return;
+
+        boolean found = false;
+        for (AbstractFrame frame : frameMap.values()) {
+            if (frame instanceof LazyFrame && (id == null || frame.getIdentifier().equals(id))) {
+                found = true;
+                break;
+            }
+        }
+        if (!found) return;
+
+        ArrayList<AbstractFrame> frames = new ArrayList<>(frameMap.values());
+        frameMap.clear();
+        hasLazyFrames = false;
+
+        for (AbstractFrame frame : frames) {
+            if (frame instanceof LazyFrame) {
+                if (id == null || frame.getIdentifier().equals(id)) {
+                    frame = ((LazyFrame) frame).decode();
+                    if (frame == null) continue;
+                } else {
+                    hasLazyFrames = true;
+                }
+            }
             frameMap.put(frame.getKey(), frame);
         }
     }
 
     private <T extends AbstractFrame> T getFrameById(String id) {
-        for (AbstractFrame frame : getFrames()) {
+        decodeFrames(id);
+        for (AbstractFrame frame : frameMap.values()) {
             if (frame.getIdentifier().equals(id)) return (T) frame;
         }
         return null;
     }
 
-    public <T extends AbstractFrame> T getFrame(String key) {
+    // keys start with the frame id
+    private static String getFrameId(String key) {
+        return key.length() > FrameHeader.FRAME_HEADER_ID_LENGTH ? key.substring(0, FrameHeader.FRAME_HEADER_ID_LENGTH) : key;
+    }
+
+    private <T extends AbstractFrame> T findFrame(String key) {
+        decodeFrames(getFrameId(key));
         return (T) frameMap.get(key);
     }
 
+    // frames are mutable, so changes made to the one handed out are found by the tag hash
+    public <T extends AbstractFrame> T getFrame(String key) {
+        T frame = findFrame(key);
+        markExposed();
+        return frame;
+    }
+
     public void setFrame(AbstractFrame frame) {
         if (frame.getHeader().getVersion() != tagHeader.getMajorVersion()) {
             throw new IllegalArgumentException("Frame version does not match tag version");
         }
+        decodeFrames(frame.getIdentifier());
+        markModified();
         frameMap.put(frame.getKey(), frame);
     }
 
     private void removeFrameById(String id) {
 
-        Iterator<AbstractFrame> iterator = getFrames().iterator();
+        markModified();
+        Iterator<AbstractFrame> iterator = frameMap.values().iterator();
         AbstractFrame frame;
 
         boolean hasDescription = hasContentDescription(id);
@@ -172,20 +248,39 @@ public class ID3V2Tag extends ID3Tag {
     }
 
     public void removeFrame(String key) {
+        decodeFrames(getFrameId(key));
+        markModified();
         frameMap.remove(key);
     }
 
     public TagHeader getTagHeader() {
+        markExposed();
         return tagHeader;
     }
 
+    // size of the tag after its header, as read or last assembled
+    public int getTagSize() {
+        return tagHeader.getTagSize();
+    }
+
+    public boolean hasFooter() {
+        return tagHeader.hasFooter();
+    }
+
     public void setTagHeader(TagHeader header) {
+        markModified();
         this.tagHeader = header;
     }
 
     public int getFrameDataSize(byte version) {
+
+        // stored frames can only be copied as they are
+        if (version != getVersion() || (tagHeader.isUnsynch() && version == ID3V2_4)) {
+            decodeFrames(null);
+        }
+
         int size = 0;
-        for (AbstractFrame frame : getFrames()) {
+        for (AbstractFrame frame : frameMap.values()) {
             if (tagHeader.isUnsynch() && version == ID3V2_4) {
                 frame.getHeader().setFrameUnsynch(true);
             }
@@ -213,29 +308,31 @@ public class ID3V2Tag extends ID3Tag {
 
     @Override
     public byte[] getBytes() {
-        if (tagHeader.getMajorVersion() == ID3V2_3 && tagHeader.isUnsynch()) {
+        return tagData != null ? tagData.toByteArray() : null;
+    }
 
-            byte[] header    = tagHeader.getBytes();
-            byte[] frameData = UnsynchronisationUtils.toUnsynch(
-                    Arrays.copyOfRange(tagBytes, HEADER_LENGTH, tagBytes.length)
-            );
+    // the tag as stored, unsynchronised if needed, without trimming it to an array
+    ArraySink getTagData() {
+        return tagData;
+    }
 
-            byte[] unsynchTag = new byte[HEADER_LENGTH + frameData.length];
-            System.arraycopy(header, 0, unsynchTag, 0, HEADER_LENGTH);
-            System.arraycopy(frameData, 0, unsynchTag, header.length, frameData.length);
+    // true when the tag was read from, or saved to, the end of the file and nothing precedes the audio
+    public boolean isAppended() {
+        return appended;
+    }
 
-            return unsynchTag;
-        }
-        return tagBytes;
+    void setAppended(boolean appended) {
+        this.appended = appended;
     }
 
     @Override
     public byte getVersion() {
-        return getTagHeader().getMajorVersion();
+        return tagHeader.getMajorVersion();
     }
 
     @Override
     public void setVersion(byte version) {
+        markModified();
         tagHeader = TagHeader.newBuilder(tagHeader)
                 .setMajorVersion(version)
                 .build(version);
@@ -279,42 +376,74 @@ public class ID3V2Tag extends ID3Tag {
 
     @Override
     public String toString() {
-        StringBuilder stringBuilder = new StringBuilder("Total size: " + getTagHeader().getTagSize() + "\n");
-        for (AbstractFrame frame : getFrames()) {
+        decodeFrames(null);
+        StringBuilder stringBuilder = new StringBuilder("Total size: " + tagHeader.getTagSize() + "\n");
+        for (AbstractFrame frame : frameMap.values()) {
             stringBuilder.append(frame).append("\n");
         }
         return stringBuilder.toString();
     }
 
+    @Override
+    protected byte[] assembleStored() {
+        return frameMap.isEmpty() ? new byte[0] : super.assembleStored();
+    }
+
     @Override
     public byte[] assemble(byte version) {
+        serialize(version);
+        return tagData.toByteArray();
+    }
 
-        if (getFrames().isEmpty()) {
+    /*
+     * Encodes every frame once, straight into a growable buffer sized after the previous tag,
+     * and patches the tag header once the size is known. ID3v2.3 unsynchronisation is applied
+     * in the same pass into a second buffer.
+     */
+    void serialize(byte version) {
+
+        if (frameMap.isEmpty()) {
             throw new IllegalStateException("Tag must contain at least one frame");
         }
 
         tagHeader.setHasExtendedHeader(false);
         tagHeader.setHasFooter(false);
 
-        int tagSize = getFrameDataSize(version);
-        byte[] tag = new byte[tagSize + HEADER_LENGTH];
-        assembleFrames(getFrames(), version, tag, HEADER_LENGTH);
+        // stored frames can only be copied as they are
+        if (version != getVersion() || (tagHeader.isUnsynch() && version == ID3V2_4)) {
+            decodeFrames(null);
+        }
+
+        ArraySink tag = new ArraySink(tagHeader.getTagSize() + HEADER_LENGTH);
+        tag.skip(HEADER_LENGTH);
+
+        for (AbstractFrame frame : frameMap.values()) {
+            if (frame instanceof LazyFrame) {
+                ((LazyFrame) frame).writeTo(tag);
+                continue;
+            }
+            if (tagHeader.isUnsynch() && version == ID3V2_4) {
+                frame.getHeader().setFrameUnsynch(true);
+            }
+            frame.assemble(version);
+            tag.write(frame.getHeader().getBytes());
+            tag.write(frame.getBytes());
+        }
 
-        this.tagBytes = tag;
         if (tagHeader.isUnsynch() && version == ID3V2_3) {
-            byte[] unsynchFrameData = UnsynchronisationUtils.toUnsynch(
-                    Arrays.copyOfRange(tagBytes, HEADER_LENGTH, tagBytes.length)
-            );
-            tagSize = unsynchFrameData.length;
+            ArraySink unsynchTag = new ArraySink(tag.size() + tag.size() / 16);
+            unsynchTag.skip(HEADER_LENGTH);
+            UnsynchronisationUtils.toUnsynch(tag.array(), HEADER_LENGTH, tag.size() - HEADER_LENGTH, unsynchTag);
+            tag = unsynchTag;
         }
 
         tagHeader = TagHeader.newBuilder(tagHeader)
                 .setMajorVersion(version)
-                .setTagSize(tagSize)
+                .setTagSize(tag.size() - HEADER_LENGTH)
                 .build(version);
 
-        System.arraycopy(tagHeader.getBytes(), 0, tag, 0, HEADER_LENGTH);
-        return tag;
+        tag.set(0, tagHeader.getBytes());
+        this.tagData = tag;
     }
 
     public static void assembleFrames(Collection<AbstractFrame> frames,
@@ -374,8 +503,8 @@ public class ID3V2Tag extends ID3Tag {
 
     private static void convertToID3V23Tag(ID3V2Tag tag) {
 
-        TimestampFrame timestampFrame   = tag.getFrame(AbstractFrame.RECORDING_TIME);
-        TimestampFrame releaseTimeFrame = tag.getFrame(AbstractFrame.ORIGINAL_RELEASE_TIME);
+        TimestampFrame timestampFrame   = tag.findFrame(AbstractFrame.RECORDING_TIME);
+        TimestampFrame releaseTimeFrame = tag.findFrame(AbstractFrame.ORIGINAL_RELEASE_TIME);
 
         if (releaseTimeFrame != null) {
             Year year = releaseTimeFrame.getYear();
@@ -403,10 +532,10 @@ public class ID3V2Tag extends ID3Tag {
         StringBuilder dateString = new StringBuilder();
         StringBuilder pattern    = new StringBuilder();
 
-        TimestampFrame releaseYear = tag.getFrame(AbstractFrame.ORIGINAL_RELEASE_YEAR);
-        TimestampFrame yearFrame   = tag.getFrame(AbstractFrame.YEAR);
-        TimestampFrame timeFrame   = tag.getFrame(AbstractFrame.TIME);
-        TimestampFrame dateFrame   = tag.getFrame(AbstractFrame.DATE);
+        TimestampFrame releaseYear = tag.findFrame(AbstractFrame.ORIGINAL_RELEASE_YEAR);
+        TimestampFrame yearFrame   = tag.findFrame(AbstractFrame.YEAR);
+        TimestampFrame timeFrame   = tag.findFrame(AbstractFrame.TIME);
+        TimestampFrame dateFrame   = tag.findFrame(AbstractFrame.DATE);
 
         if (releaseYear != null) {
             TimestampFrame releaseTime = TimestampFrame.newBuilder()
@@ -465,9 +594,12 @@ public class ID3V2Tag extends ID3Tag {
     public static ID3V2Tag convertID3V2Tag(ID3V2Tag tag, byte version) {
 
         if (tag.getVersion() == version) return tag;
-        Collection<AbstractFrame> frames = tag.getFrames();
 
-        tag.getTagHeader().setMajorVersion(version);
+        tag.decodeFrames(null);
+        tag.markModified();
+        Collection<AbstractFrame> frames = tag.frameMap.values();
+
+        tag.tagHeader.setMajorVersion(version);
         for (AbstractFrame frame : frames) {
             frame.getHeader().setTagVersion(version);
             frame.assemble(version);
@@ -513,7 +645,7 @@ public class ID3V2Tag extends ID3Tag {
     private <T> AbstractFrame<T> getFrameFromFieldName(String field) {
         String frameId = getFrameIdFromFieldName(field);
         if (frameId == null) return null;
-        return hasContentDescription(frameId) ? getFrameById(frameId) : getFrame(frameId);
+        return hasContentDescription(frameId) ? getFrameById(frameId) : findFrame(frameId);
     }
 
     @Override
@@ -2,24 +2,46 @@ package com.jtagger.mp3.id3;
 
 import com.jtagger.AbstractTagEditor;
 import com.jtagger.AbstractTag;
+import com.jtagger.utils.ArraySink;
 import com.jtagger.utils.BytesIO;
 
 import java.io.*;
+import java.util.Arrays;
 
 import static com.jtagger.mp3.id3.ID3SynchSafeInteger.toSynchSafeInteger;
-import static com.jtagger.mp3.id3.TagHeaderParser.HEADER_LENGTH;
-import static com.jtagger.mp3.id3.TagHeaderParser.SIZE_OFFSET;
+import static com.jtagger.mp3.id3.FrameHeader.FRAME_HEADER_LENGTH;
+import static com.jtagger.mp3.id3.TagHeaderParser.*;
 import static com.jtagger.utils.IntegerUtils.fromUInt32BE;
+import static com.jtagger.utils.IntegerUtils.putUInt32BE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 public class ID3V2TagEditor extends AbstractTagEditor<ID3V2Tag> {
 
     private int originalSize;
     private boolean hasID3v1;
     private boolean hasFooter;
+    private long appendedOffset = -1;
+    private boolean lazyFrames  = false;
+    private boolean appendTag   = false;
+
+    // frames stay undecoded until accessed and untouched ones are saved as they were read
+    public void setLazyFrames(boolean lazyFrames) {
+        this.lazyFrames = lazyFrames;
+    }
+
+    /*
+     * An ID3v2.4 tag that outgrows its space is written at the end of the file with a footer, and the tag
+     * at the start, if any, is rewritten to point to it with a SEEK frame. Files that already have an
+     * appended tag keep it there either way.
+     */
+    public void setAppendTag(boolean appendTag) {
+        this.appendTag = appendTag;
+    }
 
     private void stripID3V1() throws IOException {
         if (hasID3v1) {
             file.setLength(file.length() - 128);
+            hasID3v1 = false;
         }
     }
 
@@ -30,28 +52,34 @@ public class ID3V2TagEditor extends AbstractTagEditor<ID3V2Tag> {
         FrameParser frameParser;
         ID3V2TagParser tagParser;
 
-        originalSize = 0;
-        hasID3v1     = false;
-        hasTag       = false;
+        originalSize   = 0;
+        appendedOffset = -1;
+        hasID3v1       = false;
+        hasFooter      = false;
+        hasTag         = false;
 
         headerParser = new TagHeaderParser();
         frameParser  = new FrameParser();
+        frameParser.setScanParts(scanParts);
+        frameParser.setLazy(lazyFrames);
         tagParser    = new ID3V2TagParser(headerParser, frameParser);
+        tagParser.setSourcePath(getPath());
 
-        if ((tag = tagParser.parseTag(file)) != null) {
+        if ((tag = tagParser.parseTag(source)) != null && !tag.isAppended()) {
 
-            TagHeader header = tag.getTagHeader();
             hasTag       = true;
-            originalSize = header.getTagSize();
-            hasFooter    = header.hasFooter();
+            originalSize = tag.getTagSize();
+            hasFooter    = tag.hasFooter();
 
             if (frameParser.getPaddingOffset() != 0 && hasFooter) {
                 throw new IllegalStateException("Tag cannot have both padding and footer");
             }
         }
 
+        appendedOffset = tagParser.getAppendedOffset();
+
         ID3V1TagParser parser = new ID3V1TagParser();
-        ID3V1Tag id3V1Tag = parser.parseTag(file);
+        ID3V1Tag id3V1Tag = parser.parseTag(source);
         hasID3v1 = id3V1Tag != null;
 
         if (hasID3v1) {
@@ -77,58 +105,157 @@ public class ID3V2TagEditor extends AbstractTagEditor<ID3V2Tag> {
         this.tag = id3V2Tag;
     }
 
+    // the ID3v1 tag is stripped on save
+    @Override
+    protected boolean isModified() {
+        return super.isModified() || hasID3v1;
+    }
+
+    // skips trimming the tag to an array, commit writes the buffer as it is
+    @Override
+    protected void assembleTag() {
+        tag.serialize(tag.getVersion());
+    }
+
+    private void writeTag(ArraySink tagBuffer, int padding) throws IOException {
+        tagBuffer.writeTo(file.getChannel(), 0);
+        file.seek(tagBuffer.size());
+        file.write(new byte[padding]);
+    }
+
+    private boolean isAppending() {
+        return (appendTag || appendedOffset >= 0) && tag.getVersion() == ID3V2Tag.ID3V2_4;
+    }
+
+    // drops the appended tag, and the ID3v1 tag behind it, once the audio has moved by shift bytes
+    private void removeAppendedTag(long shift) throws IOException {
+        if (appendedOffset >= 0) {
+            file.setLength(appendedOffset + shift);
+            appendedOffset = -1;
+            hasID3v1       = false;
+        }
+    }
+
+    /*
+     * Writes the tag with a footer right after the audio, in place of an appended tag and the ID3v1 tag,
+     * so that a tag that outgrew its space costs a write at the end instead of moving the audio.
+     */
+    private void writeAppendedTag(ArraySink tagBuffer) throws IOException {
+
+        final long audioEnd = appendedOffset >= 0 ? appendedOffset : file.length() - (hasID3v1 ? 128 : 0);
+        final int tagData   = tagBuffer.size() - HEADER_LENGTH;
+
+        byte[] appended = new byte[tagBuffer.size() + HEADER_LENGTH];
+        System.arraycopy(tagBuffer.array(), 0, appended, 0, tagBuffer.size());
+        appended[FLAGS_OFFSET] |= TagHeader.FLAG_FOOTER_PRESENT;
+
+        int footer = HEADER_LENGTH + tagData;
+        System.arraycopy(appended, 0, appended, footer, HEADER_LENGTH);
+        System.arraycopy(FOOTER_ID.getBytes(ISO_8859_1), 0, appended, footer, ID_LENGTH);
+
+        // an appended tag of the same size is only patched
+        file.setLength(audioEnd + appended.length);
+        writeChanged(appended, 0, appended.length, audioEnd);
+
+        if (hasTag) writeSeekTag(audioEnd);
+        appendedOffset = audioEnd;
+        hasID3v1       = false;
+        tag.setAppended(!hasTag);
+    }
+
+    // the tag at the start of the file keeps its size and only points to the appended one
+    private void writeSeekTag(long appendedOffset) throws IOException {
+
+        final int size = originalSize + (hasFooter ? HEADER_LENGTH : 0); // padding replaces the footer
+        byte[] seekTag = new byte[HEADER_LENGTH + size];
+
+        TagHeader header = TagHeader.newBuilder(ID3V2Tag.ID3V2_4)
+                .setTagSize(size)
+                .build(ID3V2Tag.ID3V2_4);
+        System.arraycopy(header.getBytes(), 0, seekTag, 0, HEADER_LENGTH);
+
+        if (size >= FRAME_HEADER_LENGTH + 4) {
+
+            FrameHeader frameHeader = FrameHeader.newBuilder(FrameHeader.createFrameHeader(AbstractFrame.SEEK, ID3V2Tag.ID3V2_4))
+                    .setFrameSize(4)
+                    .build(ID3V2Tag.ID3V2_4);
+
+            // offset from the end of this tag to the start of the appended one
+            System.arraycopy(frameHeader.getBytes(), 0, seekTag, HEADER_LENGTH, FRAME_HEADER_LENGTH);
+            putUInt32BE(seekTag, HEADER_LENGTH + FRAME_HEADER_LENGTH, (int) (appendedOffset - seekTag.length));
+        }
+
+        writeChanged(seekTag, 0, seekTag.length, 0);
+        originalSize = size;
+        hasFooter    = false;
+    }
+
     @Override
     public void commit() throws IOException {
         super.commit();
         int padding = BytesIO.PADDING_MIN;
         if (tag != null) {
 
-            byte[] tagBuffer = tag.getBytes();
+            ArraySink tagBuffer = tag.getTagData();
+            int tagData = tagBuffer.size() - HEADER_LENGTH;
+
             if (hasTag && !hasFooter) {
 
-                int tagData = tagBuffer.length - HEADER_LENGTH;
-                int maxPad  = BytesIO.getPadding((int) file.length());
+                int maxPad = BytesIO.getPadding(file.length());
                 padding = originalSize - tagData;
 
                 if (padding >= 0 && padding <= maxPad) {
-                    BytesIO.writeBlock(file, tagBuffer, 0);
-                    file.write(new byte[padding]);
-                    BytesIO.writeBlock(
-                            file, fromUInt32BE(toSynchSafeInteger(tagData + padding)),
-                            SIZE_OFFSET
-                    );
+
+                    // the tag keeps its size, only the bytes that changed are written
+                    byte[] header = Arrays.copyOf(tagBuffer.array(), HEADER_LENGTH);
+                    putUInt32BE(header, SIZE_OFFSET, toSynchSafeInteger(tagData + padding));
+
+                    removeAppendedTag(0);
+                    writeChanged(header, 0, HEADER_LENGTH, 0);
+                    writeChanged(tagBuffer.array(), HEADER_LENGTH, tagData, HEADER_LENGTH);
+                    writeChanged(new byte[padding], 0, padding, tagBuffer.size());
                     stripID3V1();
+                    tag.setAppended(false);
                     return;
                 } else {
                     padding = BytesIO.PADDING_MIN;
                 }
             }
 
+            if (isAppending()) {
+                writeAppendedTag(tagBuffer);
+                return;
+            }
+
             int headers = hasFooter ? HEADER_LENGTH * 2 : HEADER_LENGTH;
-            int length  = hasTag ? tagBuffer.length - HEADER_LENGTH + padding : tagBuffer.length + padding;
+            int length  = hasTag ? tagData + padding : tagBuffer.size() + padding;
 
             int diff = length - (originalSize + (hasFooter ? HEADER_LENGTH : 0));
             int from = hasTag ? originalSize + headers : 0;
             int to   = from + diff;
 
-            BytesIO.moveBlock(file, from, to, diff, (int) file.length() - from);
-            BytesIO.writeBlock(file, tagBuffer, 0);
-            file.write(new byte[padding]);
+            moveTail(from, to);
+            removeAppendedTag(diff);
+            writeTag(tagBuffer, padding);
             BytesIO.writeBlock(
                     file,
-                    fromUInt32BE(toSynchSafeInteger(tagBuffer.length - HEADER_LENGTH + padding)),
+                    fromUInt32BE(toSynchSafeInteger(tagData + padding)),
                     SIZE_OFFSET
             );
+
+            hasTag       = true;
+            hasFooter    = false;
+            originalSize = tagData + padding;
+            tag.setAppended(false);
         }
         else if (hasTag) {
             int totalSize = originalSize + HEADER_LENGTH * (hasFooter ? 2 : 1);
-            BytesIO.moveBlock(
-                    file,
-                    totalSize,
-                    0,
-                    -totalSize,
-                    (int) file.length() - totalSize
-            );
+            moveTail(totalSize, 0);
+            removeAppendedTag(-totalSize);
+            hasTag = false;
+        }
+        else if (appendedOffset >= 0) {
+            removeAppendedTag(0);
         } else {
             return;
         }
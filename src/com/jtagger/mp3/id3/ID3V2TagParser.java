@@ -1,32 +1,247 @@
 package com.jtagger.mp3.id3;
 
 import com.jtagger.TagParser;
+import com.jtagger.utils.SeekableSource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 
+import static com.jtagger.mp3.id3.FrameHeader.FRAME_HEADER_LENGTH;
 import static com.jtagger.mp3.id3.ID3SynchSafeInteger.fromSynchSafeInteger;
 import static com.jtagger.mp3.id3.ID3V2Tag.ID3V2_3;
 import static com.jtagger.mp3.id3.ID3V2Tag.ID3V2_4;
 import static com.jtagger.mp3.id3.TagHeaderParser.HEADER_LENGTH;
+import static com.jtagger.mp3.id3.TagHeaderParser.ID_LENGTH;
 import static com.jtagger.mp3.id3.UnsynchronisationUtils.fromUnsynch;
 import static com.jtagger.utils.IntegerUtils.toUInt32BE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 public class ID3V2TagParser implements TagParser<ID3V2Tag> {
 
+    private static final int STREAMING_TAG_SIZE    = 64 * 1024;
+    private static final int PICTURE_HEADER_LENGTH = 1024;
+
     private final TagHeaderParser tagHeaderParser;
     private final FrameParser frameParser;
+    private Path sourcePath;
+    private long appendedOffset = -1;
 
     public ID3V2TagParser(TagHeaderParser tagHeaderParser, FrameParser frameParser) {
         this.tagHeaderParser = tagHeaderParser;
         this.frameParser = frameParser;
     }
 
+    public void setSourcePath(Path sourcePath) {
+        this.sourcePath = sourcePath;
+    }
+
+    // start of the tag found at the end of the file, -1 if there is none
+    public long getAppendedOffset() {
+        return appendedOffset;
+    }
+
+    private static void copyBytes(SeekableSource file, ByteArrayOutputStream out, int count) throws IOException {
+        byte[] buffer = new byte[count];
+        file.readFully(buffer);
+        out.write(buffer);
+    }
+
+    private boolean isLazyPicture(FrameHeader frameHeader) {
+        return sourcePath != null &&
+               frameHeader.getIdentifier().equals(AbstractFrame.PICTURE) &&
+               frameHeader.getFrameSize() > PICTURE_HEADER_LENGTH &&
+               frameHeader.getFrameDataOffset() == 0 &&
+               !frameHeader.isFrameUnsynch() &&
+               !frameHeader.isFrameCompressed() &&
+               !frameHeader.isFrameEncrypted();
+    }
+
+    // reads the text fields of an APIC frame and leaves the picture data in the file
+    private AttachedPictureFrame parseLazyPicture(SeekableSource file, FrameHeader frameHeader) throws IOException {
+
+        final long bodyOffset = file.getFilePointer();
+        final int frameSize   = frameHeader.getFrameSize();
+
+        byte[] pictureHeader = new byte[PICTURE_HEADER_LENGTH];
+        file.readFully(pictureHeader);
+
+        AttachedPictureFrame frame = new AttachedPictureFrame();
+        int position;
+        try {
+            position = frame.parsePictureHeader(pictureHeader, frameHeader);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            position = pictureHeader.length;
+        }
+
+        if (position >= pictureHeader.length) { // description is too long or the frame is invalid
+            file.seek(bodyOffset);
+            return null;
+        }
+
+        frame.getFrameData().setPictureData(sourcePath, bodyOffset + position, frameSize - position);
+        file.seek(bodyOffset + frameSize);
+        return frame;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void flushFrames(ByteArrayOutputStream buffered, ArrayList<AbstractFrame> frames) {
+        if (buffered.size() > 0) {
+            frameParser.setFramesOffset(0);
+            frameParser.setFrames(buffered.toByteArray());
+            frameParser.parseFrames(frames);
+            buffered.reset();
+        }
+    }
+
+    // parses the frames straight from the file, seeking past skipped frames and picture data
+    @SuppressWarnings("rawtypes")
+    private void parseFrames(SeekableSource file, TagHeader header, ArrayList<AbstractFrame> frames) throws IOException {
+
+        final long tagStart = file.getFilePointer();
+        final long tagEnd   = tagStart + header.getTagSize();
+
+        ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+        FrameHeaderParser headerParser = new FrameHeaderParser(header);
+        byte[] frameHeaderBytes        = new byte[FRAME_HEADER_LENGTH];
+
+        if (header.hasExtendedHeader()) {
+
+            int sizeBytes = file.readInt();
+            int extendedHeaderSize = header.getMajorVersion() == ID3V2_4 ?
+                    fromSynchSafeInteger(sizeBytes) - 4 : sizeBytes;
+
+            if (extendedHeaderSize < 0 || file.getFilePointer() + extendedHeaderSize > tagEnd) {
+                throw new IllegalStateException("Invalid extended header size: " + extendedHeaderSize);
+            }
+            file.seek(file.getFilePointer() + extendedHeaderSize);
+        }
+
+        while (file.getFilePointer() + FRAME_HEADER_LENGTH < tagEnd) {
+
+            long position = file.getFilePointer();
+            file.readFully(frameHeaderBytes);
+
+            FrameHeader frameHeader = headerParser.parseFrameHeader(frameHeaderBytes, 0);
+            if (frameHeader == null) {
+                if (frameHeaderBytes[0] == 0) frameParser.setPaddingOffset((int) (position - tagStart));
+                break;
+            }
+
+            int frameSize = frameHeader.getFrameSize();
+            if (frameSize < 0 || file.getFilePointer() + frameSize > tagEnd) {
+                break;
+            }
+            if (frameParser.isSkipped(frameHeader.getIdentifier())) {
+                file.skipBytes(frameSize);
+                continue;
+            }
+            if (isLazyPicture(frameHeader)) {
+                AttachedPictureFrame frame = parseLazyPicture(file, frameHeader);
+                if (frame != null) {
+                    flushFrames(buffered, frames);
+                    frames.add(frame);
+                    continue;
+                }
+            }
+
+            buffered.write(frameHeaderBytes);
+            copyBytes(file, buffered, frameSize);
+        }
+
+        flushFrames(buffered, frames);
+        file.seek(tagEnd);
+    }
+
+    /*
+     * An ID3v2.4 tag may be appended to the file, before an ID3v1 tag, and is then found from its footer.
+     * Reads the header of such a tag and leaves the file at its first frame, or returns null if there is none.
+     */
+    private TagHeader parseAppendedHeader(SeekableSource file, long prependedEnd) throws IOException {
+
+        byte[] tagHeader = new byte[HEADER_LENGTH];
+        long end = file.length();
+
+        if (end >= 128) {
+            file.seek(end - 128);
+            file.readFully(tagHeader, 0, ID_LENGTH);
+            if (new String(tagHeader, 0, ID_LENGTH, ISO_8859_1).equals(ID3V1Tag.ID)) end -= 128;
+        }
+        if (end - prependedEnd < HEADER_LENGTH * 2) {
+            return null;
+        }
+
+        file.seek(end - HEADER_LENGTH);
+        file.readFully(tagHeader);
+        tagHeaderParser.setHeaderData(tagHeader);
+
+        TagHeader footer = tagHeaderParser.parseFooter();
+        if (footer == null) return null;
+
+        long start = end - HEADER_LENGTH * 2 - footer.getTagSize();
+        if (start < prependedEnd) return null;
+
+        file.seek(start);
+        file.readFully(tagHeader);
+        tagHeaderParser.setHeaderData(tagHeader);
+
+        TagHeader header = tagHeaderParser.parse();
+        if (header == null || !header.hasFooter() || header.getTagSize() != footer.getTagSize()) {
+            return null;
+        }
+
+        appendedOffset = start;
+        return header;
+    }
+
+    private boolean isStreamed(TagHeader header) {
+        boolean isUnsynch = header.isUnsynch() && header.getMajorVersion() == ID3V2_3;
+        boolean isLarge   = header.getTagSize() > STREAMING_TAG_SIZE;
+        return isLarge && !isUnsynch && (sourcePath != null || frameParser.skipsFrames());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void readFrames(SeekableSource file, TagHeader header, ArrayList<AbstractFrame> frames) throws IOException {
+
+        frameParser.setTagHeader(header);
+        if (isStreamed(header)) {
+            parseFrames(file, header, frames);
+            return;
+        }
+
+        byte[] frameData = new byte[header.getTagSize()];
+        file.readFully(frameData);
+
+        int frameDataOffset = 0;
+        if (header.isUnsynch() && header.getMajorVersion() == ID3V2_3) {
+            frameData = fromUnsynch(frameData);
+        }
+        if (header.hasExtendedHeader()) {
+
+            int sizeBytes = toUInt32BE(frameData, 0);
+            int extendedHeaderSize = header.getMajorVersion() == ID3V2_4 ?
+                    fromSynchSafeInteger(sizeBytes) : sizeBytes;
+
+            if (header.getMajorVersion() == ID3V2_4) {
+                frameDataOffset += extendedHeaderSize;
+            } else {
+                frameDataOffset += extendedHeaderSize + 4;
+            }
+        }
+
+        frameParser.setFramesOffset(frameDataOffset);
+        frameParser.setFrames(frameData);
+        frameParser.parseFrames(frames);
+    }
+
+    /*
+     * Frames of an appended tag follow those of the tag at the start of the file and replace the ones
+     * with the same key. SEEK frames only point to the appended tag, the editor writes them again on save.
+     */
     @Override
     @SuppressWarnings("rawtypes")
-    public ID3V2Tag parseTag(RandomAccessFile file) {
+    public ID3V2Tag parseTag(SeekableSource file) {
         try {
 
             byte[] tagHeader = new byte[HEADER_LENGTH];
@@ -35,41 +250,37 @@ public class ID3V2TagParser implements TagParser<ID3V2Tag> {
             tagHeaderParser.setHeaderData(tagHeader);
             TagHeader header = tagHeaderParser.parse();
 
-            if (header == null)
-                return null; // Invalid header, unsupported version or no tag present
-
-            byte[] frameData = new byte[header.getTagSize()];
-            file.readFully(frameData);
+            ArrayList<AbstractFrame> frames = new ArrayList<>();
+            long prependedEnd = 0;
+            appendedOffset    = -1;
 
-            int frameDataOffset = 0;
-            if (header.isUnsynch() && header.getMajorVersion() == ID3V2_3) {
-                frameData = fromUnsynch(frameData);
+            if (header != null) {
+                readFrames(file, header, frames);
+                prependedEnd = HEADER_LENGTH + header.getTagSize() + (header.hasFooter() ? HEADER_LENGTH : 0);
             }
-            if (header.hasExtendedHeader()) {
 
-                byte[] sizeBytes = Arrays.copyOfRange(frameData, 0, 4);
-                int extendedHeaderSize = header.getMajorVersion() == ID3V2_4 ?
-                        fromSynchSafeInteger(toUInt32BE(sizeBytes)) : toUInt32BE(sizeBytes);
+            TagHeader appended = parseAppendedHeader(file, prependedEnd);
+            if (appended != null) {
 
-                if (header.getMajorVersion() == ID3V2_4) {
-                    frameDataOffset += extendedHeaderSize;
-                } else {
-                    frameDataOffset += extendedHeaderSize + 4;
-                }
-            }
+                // the padding the editor checks is that of the tag at the start of the file
+                int paddingOffset = frameParser.getPaddingOffset();
+                readFrames(file, appended, frames);
+                frameParser.setPaddingOffset(paddingOffset);
 
-            frameParser.setTagHeader(header);
-            frameParser.setFramesOffset(frameDataOffset);
-            frameParser.setFrames(frameData);
+                frames.removeIf(frame -> frame.getIdentifier().equals(AbstractFrame.SEEK));
+            }
 
-            ArrayList<AbstractFrame> frames = new ArrayList<>();
-            frameParser.parseFrames(frames);
+            if (header == null && appended == null)
+                return null; // Invalid header, unsupported version or no tag present
 
-            return ID3V2Tag.newBuilder()
+            ID3V2Tag tag = ID3V2Tag.newBuilder()
                     .setFrames(frames)
-                    .setHeader(header)
+                    .setHeader(header != null ? header : appended)
                     .build();
 
+            tag.setAppended(header == null);
+            return tag;
+
         } catch (IOException e) {
             e.printStackTrace();
             return null;
@@ -0,0 +1,114 @@
+package com.jtagger.mp3.id3;
+
+import com.jtagger.utils.ArraySink;
+
+import java.util.Arrays;
+
+/*
+ * Frame left undecoded by a lazy FrameParser: the header and a slice of the frame data.
+ * ID3V2Tag decodes it on first access and otherwise writes the stored bytes back unchanged.
+ * Accessing its data decodes it too, and the decoded frame then takes its place in the tag.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class LazyFrame extends AbstractFrame<Object> {
+
+    private final byte[] frameData;
+    private final int position;
+    private final int index;
+    private ID3V2Tag tag;
+
+    LazyFrame(FrameHeader header, byte[] frameData, int position, int index) {
+        this.header    = header;
+        this.frameData = frameData;
+        this.position  = position;
+        this.index     = index;
+    }
+
+    void setTag(ID3V2Tag tag) {
+        this.tag = tag;
+    }
+
+    // frames keyed by their content get a placeholder key, unique by their index in the tag, until they are decoded
+    private static boolean hasContentKey(String id) {
+        switch (id) {
+            case PICTURE:
+            case COMMENT:
+            case S_LYRICS:
+            case CHAPTER:
+            case TABLE_OF_CONTENTS:
+            case CUSTOM:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public String getKey() {
+        String id = getIdentifier();
+        return hasContentKey(id) ? id + "#" + index : id;
+    }
+
+    // the decoded frame, or null for an encrypted one
+    AbstractFrame decode() {
+        return FrameParser.parseFrame(frameData, position, header);
+    }
+
+    // puts the decoded frame in place of this one in the tag it belongs to
+    private AbstractFrame replace(AbstractFrame frame) {
+        if (tag != null) tag.replaceFrame(this, frame);
+        return frame;
+    }
+
+    // the data can be modified through the returned value, so the decoded frame replaces this one
+    @Override
+    Object getFrameData() {
+        AbstractFrame frame = decode();
+        return frame != null ? replace(frame).getFrameData() : null;
+    }
+
+    @Override
+    void setFrameData(Object data) {
+        AbstractFrame frame = decode();
+        if (frame == null) {
+            throw new IllegalStateException("Encrypted frame can not be decoded: " + getIdentifier());
+        }
+        replace(frame).setFrameData(data);
+    }
+
+    // decodes the given frame body instead of the stored one
+    @Override
+    void parseFrameData(byte[] buffer, FrameHeader header) {
+        AbstractFrame frame = FrameParser.newFrame(header.getIdentifier());
+        if (frame == null) {
+            frame = new UnknownFrame(header, buffer);
+        } else {
+            frame.parseFrameData(buffer, header);
+        }
+        replace(frame);
+    }
+
+    @Override
+    public byte[] assemble(byte version) {
+        return getBytes();
+    }
+
+    @Override
+    public byte[] getBytes() {
+        if (frameBytes == null) {
+            int from   = position + FrameHeader.FRAME_HEADER_LENGTH;
+            frameBytes = Arrays.copyOfRange(frameData, from, from + header.getFrameSize());
+        }
+        return frameBytes;
+    }
+
+    // writes the stored header and body
+    void writeTo(ArraySink sink) {
+        sink.write(frameData, position, FrameHeader.FRAME_HEADER_LENGTH + header.getFrameSize());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ID: %s, LAZY FRAME", getIdentifier());
+    }
+}
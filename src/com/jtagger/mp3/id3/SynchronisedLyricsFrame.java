@@ -165,13 +165,12 @@ public class SynchronisedLyricsFrame extends AbstractFrame<TreeMap<Integer, Stri
 
             String syllable       = lyricsMap.get(timestamp);
             byte[] syllableBytes  = TextEncoding.getStringBytes(syllable, encoding);
-            byte[] timestampBytes = IntegerUtils.fromUInt32BE(timestamp);
 
             System.arraycopy(syllableBytes, 0, synchLyrics, index, syllableBytes.length);
             index += syllableBytes.length;
 
-            System.arraycopy(timestampBytes, 0, synchLyrics, index, 4);
-            index += timestampBytes.length;
+            IntegerUtils.putUInt32BE(synchLyrics, index, timestamp);
+            index += 4;
         }
     }
 
@@ -188,7 +187,7 @@ public class SynchronisedLyricsFrame extends AbstractFrame<TreeMap<Integer, Stri
             syllable  = TextEncoding.getString(buffer, position, strLength, encoding);
             position += strLength;
 
-            timestamp = IntegerUtils.toUInt32BE(Arrays.copyOfRange(buffer, position, position += 4));
+            timestamp = IntegerUtils.toUInt32BE(buffer, position); position += 4;
             lyricsMap.put(timestamp, syllable);
         }
     }
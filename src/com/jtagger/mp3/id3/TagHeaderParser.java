@@ -8,7 +8,8 @@ import static com.jtagger.mp3.id3.ID3V2Tag.ID3V2_4;
 
 public class TagHeaderParser {
 
-    public static final String ID = "ID3";
+    public static final String ID        = "ID3";
+    public static final String FOOTER_ID = "3DI";
 
     public static final int ID_LENGTH = 3;
     public static final int HEADER_LENGTH = 10;
@@ -27,9 +28,15 @@ public class TagHeaderParser {
     }
 
     public TagHeader parse() {
+        return isTagValid(ID) ? parseHeader() : null;
+    }
 
-        if (!isTagValid())
-            return null;
+    // the footer of an ID3v2.4 tag repeats its header under a reversed identifier
+    public TagHeader parseFooter() {
+        return isTagValid(FOOTER_ID) && parseMajorVersion() == ID3V2_4 && isFooterPresent() ? parseHeader() : null;
+    }
+
+    private TagHeader parseHeader() {
 
         final byte majorVersion = parseMajorVersion();
         final byte minorVersion = parseMinorVersion();
@@ -40,7 +47,7 @@ public class TagHeaderParser {
                     .setUnsynch(isUsynchronisationApplied())
                     .setMinorVersion(minorVersion)
                     .setIsExperimental(isTagExperimental())
-                    .setHasExtendedHeader(isFooterPresent())
+                    .setHasFooter(isFooterPresent())
                     .setHasExtendedHeader(isExtendedHeaderPresent())
                     .build(majorVersion);
         } catch (IllegalArgumentException e) {
@@ -48,17 +55,16 @@ public class TagHeaderParser {
         }
     }
 
-    private boolean isTagValid() {
+    private boolean isTagValid(String tagId) {
 
         byte[] id = Arrays.copyOfRange(tagHeader, 0, ID_LENGTH);
         byte majorVersion = tagHeader[MAJOR_VERSION_OFFSET];
 
-        return new String(id).equals(ID) && (majorVersion == ID3V2_3 || majorVersion == ID3V2_4);
+        return new String(id).equals(tagId) && (majorVersion == ID3V2_3 || majorVersion == ID3V2_4);
     }
 
     public int parseTagSize() {
-        byte[] bytes = Arrays.copyOfRange(tagHeader, SIZE_OFFSET, SIZE_OFFSET + SIZE_LENGTH);
-        return fromSynchSafeIntegerBytes(bytes);
+        return fromSynchSafeIntegerBytes(tagHeader, SIZE_OFFSET);
     }
 
     public byte parseMajorVersion() { return tagHeader[MAJOR_VERSION_OFFSET]; }
@@ -1,5 +1,7 @@
 package com.jtagger.mp3.id3;
 
+import com.jtagger.utils.ArraySink;
+
 import java.util.Arrays;
 
 public class UnsynchronisationUtils {
@@ -32,6 +34,20 @@ public class UnsynchronisationUtils {
         return Arrays.copyOf(unsynchFrame, data.length + n);
     }
 
+    // appends the unsynchronised form of data[offset, offset + length) to the sink
+    public static void toUnsynch(byte[] data, int offset, int length, ArraySink sink) {
+
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+
+            sink.write(data[i]);
+            if ((data[i] & 0xFF) == 0xFF && i + 1 < end) {
+                int c = data[i + 1] & 0xFF;
+                if (c == 0x00 || c == 0xE0) sink.write(0x00);
+            }
+        }
+    }
+
     public static byte[] fromUnsynch(byte[] data) {
 
         byte[] synchFrame = new byte[data.length];
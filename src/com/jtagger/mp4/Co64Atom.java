@@ -0,0 +1,54 @@
+package com.jtagger.mp4;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+public class Co64Atom extends MP4Atom {
+
+    private long[] offsets;
+
+    public Co64Atom(String type, byte[] data) {
+        super(type, data);
+    }
+
+    Co64Atom(String type, ByteBuffer region) {
+        super(type, region);
+    }
+
+    public Co64Atom(long[] offsets) {
+        super("co64");
+        this.offsets = offsets;
+    }
+
+    @Override
+    public byte[] assemble(byte version) {
+
+        ByteBuffer co64 = ByteBuffer.allocate(16 + offsets.length * 8);
+        co64.putInt(co64.capacity());
+        co64.put("co64".getBytes(ISO_8859_1));
+        co64.putInt(0); // version and flags
+        co64.putInt(offsets.length);
+
+        for (long offset : offsets) {
+            co64.putLong(offset);
+        }
+
+        this.data = co64.array();
+        return data;
+    }
+
+    public long[] getOffsets() {
+        return offsets;
+    }
+
+    public void setOffsets(long[] offsets) {
+        this.offsets = offsets;
+    }
+
+    public void updateOffsets(long offset) {
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] += offset;
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.jtagger.mp4;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static com.jtagger.mp4.TextAtom.getCharset;
-import static com.jtagger.utils.IntegerUtils.fromUInt32BE;
+import static com.jtagger.utils.IntegerUtils.putUInt32BE;
 import static java.nio.charset.StandardCharsets.*;
 
 public class FreeFormAtom extends ItunesAtom<String> {
@@ -15,8 +16,8 @@ public class FreeFormAtom extends ItunesAtom<String> {
     private final String mean;
     private final String name;
 
-    FreeFormAtom(String mean, String name, byte[] data, int atomType, int dataOffset) {
-        super("----:" + mean + ":" + name, data);
+    FreeFormAtom(String mean, String name, ByteBuffer region, int atomType, int dataOffset) {
+        super("----:" + mean + ":" + name, region);
         this.atomType   = atomType;
         this.mean       = mean;
         this.name       = name;
@@ -48,34 +49,25 @@ public class FreeFormAtom extends ItunesAtom<String> {
             byte[] meanBody = this.mean.getBytes(UTF_8);
             byte[] nameBody = this.name.getBytes(UTF_8);
 
-            byte[] atom       = new byte[8 + 12 + meanBody.length + 12 + nameBody.length + 16 + dataBody.length];
-            byte[] atomLength = fromUInt32BE(atom.length);
-            byte[] meanLength = fromUInt32BE(meanBody.length + 12);
-            byte[] nameLength = fromUInt32BE(nameBody.length + 12);
-            byte[] dataLength = fromUInt32BE(16 + dataBody.length);
-
-            byte[] atomType = fromUInt32BE(getAtomType());
-            byte[] flags    = fromUInt32BE(0x0);
+            byte[] atom = new byte[8 + 12 + meanBody.length + 12 + nameBody.length + 16 + dataBody.length];
 
+            // flags are left zero
             int i = 0;
-            System.arraycopy(atomLength, 0, atom, i, 4); i += 4;
-            System.arraycopy(type,       0, atom, i, 4); i += 4;
-            System.arraycopy(meanLength, 0, atom, i, 4); i += 4;
-            System.arraycopy(mean,       0, atom, i, 4); i += 4;
-            System.arraycopy(flags,      0, atom, i, 4); i += 4;
-            System.arraycopy(meanBody,   0, atom, i, meanBody.length);
+            putUInt32BE(atom, i, atom.length);            i += 4;
+            System.arraycopy(type, 0, atom, i, 4);        i += 4;
+            putUInt32BE(atom, i, meanBody.length + 12);   i += 4;
+            System.arraycopy(mean, 0, atom, i, 4);        i += 8;
+            System.arraycopy(meanBody, 0, atom, i, meanBody.length);
             i += meanBody.length;
 
-            System.arraycopy(nameLength, 0, atom, i, 4); i += 4;
-            System.arraycopy(name,       0, atom, i, 4); i += 4;
-            System.arraycopy(flags,      0, atom, i, 4); i += 4;
-            System.arraycopy(nameBody,   0, atom, i, nameBody.length);
+            putUInt32BE(atom, i, nameBody.length + 12);   i += 4;
+            System.arraycopy(name, 0, atom, i, 4);        i += 8;
+            System.arraycopy(nameBody, 0, atom, i, nameBody.length);
             i += nameBody.length;
 
-            System.arraycopy(dataLength, 0, atom, i, 4); i += 4;
-            System.arraycopy(data,       0, atom, i, 4); i += 4;
-            System.arraycopy(atomType,   0, atom, i, 4); i += 4;
-            System.arraycopy(flags,      0, atom, i, 4); i += 4;
+            putUInt32BE(atom, i, 16 + dataBody.length);   i += 4;
+            System.arraycopy(data, 0, atom, i, 4);        i += 4;
+            putUInt32BE(atom, i, getAtomType());          i += 8;
             System.arraycopy(dataBody,   0, atom, i, dataBody.length);
 
             this.data = atom;
@@ -83,7 +75,7 @@ public class FreeFormAtom extends ItunesAtom<String> {
         }
 
         byte[] textBytes = text.getBytes(getCharset(getType(), atomType));
-        byte[] infoAtom  = Arrays.copyOfRange(data, 4, dataOffset);
+        byte[] infoAtom  = Arrays.copyOfRange(getData(), 4, dataOffset);
         byte[] atom      = new byte[dataOffset + 16 + textBytes.length];
 
         final int dataLength      = 16 + textBytes.length;
@@ -92,12 +84,12 @@ public class FreeFormAtom extends ItunesAtom<String> {
         final int dataFlagsOffset = dataOffset + 12;
         final int dataBodyOffset  = dataOffset + 16;
 
-        System.arraycopy(fromUInt32BE(atom.length), 0, atom, 0, 4);
+        putUInt32BE(atom, 0, atom.length);
         System.arraycopy(infoAtom, 0, atom, 4, infoAtom.length);
-        System.arraycopy(fromUInt32BE(dataLength), 0, atom, dataOffset, 4);
+        putUInt32BE(atom, dataOffset, dataLength);
         System.arraycopy("data".getBytes(ISO_8859_1), 0, atom, atomTypeOffset, 4);
-        System.arraycopy(fromUInt32BE(atomType), 0, atom, dataTypeOffset, 4);
-        System.arraycopy(fromUInt32BE(0x0), 0, atom, dataFlagsOffset, 4);
+        putUInt32BE(atom, dataTypeOffset, atomType);
+        putUInt32BE(atom, dataFlagsOffset, 0x0);
         System.arraycopy(textBytes, 0, atom, dataBodyOffset, textBytes.length);
 
         this.data = atom;
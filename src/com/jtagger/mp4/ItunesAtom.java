@@ -1,5 +1,7 @@
 package com.jtagger.mp4;
 
+import java.nio.ByteBuffer;
+
 abstract public class ItunesAtom <T> extends MP4Atom {
 
     public static final int TYPE_UTF8     = 0x000001;
@@ -18,6 +20,14 @@ abstract public class ItunesAtom <T> extends MP4Atom {
         super(type);
     }
 
+    ItunesAtom(String type, ByteBuffer region) {
+        super(type, region);
+    }
+
+    ItunesAtom(String type, long size) {
+        super(type, size);
+    }
+
     abstract void setAtomData(byte[] data);
     abstract public T getAtomData();
     abstract public int getAtomType();
@@ -68,7 +68,7 @@ public class MP4 extends AbstractTag implements StreamInfo {
 
     public static final HashMap<String, String> FIELD_MAP = new HashMap<>();
 
-    public static final List<String> DUPLICATES     = List.of("mdat", "moof");
+    public static final List<String> DUPLICATES     = List.of("mdat", "moof", "trak");
     public static final List<String> INT_PAIR_ATOMS = Arrays.asList("trkn", "disk");
     public static final List<String> BYTE_ATOMS     = Arrays.asList("cpil", "pgap", "pcst", "hdvd", "shwm", "stik", "rtng", "akID");
     public static final List<String> INT_ATOMS      = Arrays.asList("tmpo", "©mvi", "©mvc", "tvsn", "tves", "cnID", "sfID", "atID", "geID", "cmID", "gnre");
@@ -144,6 +144,17 @@ public class MP4 extends AbstractTag implements StreamInfo {
         return atoms;
     }
 
+    // takes the atoms of the same file parsed again after a save, which hold the same metadata at new positions
+    void setLayout(MP4 parsed) {
+        atoms.clear();
+        atoms.addAll(parsed.atoms);
+        bytes    = parsed.bytes;
+        stsdAtom = parsed.stsdAtom;
+        mdhdAtom = parsed.mdhdAtom;
+        ilstAtom = parsed.ilstAtom;
+        moovAtom = parsed.moovAtom;
+    }
+
     void findAtoms(MP4Atom parent, ArrayList<MP4Atom> atoms, String...atomPath) {
         for (MP4Atom atom : parent.getChildren()) {
             if (atom.getType().equals(atomPath[atoms.size()])) {
@@ -176,6 +187,21 @@ public class MP4 extends AbstractTag implements StreamInfo {
         return null;
     }
 
+    // every atom of the given types below parent, in file order
+    void collectAtoms(MP4Atom parent, ArrayList<MP4Atom> atoms, String...types) {
+        for (MP4Atom atom : parent.getChildren()) {
+            for (String type : types) {
+                if (atom.getType().equals(type)) {
+                    atoms.add(atom);
+                    break;
+                }
+            }
+            if (atom.hasChildren()) {
+                collectAtoms(atom, atoms, types);
+            }
+        }
+    }
+
     MP4Atom getAtom(String type) {
         for (MP4Atom atom : atoms) {
             if (atom.getType().equals(type))
@@ -209,20 +235,23 @@ public class MP4 extends AbstractTag implements StreamInfo {
     }
 
     public ArrayList<ItunesAtom> getMetadataAtoms() {
+        markExposed();
         return getIlstAtom().getChildren();
     }
 
     public void addMetadataAtom(ItunesAtom atom) {
+        markModified();
         getIlstAtom().appendChild(atom);
     }
 
     public void setMetadataAtoms(ArrayList<ItunesAtom> metadataAtoms) {
+        markModified();
         getIlstAtom().setChildren(metadataAtoms);
     }
 
     public void removeMetadataAtom(String type) {
 
-        ArrayList<ItunesAtom> metadataAtoms = getMetadataAtoms();
+        ArrayList<ItunesAtom> metadataAtoms = getIlstAtom().getChildren();
         ItunesAtom atom = null;
 
         for (ItunesAtom childAtom : metadataAtoms) {
@@ -232,6 +261,7 @@ public class MP4 extends AbstractTag implements StreamInfo {
             }
         }
         if (atom != null) {
+            markModified();
             metadataAtoms.remove(atom);
         }
     }
@@ -247,6 +277,7 @@ public class MP4 extends AbstractTag implements StreamInfo {
         String atomType = FIELD_MAP.get(fieldId);
         if (atomType == null) return;
 
+        markModified();
         boolean addAtom       = true;
         ItunesAtom itunesAtom = null;
 
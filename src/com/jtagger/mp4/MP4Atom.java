@@ -5,6 +5,7 @@ import com.jtagger.utils.IntegerUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -15,12 +16,13 @@ import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 public class MP4Atom implements Component {
 
-    private int atomStart;
-    private int atomEnd;
+    private long atomStart;
+    private long atomEnd;
 
     private final String type;
-    private int size;
+    private long size;
     protected byte[] data;
+    private ByteBuffer region; // slice of the buffer the atom was parsed from, copied on first use
 
     private MP4Atom parentAtom;
     private ArrayList<MP4Atom> children = new ArrayList<>();
@@ -30,7 +32,12 @@ public class MP4Atom implements Component {
         this.data = data;
     }
 
-    public MP4Atom(String type, int size) {
+    public MP4Atom(String type, ByteBuffer region) {
+        this.type   = type;
+        this.region = region;
+    }
+
+    public MP4Atom(String type, long size) {
         this.type = type;
         this.size = size;
     }
@@ -75,7 +82,7 @@ public class MP4Atom implements Component {
 
         byte[] outBuffer = out.toByteArray();
         byte[] atomData  = new byte[8 + outBuffer.length];
-        System.arraycopy(IntegerUtils.fromUInt32BE(atomData.length), 0, atomData, 0, 4);
+        IntegerUtils.putUInt32BE(atomData, 0, atomData.length);
         System.arraycopy(type.getBytes(ISO_8859_1), 0, atomData, 4, 4);
         System.arraycopy(outBuffer, 0, atomData, 8, outBuffer.length);
 
@@ -88,16 +95,17 @@ public class MP4Atom implements Component {
         return getData();
     }
 
-    public int getStart() {
+    public long getStart() {
         return atomStart;
     }
 
-    public int getEnd() {
+    public long getEnd() {
         return atomEnd;
     }
 
-    public int getSize() {
-        return data == null ? size : data.length;
+    public long getSize() {
+        if (data != null) return data.length;
+        return region != null ? region.capacity() : size;
     }
 
     public MP4Atom getParent() {
@@ -121,11 +129,11 @@ public class MP4Atom implements Component {
         this.parentAtom = parentAtom;
     }
 
-    public void setStart(int atomStart) {
+    public void setStart(long atomStart) {
         this.atomStart = atomStart;
     }
 
-    public void setEnd(int atomEnd) {
+    public void setEnd(long atomEnd) {
         this.atomEnd = atomEnd;
     }
 
@@ -146,11 +154,16 @@ public class MP4Atom implements Component {
         this.children = new ArrayList<>();
         data = new byte[8];
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(data.length), 0, data, 0, 4);
+        IntegerUtils.putUInt32BE(data, 0, data.length);
         System.arraycopy(type.getBytes(ISO_8859_1), 0, data, 4, 4);
     }
 
     public byte[] getData() {
+        if (data == null && region != null) {
+            data = new byte[region.capacity()];
+            region.duplicate().clear().get(data);
+            region = null;
+        }
         return data;
     }
 }
@@ -3,82 +3,278 @@ package com.jtagger.mp4;
 import com.jtagger.AbstractTag;
 import com.jtagger.AbstractTagEditor;
 import com.jtagger.utils.BytesIO;
+import com.jtagger.utils.CachedSource;
+import com.jtagger.utils.FileSource;
 import com.jtagger.utils.IntegerUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 
 import static com.jtagger.utils.IntegerUtils.fromUInt32BE;
+import static com.jtagger.utils.IntegerUtils.putUInt32BE;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 public class MP4Editor extends AbstractTagEditor<MP4> {
 
     private MP4Parser parser;
+    private MoovRelocation moovRelocation = MoovRelocation.NEVER;
+    private boolean fastStart = false;
 
     public MP4Parser getParser() {
         return parser;
     }
 
+    public void setMoovRelocation(MoovRelocation moovRelocation) {
+        this.moovRelocation = moovRelocation;
+    }
+
+    // when set, commit rewrites a file whose moov follows the media data with moov in front
+    public void setFastStart(boolean fastStart) {
+        this.fastStart = fastStart;
+    }
+
     @Override
     protected void parseTag() throws IOException {
         parser = new MP4Parser();
-        tag = parser.parseTag(file);
+        parser.setScanParts(scanParts);
+        parser.setSourcePath(getPath());
+        tag = parser.parseTag(source);
+    }
+
+    private void updateOffsets(long delta, long shiftStart) throws IOException {
+        if (parser.isMP4Fragmented()) updateTfhd(delta, shiftStart); else updateChunkOffsets(delta, shiftStart);
     }
 
-    private void updateOffsets(int delta) throws IOException {
-        if (parser.isMP4Fragmented()) updateTfhd(delta); else updateStco(delta);
+    private static long shifted(long position, long delta, long shiftStart) {
+        return position >= shiftStart ? position + delta : position;
     }
 
-    private void updateParents(MP4Atom parent, int delta) throws IOException {
+    private void updateParents(MP4Atom parent, long delta) throws IOException {
 
         int size;
         while (parent != null) {
             file.seek(parent.getStart());
             size = file.readInt();
             file.seek(file.getFilePointer() - 4);
-            file.write(fromUInt32BE(size + delta));
+            file.write(fromUInt32BE(size + (int) delta));
             parent = parent.getParent();
         }
     }
 
-    private void writePadding(int padding) throws IOException {
+    private static byte[] getPadding(int padding) {
 
         byte[] paddingBuffer = new byte[padding];
-        System.arraycopy(fromUInt32BE(padding), 0, paddingBuffer, 0, 4);
+        putUInt32BE(paddingBuffer, 0, padding);
         System.arraycopy("free".getBytes(ISO_8859_1), 0, paddingBuffer, 4, 4);
 
-        file.write(paddingBuffer);
+        return paddingBuffer;
     }
 
-    private void updateStco(int delta) throws IOException {
+    private void writePadding(int padding) throws IOException {
+        file.write(getPadding(padding));
+    }
 
-        StcoAtom stcoAtom;
-        MP4Atom moovAtom;
+    private boolean isMoovRelocated(long shiftStart) throws IOException {
 
-        moovAtom = tag.getMoovAtom();
-        if (parser.getMdatStart() > parser.getMoovStart()) {
-            stcoAtom = (StcoAtom) tag.findAtom("stco", moovAtom);
-            if (stcoAtom != null) {
+        MP4Atom moov = tag.getMoovAtom();
+        MP4Atom last = tag.getAtoms().get(tag.getAtoms().size() - 1);
+        if (parser.isMP4Fragmented() || last == moov) {
+            return false;
+        }
 
-                stcoAtom.updateOffsets(delta);
-                file.seek(stcoAtom.getStart() + 16);
+        // an atom of size 0 extends to the end of the file and would swallow the appended moov
+        file.seek(last.getStart());
+        if (file.readInt() == 0) {
+            return false;
+        }
+        return moovRelocation.isRelocated(moov.getSize(), file.length() - shiftStart);
+    }
+
+    // replaces [start, end) of moov with bytes, parent and its ancestors grow by the size difference
+    private static class MoovEdit {
+
+        final long start;
+        final long end;
+        final byte[] bytes;
+        final MP4Atom parent;
+
+        MoovEdit(long start, long end, byte[] bytes, MP4Atom parent) {
+            this.start  = start;
+            this.end    = end;
+            this.bytes  = bytes;
+            this.parent = parent;
+        }
+
+        int getDelta() {
+            return bytes.length - (int) (end - start);
+        }
+    }
 
-                for (int offset : stcoAtom.getOffsets()) {
-                    file.write(fromUInt32BE(offset));
+    // reads moov and applies the edits back to front, so positions in front of each edit stay valid
+    private byte[] editMoov(ArrayList<MoovEdit> edits) throws IOException {
+
+        MP4Atom moov   = tag.getMoovAtom();
+        long moovStart = moov.getStart();
+
+        byte[] moovBuffer = new byte[(int) moov.getSize()];
+        file.seek(moovStart);
+        file.readFully(moovBuffer);
+
+        edits.sort((a, b) -> Long.compare(b.start, a.start));
+        for (MoovEdit edit : edits) {
+
+            ByteBuffer sizes = ByteBuffer.wrap(moovBuffer);
+            for (MP4Atom parent = edit.parent; parent != null; parent = parent.getParent()) {
+                int position = (int) (parent.getStart() - moovStart);
+                sizes.putInt(position, sizes.getInt(position) + edit.getDelta());
+            }
+
+            int head = (int) (edit.start - moovStart);
+            int tail = (int) (edit.end - moovStart);
+
+            byte[] edited = new byte[moovBuffer.length + edit.getDelta()];
+            System.arraycopy(moovBuffer, 0, edited, 0, head);
+            System.arraycopy(edit.bytes, 0, edited, head, edit.bytes.length);
+            System.arraycopy(moovBuffer, tail, edited, head + edit.bytes.length, moovBuffer.length - tail);
+            moovBuffer = edited;
+        }
+        return moovBuffer;
+    }
+
+    /*
+     * Appends the edited moov at the end of file and turns the old one into a free atom of the same size.
+     * Nothing after moov moves, so chunk offsets stay valid.
+     */
+    private void relocateMoov(MoovEdit edit) throws IOException {
+
+        ArrayList<MoovEdit> edits = new ArrayList<>(1);
+        edits.add(edit);
+
+        byte[] moovBuffer = editMoov(edits);
+        BytesIO.writeBlock(file, moovBuffer, file.length());
+        BytesIO.writeBlock(file, "free".getBytes(ISO_8859_1), tag.getMoovAtom().getStart() + 4);
+    }
+
+    private static long[] getChunkOffsets(MP4Atom table) {
+
+        if (table instanceof Co64Atom) {
+            return ((Co64Atom) table).getOffsets().clone();
+        }
+
+        int[] stcoOffsets = ((StcoAtom) table).getOffsets();
+        long[] offsets    = new long[stcoOffsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = Integer.toUnsignedLong(stcoOffsets[i]);
+        }
+        return offsets;
+    }
+
+    // position after the gaps opened in front of it, gaps[i] bytes were inserted at ends[i]
+    private static long grown(long position, long[] ends, long[] gaps) {
+        long grown = position;
+        for (int i = 0; i < ends.length; i++) {
+            if (gaps[i] != 0 && ends[i] <= position) grown += gaps[i];
+        }
+        return grown;
+    }
+
+    /*
+     * Updates the stco and co64 tables of every track, called once the tag is in place.
+     * Each table is encoded into one buffer and written at once. A stco table whose offsets
+     * no longer fit in 32 bits becomes a co64 table, which moves everything after it.
+     */
+    private void updateChunkOffsets(long delta, long shiftStart) throws IOException {
+
+        ArrayList<MP4Atom> tables = new ArrayList<>();
+        tag.collectAtoms(tag.getMoovAtom(), tables, "stco", "co64");
+
+        final int count = tables.size();
+        long[][] offsets  = new long[count][];
+        long[] positions  = new long[count];
+        long[] ends       = new long[count];
+        long[] gaps       = new long[count];
+        boolean[] changed = new boolean[count];
+        boolean promote   = false;
+
+        for (int i = 0; i < count; i++) {
+
+            MP4Atom table = tables.get(i);
+            offsets[i]    = getChunkOffsets(table);
+            positions[i]  = shifted(table.getStart(), delta, shiftStart);
+            ends[i]       = positions[i] + table.getSize();
+
+            for (int j = 0; j < offsets[i].length; j++) {
+                if (offsets[i][j] >= shiftStart) {
+                    offsets[i][j] += delta;
+                    changed[i] = true;
+                    if (offsets[i][j] > 0xFFFFFFFFL && table instanceof StcoAtom) {
+                        gaps[i] = 4L * offsets[i].length;
+                    }
+                }
+            }
+            promote |= gaps[i] != 0;
+        }
+
+        if (promote) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (gaps[i] == 0) continue;
+                moveTail(ends[i], ends[i] + gaps[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                if (gaps[i] == 0) continue;
+                for (MP4Atom parent = tables.get(i).getParent(); parent != null; parent = parent.getParent()) {
+                    long start = grown(shifted(parent.getStart(), delta, shiftStart), ends, gaps);
+                    file.seek(start);
+                    int size = file.readInt();
+                    file.seek(start);
+                    file.writeInt(size + (int) gaps[i]);
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+
+            if (!changed[i] && !promote) continue;
+            for (int j = 0; j < offsets[i].length; j++) {
+                offsets[i][j] = grown(offsets[i][j], ends, gaps);
+            }
+
+            MP4Atom table = tables.get(i);
+            if (table instanceof StcoAtom && gaps[i] == 0) {
+
+                int[] stcoOffsets = new int[offsets[i].length];
+                for (int j = 0; j < stcoOffsets.length; j++) {
+                    stcoOffsets[j] = (int) offsets[i][j];
                 }
+                ((StcoAtom) table).setOffsets(stcoOffsets);
+
+            } else if (table instanceof StcoAtom) {
+
+                Co64Atom co64 = new Co64Atom(offsets[i]);
+                ArrayList<MP4Atom> siblings = table.getParent().getChildren();
+                siblings.set(siblings.indexOf(table), co64);
+                co64.setParent(table.getParent());
+                table = co64;
+
+            } else {
+                ((Co64Atom) table).setOffsets(offsets[i]);
             }
+            BytesIO.writeBlock(file, table.assemble(), grown(positions[i], ends, gaps));
         }
     }
 
-    private void updateTfhd(int delta) throws IOException {
+    private void updateTfhd(long delta, long shiftStart) throws IOException {
         for (MP4Atom atom : tag.getAtoms()) {
             if (atom.getType().equals("moof") && atom.getStart() > parser.getMoovStart()) {
 
                 MP4Atom tfhd = tag.findAtom("tfhd", atom);
                 if (tfhd != null) {
 
-                    file.seek(tfhd.getStart() + 8);
+                    file.seek(shifted(tfhd.getStart(), delta, shiftStart) + 8);
                     int flags = file.readInt();
 
                     if ((flags & 0x1) == 1) {
@@ -92,24 +288,10 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
         }
     }
 
-    private void writeNewTag(ArrayList<MP4Atom> path) throws IOException {
-
-        int delta;
-        int size;
-
-        int from;
-        int to;
-        int tagOffset;
-        int padding = BytesIO.getPadding((int) file.length());
-
-        ArrayList<MP4Atom> moovChildren = tag.getMoovAtom().getChildren();
-        size  = tag.getBytes().length + 8 + 12 + 33 + padding;
-        delta = size - (path.isEmpty() ? 0 : path.get(0).getSize());
+    // udta, meta, hdlr and ilst followed by a free atom of padding bytes
+    private byte[] newUdta(int padding) throws IOException {
 
-        MP4Atom adjacent = path.isEmpty() ? moovChildren.get(moovChildren.size() - 1) : path.get(0);
-        tagOffset = path.isEmpty() ? adjacent.getEnd() : adjacent.getStart();
-        from = adjacent.getEnd();
-        to   = from + delta;
+        int size = tag.getBytes().length + 8 + 12 + 33 + padding;
 
         byte[] reserved = new byte[4];
         ByteArrayOutputStream out = new ByteArrayOutputStream(size);
@@ -128,25 +310,219 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
         out.write(reserved);
         out.write(0x0);
         out.write(tag.getBytes());
-        out.write(IntegerUtils.fromUInt32BE(padding));
-        out.write("free".getBytes(ISO_8859_1));
+        out.write(getPadding(padding));
+
+        return out.toByteArray();
+    }
+
+    // the edit that puts the assembled tag and padding into moov
+    private MoovEdit getTagEdit(ArrayList<MP4Atom> path, int padding) throws IOException {
+
+        if (path.size() == 3) {
+
+            MP4Atom ilstAtom   = tag.getIlstAtom();
+            MP4Atom ilstParent = ilstAtom.getParent();
+            ArrayList<MP4Atom> children = ilstParent.getChildren();
+
+            long end  = parser.getIlstEnd();
+            int index = children.indexOf(ilstAtom);
+            if (index + 1 < children.size() && children.get(index + 1).getType().equals("free")) {
+                end = children.get(index + 1).getEnd();
+            }
 
-        byte[] tagBuffer = out.toByteArray();
-        MP4Atom parent = path.isEmpty() ? tag.getMoovAtom() :
+            byte[] ilstBuffer  = tag.getBytes();
+            byte[] replacement = new byte[ilstBuffer.length + padding];
+            System.arraycopy(ilstBuffer, 0, replacement, 0, ilstBuffer.length);
+            System.arraycopy(getPadding(padding), 0, replacement, ilstBuffer.length, padding);
+            return new MoovEdit(parser.getIlstStart(), end, replacement, ilstParent);
+        }
+
+        ArrayList<MP4Atom> moovChildren = tag.getMoovAtom().getChildren();
+        MP4Atom adjacent = path.isEmpty() ? moovChildren.get(moovChildren.size() - 1) : path.get(0);
+        MP4Atom parent   = path.isEmpty() ? tag.getMoovAtom() :
                 (path.size() == 3 ? path.get(1) : path.get(path.size() - 1));
 
-        updateOffsets(delta);
-        updateParents(parent, delta);
+        long start = path.isEmpty() ? adjacent.getEnd() : adjacent.getStart();
+        return new MoovEdit(start, adjacent.getEnd(), newUdta(padding), parent);
+    }
 
+    private void writeNewTag(ArrayList<MP4Atom> path) throws IOException {
+
+        MoovEdit edit = getTagEdit(path, BytesIO.getPadding(file.length()));
+        long delta    = edit.getDelta();
+        long from     = edit.end;
+
+        if (isMoovRelocated(from)) {
+            relocateMoov(edit);
+            return;
+        }
         if (tag.getAtoms().indexOf(tag.getMoovAtom()) != tag.getAtoms().size() - 1) {
-            BytesIO.moveBlock(file,
-                    from,
-                    to,
-                    delta,
-                    (int) file.length() - from
-            );
+            moveTail(from, from + delta);
+        }
+
+        updateParents(edit.parent, delta);
+        BytesIO.writeBlock(file, edit.bytes, edit.start);
+        updateOffsets(delta, from);
+    }
+
+    private static boolean isMedia(MP4Atom atom) {
+        return atom.getType().equals("mdat") || atom.getType().equals("moof");
+    }
+
+    private boolean isMoovAfterMedia() {
+        for (MP4Atom atom : tag.getAtoms()) {
+            if (atom.getType().equals("moov")) return false;
+            if (isMedia(atom)) return true;
+        }
+        return false;
+    }
+
+    // new position of a position in the source file, atoms[i] starts at starts[i] in the rewritten file
+    private static long moved(long position, ArrayList<MP4Atom> atoms, long[] starts, long[] ends) {
+
+        long end    = 0;
+        long newEnd = 0;
+        for (int i = 0; i < atoms.size(); i++) {
+            MP4Atom atom = atoms.get(i);
+            if (position >= atom.getStart() && position < atom.getEnd()) {
+                return starts[i] + position - atom.getStart();
+            }
+            end    = Math.max(end, atom.getEnd());
+            newEnd = Math.max(newEnd, ends[i]);
+        }
+        return position - end + newEnd;
+    }
+
+    private byte[] readMoof(RandomAccessFile original, MP4Atom moof, ArrayList<MP4Atom> atoms, long[] starts, long[] ends) throws IOException {
+
+        byte[] moofBuffer = new byte[(int) moof.getSize()];
+        original.seek(moof.getStart());
+        original.readFully(moofBuffer);
+
+        MP4Atom tfhd = tag.findAtom("tfhd", moof);
+        if (tfhd != null) {
+
+            ByteBuffer buffer = ByteBuffer.wrap(moofBuffer);
+            int position = (int) (tfhd.getStart() - moof.getStart());
+
+            if ((buffer.getInt(position + 8) & 0x1) == 1) {
+                long baseDataOffset = buffer.getLong(position + 16);
+                buffer.putLong(position + 16, moved(baseDataOffset, atoms, starts, ends));
+            }
+        }
+        return moofBuffer;
+    }
+
+    /*
+     * Rewrites the file with moov in front of the media data in one sequential pass.
+     * Chunk offsets and tfhd base offsets are moved in memory, the media is copied with transferTo.
+     */
+    private void writeFastStart(ArrayList<MP4Atom> path) throws IOException {
+
+        final long fileLength = file.length();
+        MP4Atom moov = tag.getMoovAtom();
+
+        ArrayList<MoovEdit> edits = new ArrayList<>();
+        edits.add(getTagEdit(path, BytesIO.getPadding(fileLength)));
+        final long tagDelta = edits.get(0).getDelta();
+
+        ArrayList<MP4Atom> atoms = new ArrayList<>(tag.getAtoms());
+        atoms.remove(moov);
+        int moovIndex = 0;
+        while (moovIndex < atoms.size() && !isMedia(atoms.get(moovIndex))) moovIndex++;
+        atoms.add(moovIndex, moov);
+
+        ArrayList<MP4Atom> tables = new ArrayList<>();
+        tag.collectAtoms(moov, tables, "stco", "co64");
+
+        final int count = tables.size();
+        long[][] offsets   = new long[count][];
+        boolean[] promoted = new boolean[count];
+        long[] starts      = new long[atoms.size()];
+        long[] ends        = new long[atoms.size()];
+
+        // a stco table that overflows becomes co64, which grows moov and moves the media again
+        boolean promote = true;
+        while (promote) {
+
+            long moovSize = moov.getSize() + tagDelta;
+            for (int i = 0; i < count; i++) {
+                if (promoted[i]) moovSize += 4L * getChunkOffsets(tables.get(i)).length;
+            }
+
+            long position = 0;
+            for (int i = 0; i < atoms.size(); i++) {
+                starts[i] = position;
+                position += atoms.get(i) == moov ? moovSize : atoms.get(i).getSize();
+                ends[i]   = position;
+            }
+
+            promote = false;
+            for (int i = 0; i < count; i++) {
+                offsets[i] = getChunkOffsets(tables.get(i));
+                for (int j = 0; j < offsets[i].length; j++) {
+                    offsets[i][j] = moved(offsets[i][j], atoms, starts, ends);
+                    if (offsets[i][j] > 0xFFFFFFFFL && tables.get(i) instanceof StcoAtom && !promoted[i]) {
+                        promoted[i] = true;
+                        promote     = true;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+
+            MP4Atom table = tables.get(i);
+            long tableStart = table.getStart();
+            long tableEnd   = tableStart + table.getSize();
+
+            if (promoted[i]) {
+
+                Co64Atom co64 = new Co64Atom(offsets[i]);
+                ArrayList<MP4Atom> siblings = table.getParent().getChildren();
+                siblings.set(siblings.indexOf(table), co64);
+                co64.setParent(table.getParent());
+                table = co64;
+
+            } else if (table instanceof StcoAtom) {
+
+                int[] stcoOffsets = new int[offsets[i].length];
+                for (int j = 0; j < stcoOffsets.length; j++) {
+                    stcoOffsets[j] = (int) offsets[i][j];
+                }
+                ((StcoAtom) table).setOffsets(stcoOffsets);
+
+            } else {
+                ((Co64Atom) table).setOffsets(offsets[i]);
+            }
+            edits.add(new MoovEdit(tableStart, tableEnd, table.assemble(), table.getParent()));
+        }
+
+        byte[] moovBuffer = editMoov(edits);
+        long atomsEnd     = 0;
+
+        RandomAccessFile original = copyOnWrite();
+        FileChannel sourceChannel = original.getChannel();
+        FileChannel targetChannel = file.getChannel();
+
+        for (int i = 0; i < atoms.size(); i++) {
+
+            MP4Atom atom = atoms.get(i);
+            atomsEnd = Math.max(atomsEnd, atom.getEnd());
+
+            if (atom == moov) {
+                BytesIO.writeBlock(file, moovBuffer, starts[i]);
+            } else if (atom.getType().equals("moof")) {
+                BytesIO.writeBlock(file, readMoof(original, atom, atoms, starts, ends), starts[i]);
+            } else {
+                BytesIO.transferBlock(sourceChannel, atom.getStart(), targetChannel, starts[i], atom.getSize());
+            }
         }
-        BytesIO.writeBlock(file, tagBuffer, tagOffset);
+
+        // junk after the last atom stays at the end
+        long newEnd = ends[ends.length - 1];
+        BytesIO.transferBlock(sourceChannel, atomsEnd, targetChannel, newEnd, fileLength - atomsEnd);
+        file.setLength(newEnd + fileLength - atomsEnd);
     }
 
     private void updateTag() throws IOException {
@@ -155,14 +531,12 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
         final int prevSize    = parser.getIlstSize();
         final int newSize     = tag.getBytes().length;
 
-        int sizeDiff  = newSize - prevSize;
-        int ilstStart = parser.getIlstStart();
-        int ilstEnd   = parser.getIlstEnd();
+        long sizeDiff  = newSize - prevSize;
+        long ilstStart = parser.getIlstStart();
+        long ilstEnd   = parser.getIlstEnd();
 
         if (sizeDiff == 0) {
-            BytesIO.writeBlock(
-                    file, tag.getBytes(), ilstStart
-            );
+            writeChanged(tag.getBytes(), 0, newSize, ilstStart);
             return;
         }
 
@@ -177,7 +551,7 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
 
         ArrayList<MP4Atom> children = ilstParent.getChildren();
         int ilstIndex  = children.indexOf(ilstAtom);
-        int maxPadding = BytesIO.getPadding((int) file.length());
+        int maxPadding = BytesIO.getPadding(file.length());
         int padding    = maxPadding;
 
         if ((ilstIndex + 1) < children.size()) {
@@ -186,18 +560,23 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
             if (free.getType().equals("free")) {
 
                 int paddingDiff = prevSize - newSize;
-                int paddingSize = free.getSize() + paddingDiff;
+                int paddingSize = (int) free.getSize() + paddingDiff;
 
                 if (paddingSize == 0) {
                     BytesIO.writeBlock(file, tag.getBytes(), ilstStart);
                     return;
                 }
                 if (paddingSize >= 8 && paddingSize <= maxPadding) {
-                    BytesIO.writeBlock(file, tag.getBytes(), ilstStart);
-                    file.write(IntegerUtils.fromUInt32BE(paddingSize));
-                    file.write("free".getBytes(ISO_8859_1));
+
+                    byte[] freeHeader = new byte[8];
+                    IntegerUtils.putUInt32BE(freeHeader, 0, paddingSize);
+                    System.arraycopy("free".getBytes(ISO_8859_1), 0, freeHeader, 4, 4);
+
+                    // ilst and free keep their combined size, only the bytes that changed are written
+                    writeChanged(tag.getBytes(), 0, newSize, ilstStart);
+                    writeChanged(freeHeader, 0, freeHeader.length, ilstStart + newSize);
                     if (paddingDiff > 0) {
-                        file.write(new byte[paddingDiff]);
+                        BytesIO.writeBlock(file, new byte[paddingDiff], ilstStart + newSize + freeHeader.length);
                     }
                     return;
                 }
@@ -209,17 +588,21 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
             sizeDiff += padding;
         }
 
-        updateOffsets(sizeDiff);
+        if (isMoovRelocated(ilstEnd)) {
+            byte[] ilstBuffer = tag.getBytes();
+            byte[] replacement = new byte[ilstBuffer.length + padding];
+            System.arraycopy(ilstBuffer, 0, replacement, 0, ilstBuffer.length);
+            System.arraycopy(getPadding(padding), 0, replacement, ilstBuffer.length, padding);
+            relocateMoov(new MoovEdit(ilstStart, ilstEnd, replacement, ilstParent));
+            return;
+        }
+
+        moveTail(ilstEnd, ilstEnd + sizeDiff);
         updateParents(ilstParent, sizeDiff);
 
-        BytesIO.moveBlock(file,
-                ilstEnd,
-                ilstEnd + sizeDiff,
-                sizeDiff,
-                (int) fileLength - ilstEnd
-        );
         BytesIO.writeBlock(file, tag.getBytes(), ilstStart);
         writePadding(padding);
+        updateOffsets(sizeDiff, ilstEnd);
     }
 
     @Override
@@ -232,11 +615,20 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
 
         ArrayList<MP4Atom> path = new ArrayList<>(3);
         tag.findAtoms(tag.getMoovAtom(), path, "udta", "meta", "ilst");
-        if (path.size() != 3) {
+        if (fastStart && isMoovAfterMedia()) {
+            writeFastStart(path);
+        } else if (path.size() != 3) {
             writeNewTag(path);
-            return;
+        } else {
+            updateTag();
         }
-        updateTag();
+
+        // a later save works from the atom positions just written
+        MP4Parser layoutParser = new MP4Parser();
+        layoutParser.setScanParts(scanParts);
+        layoutParser.setSourcePath(getPath());
+        tag.setLayout(layoutParser.parseTag(new CachedSource(new FileSource(file))));
+        parser = layoutParser;
     }
 
     @Override
@@ -245,9 +637,15 @@ public class MP4Editor extends AbstractTagEditor<MP4> {
         tag.assemble();
     }
 
+    @Override
+    protected boolean isModified() {
+        return super.isModified() || (fastStart && tag != null && isMoovAfterMedia());
+    }
+
     @Override
     public void setTag(AbstractTag newTag) {
 
+        if (newTag == tag) return;
         if (newTag instanceof MP4) {
             MP4 mp4 = (MP4) newTag;
             tag.setMetadataAtoms(mp4.getMetadataAtoms());
@@ -8,10 +8,26 @@ import java.io.IOException;
 
 public class MP4File extends MediaFile<MP4, MP4> {
 
+    private MoovRelocation moovRelocation = MoovRelocation.NEVER;
+    private boolean fastStart = false;
+
     @Override
     protected MP4Editor getEditor(String mimeType) {
         if (!mimeType.equals(M4A_MIME_TYPE)) throw new IllegalArgumentException("Not a MP4 file");
-        return new MP4Editor();
+        MP4Editor editor = new MP4Editor();
+        editor.setMoovRelocation(moovRelocation);
+        editor.setFastStart(fastStart);
+        return editor;
+    }
+
+    public void setMoovRelocation(MoovRelocation moovRelocation) {
+        this.moovRelocation = moovRelocation;
+        if (tagEditor != null) ((MP4Editor) tagEditor).setMoovRelocation(moovRelocation);
+    }
+
+    public void setFastStart(boolean fastStart) {
+        this.fastStart = fastStart;
+        if (tagEditor != null) ((MP4Editor) tagEditor).setFastStart(fastStart);
     }
 
     @Override
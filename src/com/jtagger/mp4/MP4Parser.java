@@ -1,17 +1,21 @@
 package com.jtagger.mp4;
 
+import com.jtagger.ScanPart;
 import com.jtagger.StreamInfoParser;
 import com.jtagger.TagParser;
 import com.jtagger.utils.IntegerUtils;
+import com.jtagger.utils.SeekableSource;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 
 import static com.jtagger.mp4.ItunesAtom.*;
-import static com.jtagger.utils.IntegerUtils.*;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
@@ -42,29 +46,58 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
     private static final String SPEC_BOX_AC3  = "dac3";
     private static final String SPEC_BOX_MP4A = "esds";
 
+    private static final int PICTURE_HEADER_LENGTH = 1024;
+
     private MP4 mp4;
     private boolean isFragmented = false;
+    private EnumSet<ScanPart> scanParts = ScanPart.all();
+    private Path sourcePath;
 
-    private int moovStart;
-    private int mdatStart;
+    private long moovStart;
+    private long mdatStart;
 
-    private int ilstStart;
+    private long ilstStart;
     private int ilstSize;
-    private int ilstEnd;
+    private long ilstEnd;
+
+    public void setScanParts(EnumSet<ScanPart> scanParts) {
+        this.scanParts = scanParts;
+    }
+
+    public void setSourcePath(Path sourcePath) {
+        this.sourcePath = sourcePath;
+    }
+
+    private boolean isSkipped(String atomType) {
+        switch (atomType) {
+            case MP4.COVER:
+                return !scanParts.contains(ScanPart.PICTURES);
+            case MP4.LYRICS:
+                return !scanParts.contains(ScanPart.LYRICS);
+            case "stsd":
+            case "mdhd":
+                return !scanParts.contains(ScanPart.STREAM_INFO);
+            case "stco":
+            case "co64":
+                return !ScanPart.isTagComplete(scanParts); // chunk offsets are only needed to save
+            default:
+                return false;
+        }
+    }
 
     boolean isMP4Fragmented() {
         return isFragmented;
     }
 
-    int getMoovStart() {
+    long getMoovStart() {
         return moovStart;
     }
 
-    int getMdatStart() {
+    long getMdatStart() {
         return mdatStart;
     }
 
-    int getIlstStart() {
+    long getIlstStart() {
         return ilstStart;
     }
 
@@ -72,14 +105,43 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         return ilstSize;
     }
 
-    int getIlstEnd() {
+    long getIlstEnd() {
         return ilstEnd;
     }
 
-    private MdhdAtom parseMdhdAtom(byte[] atom) {
+    private static ByteBuffer slice(ByteBuffer buffer, int index, int length) {
+        return buffer.duplicate().position(index).limit(index + length).slice();
+    }
+
+    private static String getString(ByteBuffer buffer, int index, int length, Charset charset) {
+        return new String(buffer.array(), buffer.arrayOffset() + index, length, charset);
+    }
+
+    private static String getType(ByteBuffer buffer, int index) {
+        return getString(buffer, index, 4, ISO_8859_1);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer, int from, int to) {
+        return Arrays.copyOfRange(buffer.array(), buffer.arrayOffset() + from, buffer.arrayOffset() + to);
+    }
+
+    private static int getUInt8(ByteBuffer buffer, int index) {
+        return Byte.toUnsignedInt(buffer.get(index));
+    }
+
+    private static int getUInt24(ByteBuffer buffer, int index) {
+        return getUInt8(buffer, index) << 16 | getUInt8(buffer, index + 1) << 8 | getUInt8(buffer, index + 2);
+    }
+
+    private static boolean isESTag(ByteBuffer buffer, int index) {
+        int tag = getUInt24(buffer, index);
+        return tag == 0x808080 || tag == 0xFEFEFE;
+    }
+
+    private MdhdAtom parseMdhdAtom(ByteBuffer atom) {
 
         int i = 8;
-        byte version = atom[i]; i += 4;
+        byte version = atom.get(i); i += 4;
 
         final long dateCreated;
         final long dateModified;
@@ -87,21 +149,21 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         final long timescale;
 
         if (version == 1) {
-            dateCreated  = IntegerUtils.toUInt64BE(Arrays.copyOfRange(atom, i, i += 8));
-            dateModified = IntegerUtils.toUInt64BE(Arrays.copyOfRange(atom, i, i += 8));
-            timescale    = Integer.toUnsignedLong(toUInt32BE(Arrays.copyOfRange(atom, i, i += 4)));
-            duration     = IntegerUtils.toUInt64BE(Arrays.copyOfRange(atom, i, i += 8));
+            dateCreated  = atom.getLong(i);
+            dateModified = atom.getLong(i + 8);
+            timescale    = Integer.toUnsignedLong(atom.getInt(i + 16));
+            duration     = atom.getLong(i + 20);
         } else {
-            dateCreated  = Integer.toUnsignedLong(toUInt32BE(Arrays.copyOfRange(atom, i, i += 4)));
-            dateModified = Integer.toUnsignedLong(toUInt32BE(Arrays.copyOfRange(atom, i, i += 4)));
-            timescale    = Integer.toUnsignedLong(toUInt32BE(Arrays.copyOfRange(atom, i, i += 4)));
-            duration     = Integer.toUnsignedLong(toUInt32BE(Arrays.copyOfRange(atom, i, i += 4)));
+            dateCreated  = Integer.toUnsignedLong(atom.getInt(i));
+            dateModified = Integer.toUnsignedLong(atom.getInt(i + 4));
+            timescale    = Integer.toUnsignedLong(atom.getInt(i + 8));
+            duration     = Integer.toUnsignedLong(atom.getInt(i + 12));
         }
 
         return new MdhdAtom("mdhd", atom, dateCreated, dateModified, duration, timescale, version);
     }
 
-    private void parseALAC(StsdAtom stsd, byte[] parentAtom) {
+    private void parseALAC(StsdAtom stsd, ByteBuffer specBox) {
 
         final short sampleSize;
         final byte  channels;
@@ -109,15 +171,15 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         final int   sampleRate;
 
         int pointer = 4; // skip frameLength (uint32_t);
-        if (parentAtom[pointer++] != 0) {
+        if (specBox.get(pointer++) != 0) {
             throw new IllegalStateException("ALAC: incompatible version");
         }
 
         pointer += 4;
-        sampleSize = parentAtom[pointer++]; pointer += 3;
-        channels   = parentAtom[pointer++]; pointer += 2 + 4;
-        bitrate    = toUInt32BE(Arrays.copyOfRange(parentAtom, pointer, pointer += 4));
-        sampleRate = toUInt32BE(Arrays.copyOfRange(parentAtom, pointer, pointer + 4));
+        sampleSize = specBox.get(pointer++); pointer += 3;
+        channels   = specBox.get(pointer++); pointer += 2 + 4;
+        bitrate    = specBox.getInt(pointer);
+        sampleRate = specBox.getInt(pointer + 4);
 
         stsd.setSampleSize(sampleSize);
         stsd.setChannels(channels);
@@ -126,7 +188,7 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         stsd.setSampleRate(sampleRate);
     }
 
-    private void parseAC3(StsdAtom stsd, byte[] atom) {
+    private void parseAC3(StsdAtom stsd, ByteBuffer specBox) {
 
         final int[] ac3Bps = new int[] {
                 32, 40, 48, 56, 64, 80, 96, 112, 128, 160,
@@ -136,18 +198,14 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         int ac3BoxBits;
         int ac3Bitrate;
 
-        ac3BoxBits = IntegerUtils.toUInt24BE(Arrays.copyOfRange(atom, 0, 3));
+        ac3BoxBits = getUInt24(specBox, 0);
         ac3Bitrate = ac3Bps[ac3BoxBits >> 5 & 0x1f] * 1000;
 
         stsd.setMaxBitrate(ac3Bitrate);
         stsd.setAvgBitrate(ac3Bitrate);
     }
 
-    private void parseESDS(StsdAtom stsd, byte[] atom) throws InvalidAtomException {
-
-        byte[] esStart = new byte[] { (byte) 0x80, (byte) 0x80, (byte) 0x80 };
-        byte[] esEnd   = new byte[] { (byte) 0xFE, (byte) 0xFE, (byte) 0xFE };
-        byte[] esTag;
+    private void parseESDS(StsdAtom stsd, ByteBuffer specBox) throws InvalidAtomException {
 
         int pointer;
         int ESLength;
@@ -159,35 +217,35 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         final int bufferSize;
 
         pointer = 4;
-        if (atom[pointer++] != 0x03) {
+        if (specBox.get(pointer++) != 0x03) {
             throw new InvalidAtomException("Invalid ES descriptor tag");
         }
 
-        esTag = Arrays.copyOfRange(atom, pointer, pointer += 3);
-        if (!Arrays.equals(esTag, esStart) && !Arrays.equals(esTag, esEnd)) {
+        if (isESTag(specBox, pointer)) {
+            pointer += 3;
+        } else {
             System.err.println("Missing ES start tag");
-            pointer -= 3;
         }
 
-        ESLength = Byte.toUnsignedInt(atom[pointer++]);
+        ESLength = getUInt8(specBox, pointer++);
         pointer += 3;
 
-        if (atom[pointer++] != 0x04) {
+        if (specBox.get(pointer++) != 0x04) {
             throw new IllegalStateException("Invalid ES descriptor tag");
         }
 
-        esTag = Arrays.copyOfRange(atom, pointer, pointer += 3);
-        if (!Arrays.equals(esTag, esStart) && !Arrays.equals(esTag, esEnd)) {
+        if (isESTag(specBox, pointer)) {
+            pointer += 3;
+        } else {
             System.err.println("Missing ES tag");
-            pointer -= 3;
         }
 
-        ESLength   = Byte.toUnsignedInt(atom[pointer++]);
-        esObjType  = Byte.toUnsignedInt(atom[pointer++]);
-        streamType = Byte.toUnsignedInt(atom[pointer++]);
-        bufferSize = toUInt24BE(Arrays.copyOfRange(atom, pointer, pointer += 3));
-        maxBitrate = toUInt32BE(Arrays.copyOfRange(atom, pointer, pointer += 4));
-        avgBitrate = toUInt32BE(Arrays.copyOfRange(atom, pointer, pointer += 4));
+        ESLength   = getUInt8(specBox, pointer++);
+        esObjType  = getUInt8(specBox, pointer++);
+        streamType = getUInt8(specBox, pointer++);
+        bufferSize = getUInt24(specBox, pointer); pointer += 3;
+        maxBitrate = specBox.getInt(pointer); pointer += 4;
+        avgBitrate = specBox.getInt(pointer);
 
         stsd.setEsObjectType(esObjType);
         stsd.setEsStreamType(streamType);
@@ -196,13 +254,13 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         stsd.setAvgBitrate(avgBitrate);
     }
 
-    private StsdAtom parseStsdAtom(byte[] atom) throws InvalidAtomException {
+    private StsdAtom parseStsdAtom(ByteBuffer atom) throws InvalidAtomException {
 
         final int descCount;
         final int channelCount;
         final int sampleSize;
         final int samplingRate;
-        byte[] specBox;
+        ByteBuffer specBox;
 
         String aSampleEntryType;
         String specBoxType;
@@ -211,13 +269,13 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         int pointer;
 
         pointer = 12; // Skip header + 4 hex bytes
-        descCount = toUInt32BE(Arrays.copyOfRange(atom, pointer, pointer += 4));
+        descCount = atom.getInt(pointer); pointer += 4;
         if (descCount == 0) {
             throw new InvalidAtomException("Invalid number of descriptions");
         }
 
         pointer += 4; // skip description size
-        aSampleEntryType = new String(Arrays.copyOfRange(atom, pointer, pointer += 4));
+        aSampleEntryType = getType(atom, pointer); pointer += 4;
         pointer += 6; // Reserved [6] uint8_t
 
         if (!aSampleEntryType.equals(AS_ENTRY_MP4A) &&
@@ -228,14 +286,10 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         }
 
         pointer += 10; // Reserved [2] 32 uimsbf + skip dref index
-        channelCount = Short.toUnsignedInt(toUInt16BE(Arrays.copyOfRange(atom, pointer, pointer += 2)));
-        sampleSize   = Short.toUnsignedInt(toUInt16BE(Arrays.copyOfRange(atom, pointer, pointer += 2)));
+        channelCount = Short.toUnsignedInt(atom.getShort(pointer)); pointer += 2;
+        sampleSize   = Short.toUnsignedInt(atom.getShort(pointer)); pointer += 2;
         pointer += 4; // Reserved 32 uimsbf
-        samplingRate = toUInt32BE(Arrays.copyOfRange(atom, pointer, pointer += 4)) >> 16 & 0xffff;
-
-        size = toUInt32BE(Arrays.copyOfRange(atom, pointer, pointer += 4));
-        specBoxType = new String(Arrays.copyOfRange(atom, pointer, pointer += 4));
-        specBox = Arrays.copyOfRange(atom, pointer, pointer + (size - 8));
+        samplingRate = atom.getInt(pointer) >> 16 & 0xffff; pointer += 4;
 
         StsdAtom stsdAtom = new StsdAtom("stsd", atom);
         stsdAtom.setCodec(aSampleEntryType);
@@ -243,21 +297,33 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         stsdAtom.setSampleSize(sampleSize);
         stsdAtom.setSampleRate(samplingRate);
 
-        switch (specBoxType) {
-            case SPEC_BOX_ALAC:
-                parseALAC(stsdAtom, specBox);
-                break;
-            case SPEC_BOX_AC3:
-                parseAC3(stsdAtom, specBox);
-                break;
-            case SPEC_BOX_MP4A:
-                parseESDS(stsdAtom, specBox);
-                break;
+        if (atom.capacity() - pointer < 8) {
+            return stsdAtom;
+        }
+
+        size = atom.getInt(pointer); pointer += 4;
+        specBoxType = getType(atom, pointer); pointer += 4;
+        specBox = slice(atom, pointer, Math.max(Math.min(size - 8, atom.capacity() - pointer), 0));
+
+        try {
+            switch (specBoxType) {
+                case SPEC_BOX_ALAC:
+                    parseALAC(stsdAtom, specBox);
+                    break;
+                case SPEC_BOX_AC3:
+                    parseAC3(stsdAtom, specBox);
+                    break;
+                case SPEC_BOX_MP4A:
+                    parseESDS(stsdAtom, specBox);
+                    break;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            System.err.println("MP4Parser: truncated '" + specBoxType + "' box");
         }
         return stsdAtom;
     }
 
-    private FreeFormAtom parseFreeFormAtom(byte[] atom) throws InvalidAtomException {
+    private FreeFormAtom parseFreeFormAtom(ByteBuffer atom) throws InvalidAtomException {
 
         int length;
         int index;
@@ -268,8 +334,8 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         String name;
 
         index    = 8;
-        length   = toUInt32BE(Arrays.copyOfRange(atom, index, index += 4));
-        atomType = new String(Arrays.copyOfRange(atom, index, index += 4));
+        length   = atom.getInt(index);
+        atomType = getType(atom, index + 4); index += 8;
 
         if (length < 8) {
             throw new InvalidAtomException("Invalid length for 'mean' atom");
@@ -278,9 +344,9 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
             throw new InvalidAtomException("Expected atom type: 'mean'");
         }
 
-        mean     = new String(Arrays.copyOfRange(atom, index + 4, index + length - 8)); index += length - 8;
-        length   = toUInt32BE(Arrays.copyOfRange(atom, index, index += 4));
-        atomType = new String(Arrays.copyOfRange(atom, index, index += 4));
+        mean     = getString(atom, index + 4, length - 12, Charset.defaultCharset()); index += length - 8;
+        length   = atom.getInt(index);
+        atomType = getType(atom, index + 4); index += 8;
 
         if (length < 8) {
             throw new InvalidAtomException("Invalid length for 'name' atom");
@@ -289,10 +355,10 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
             throw new InvalidAtomException("Expected atom type: 'name'");
         }
 
-        name       = new String(Arrays.copyOfRange(atom, index + 4, index + length - 8)); index += length - 8;
+        name       = getString(atom, index + 4, length - 12, Charset.defaultCharset()); index += length - 8;
         dataOffset = index;
-        length     = toUInt32BE(Arrays.copyOfRange(atom, index, index += 4));
-        atomType   = new String(Arrays.copyOfRange(atom, index, index += 4));
+        length     = atom.getInt(index);
+        atomType   = getType(atom, index + 4); index += 8;
 
         if (length < 8) {
             throw new InvalidAtomException("Invalid length for 'data' atom");
@@ -301,31 +367,44 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
             throw new InvalidAtomException("Expected type 'data', got " + atomType);
         }
 
-        byte[] atomData = Arrays.copyOfRange(atom, index + 8, index + length - 8);
-        int dataType    = toUInt32BE(Arrays.copyOfRange(atom, index, index + 4));
+        byte[] atomData = getBytes(atom, index + 8, index + length - 8);
+        int dataType    = atom.getInt(index);
 
         FreeFormAtom freeFormAtom = new FreeFormAtom(mean, name, atom, dataType, dataOffset);
         freeFormAtom.setAtomData(atomData);
         return freeFormAtom;
     }
 
-    private StcoAtom parseStco(byte[] atom) {
+    private StcoAtom parseStco(ByteBuffer atom) {
 
-        StcoAtom stco  = new StcoAtom("stco", atom);
-        int entryCount = toUInt32BE(Arrays.copyOfRange(atom, 12, 16));
-        int[] offsets  = new int[entryCount];
-        byte[] entries = Arrays.copyOfRange(atom, 16, atom.length);
+        int entryCount = Math.min(atom.getInt(12), (atom.capacity() - 16) / 4);
+        int[] offsets  = new int[Math.max(entryCount, 0)];
 
-        for (int i = 0; i < entries.length; i += 4) {
-            offsets[i / 4] = toUInt32BE(Arrays.copyOfRange(entries, i, i + 4));
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = atom.getInt(16 + i * 4);
         }
 
+        StcoAtom stco = new StcoAtom("stco", atom);
         stco.setOffsets(offsets);
         return stco;
     }
 
+    private Co64Atom parseCo64(ByteBuffer atom) {
+
+        int entryCount = Math.min(atom.getInt(12), (atom.capacity() - 16) / 8);
+        long[] offsets = new long[Math.max(entryCount, 0)];
+
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = atom.getLong(16 + i * 8);
+        }
+
+        Co64Atom co64 = new Co64Atom("co64", atom);
+        co64.setOffsets(offsets);
+        return co64;
+    }
+
     @SuppressWarnings({"rawtypes"})
-    private ItunesAtom parseItunesAtom(byte[] atom) throws InvalidAtomException {
+    private ItunesAtom parseItunesAtom(ByteBuffer atom) throws InvalidAtomException {
 
         final int size;
         final int dataType;
@@ -333,14 +412,14 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
         final String type;
         final String dataAtomType;
 
-        byte[] sizeBytes         = Arrays.copyOfRange(atom, 8, 12);
-        byte[] dataAtomTypeBytes = Arrays.copyOfRange(atom, 12, 16);
-        byte[] typeBytes         = Arrays.copyOfRange(atom, 4, 8);
+        if (atom.capacity() < 24) {
+            return null;
+        }
 
-        dataAtomType = new String(dataAtomTypeBytes, ISO_8859_1);
-        type         = new String(typeBytes, ISO_8859_1);
-        size         = toUInt32BE(sizeBytes);
-        dataType     = toUInt32BE(Arrays.copyOfRange(atom, 16, 20));
+        dataAtomType = getType(atom, 12);
+        type         = getType(atom, 4);
+        size         = atom.getInt(8);
+        dataType     = atom.getInt(16);
 
         if (size < 8) {
             throw new InvalidAtomException(String.format("Atom %s: invalid size: %d", type, size));
@@ -380,87 +459,145 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
                     break;
             }
         }
-        itunesAtom.setAtomData(Arrays.copyOfRange(atom, 24, 8 + size));
+        itunesAtom.setAtomData(getBytes(atom, 24, Math.max(Math.min(8 + size, atom.capacity()), 24)));
         return itunesAtom;
     }
 
-    private byte[] readAtom(
-            RandomAccessFile file,
-            MP4Atom atom,
-            byte[] header,
-            int atomSize) throws IOException
-    {
-        byte[] atomData = new byte[atomSize];
-        System.arraycopy(header, 0, atomData, 0, header.length);
-        file.readFully(atomData, 8, atomData.length - 8);
+    // reads the 'data' header of a covr atom and leaves the picture in the file
+    private PictureAtom parseLazyPicture(ByteBuffer atom, String type, long atomStart) {
+
+        long dataSize       = Integer.toUnsignedLong(atom.getInt(8));
+        String dataAtomType = getType(atom, 12);
+        int dataType        = atom.getInt(16);
+        long atomSize       = atom.capacity();
+
+        boolean isPicture = dataType == TYPE_JPEG || dataType == TYPE_PNG || dataType == TYPE_BMP;
+        if (!dataAtomType.equals("data") || !isPicture || dataSize < 16 || 8 + dataSize > atomSize) {
+            return null;
+        }
+
+        PictureAtom pictureAtom = new PictureAtom(type, atomSize, dataType);
+        pictureAtom.setAtomData(sourcePath, atomStart + 24, (int) dataSize - 16);
+        return pictureAtom;
+    }
 
-        return atomData;
+    private boolean isLazyPicture(String atomType, long atomSize) {
+        return sourcePath != null &&
+               atomType.equals(MP4.COVER) &&
+               atomSize > PICTURE_HEADER_LENGTH;
     }
 
-    private void parseAtom(RandomAccessFile file, MP4Atom parentAtom) throws InvalidAtomException, IOException {
+    // reads a whole top level atom, its children are parsed from slices of the returned buffer
+    private ByteBuffer readAtom(SeekableSource file, long atomStart, long atomSize) throws IOException, InvalidAtomException {
+
+        if (atomSize > Integer.MAX_VALUE - 8) {
+            throw new InvalidAtomException("Atom is too large: " + atomSize);
+        }
 
-        byte[] header = new byte[8];
-        int atomSize;
+        byte[] atom = new byte[(int) atomSize];
+        file.seek(atomStart);
+        file.readFully(atom);
+        return ByteBuffer.wrap(atom);
+    }
+
+    private long readAtomSize(SeekableSource file, byte[] header, long parentEnd) throws IOException {
+        long atomSize = Integer.toUnsignedLong(IntegerUtils.toUInt32BE(header, 0));
+        if (atomSize == 1) {
+            atomSize = file.readLong();
+        } else if (atomSize == 0) {
+            atomSize = parentEnd - file.getFilePointer() + 8;
+        }
+        return atomSize;
+    }
+
+    /*
+     * Parses the children of parentAtom from buffer, which holds the top level atom starting at base.
+     * Atoms keep a slice of buffer instead of a copy, integers are decoded in place.
+     */
+    private void parseAtom(ByteBuffer buffer, long base, MP4Atom parentAtom, int position) throws InvalidAtomException {
+
+        final int parentEnd = (int) (parentAtom.getEnd() - base);
+
+        long atomSize;
         String atomType;
+        int headerSize;
 
         boolean isContainer;
-        boolean skipAtom;
 
-        long atomStart;
-        long atomEnd;
+        int atomStart;
+        int atomEnd;
 
-        while (file.getFilePointer() < parentAtom.getEnd()) {
+        while (position < parentEnd) {
 
             isContainer = false;
-            skipAtom    = false;
 
-            file.readFully(header);
-            atomSize = IntegerUtils.toUInt32BE(Arrays.copyOfRange(header, 0, 4));
-            atomType = new String(Arrays.copyOfRange(header, 4, 8), ISO_8859_1);
+            if (parentEnd - position < 8) {
+                throw new InvalidAtomException("Invalid atom size: " + (parentEnd - position));
+            }
+
+            atomStart  = position;
+            atomSize   = Integer.toUnsignedLong(buffer.getInt(atomStart));
+            atomType   = getType(buffer, atomStart + 4);
+            headerSize = 8;
 
-            if (atomSize < 8) {
+            if (atomSize == 1 && parentEnd - atomStart >= 16) {
+                atomSize   = buffer.getLong(atomStart + 8);
+                headerSize = 16;
+            } else if (atomSize == 0) {
+                atomSize = parentEnd - atomStart;
+            }
+
+            if (atomSize < 8 || atomSize > parentEnd - atomStart) {
                 throw new InvalidAtomException("Invalid atom size: " + atomSize);
             }
 
-            atomStart = file.getFilePointer() - 8;
-            atomEnd   = atomStart + atomSize;
+            atomEnd  = atomStart + (int) atomSize;
+            position = atomEnd;
+            if (isSkipped(atomType)) {
+                continue;
+            }
+
+            ByteBuffer region = slice(buffer, atomStart, (int) atomSize);
+            MP4Atom atom = null;
 
-            MP4Atom atom = new MP4Atom(atomType, atomSize);
             boolean meta = parentAtom.getType().equals("ilst") &&
-                           !atom.getType().equals("----") &&
-                           !atom.getType().equals("free");
+                           !atomType.equals("----") &&
+                           !atomType.equals("free");
 
             if (meta) {
-                atom = parseItunesAtom(readAtom(file, atom, header, atomSize));
-            }
-            if (atom == null || !meta) {
+                atom = isLazyPicture(atomType, atomSize) ? parseLazyPicture(region, atomType, base + atomStart) : null;
                 if (atom == null) {
-                    atom = new MP4Atom(atomType, atomSize);
+                    atom = parseItunesAtom(region);
                 }
+            }
+            if (atom == null) {
                 switch (atomType) {
 
                     case "----":
-                        atom = parseFreeFormAtom(readAtom(file, atom, header, atomSize));
+                        atom = parseFreeFormAtom(region);
                         break;
                     case "stco":
-                        atom = parseStco(readAtom(file, atom, header, atomSize));
+                        atom = parseStco(region);
+                        break;
+                    case "co64":
+                        atom = parseCo64(region);
                         break;
                     case "stsd":
-                        atom = parseStsdAtom(readAtom(file, atom, header, atomSize));
+                        atom = parseStsdAtom(region);
                         break;
                     case "mdhd":
-                        atom = parseMdhdAtom(readAtom(file, atom, header, atomSize));
+                        atom = parseMdhdAtom(region);
                         break;
 
                     case "meta":
-                        file.skipBytes(4);
+                        headerSize += 4;
                         isContainer = true;
                         break;
 
                     case "ilst":
-                        ilstStart   = (int) atomStart;
-                        ilstEnd     = (int) atomEnd;
-                        ilstSize    = atomSize;
+                        ilstStart   = base + atomStart;
+                        ilstEnd     = base + atomEnd;
+                        ilstSize    = (int) atomSize;
                         isContainer = true;
                         break;
 
@@ -475,29 +612,26 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
                     case "stbl":
                         isContainer = true;
                         break;
-
-                    default:
-                        skipAtom = true;
+                }
+                if (atom == null) {
+                    atom = new MP4Atom(atomType, atomSize);
                 }
             }
 
-            atom.setStart((int) atomStart);
-            atom.setEnd((int) atomEnd);
+            atom.setStart(base + atomStart);
+            atom.setEnd(base + atomEnd);
 
             atom.setParent(parentAtom);
             parentAtom.appendChild(atom);
 
             if (isContainer) {
-                parseAtom(file, atom);
-            }
-            else if (skipAtom) {
-                file.seek(atomEnd);
+                parseAtom(buffer, base, atom, atomStart + headerSize);
             }
         }
     }
 
     @Override
-    public MP4 parseTag(RandomAccessFile file) throws IOException {
+    public MP4 parseTag(SeekableSource file) throws IOException {
         try {
 
             boolean hasMoovAtom = false;
@@ -505,8 +639,9 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
             long atomStart;
             long atomEnd;
 
-            int atomSize;
+            long atomSize;
             String atomType;
+            int headerSize;
 
             byte[] header = new byte[8];
             ArrayList<MP4Atom> atoms = new ArrayList<>();
@@ -514,38 +649,41 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
             while (file.getFilePointer() < fileLength) {
 
                 file.readFully(header);
-                atomSize = IntegerUtils.toUInt32BE(Arrays.copyOfRange(header, 0, 4));
-                atomType = new String(Arrays.copyOfRange(header, 4, 8), ISO_8859_1);
+                atomStart = file.getFilePointer() - 8;
+                atomSize  = readAtomSize(file, header, fileLength);
+                atomType  = new String(Arrays.copyOfRange(header, 4, 8), ISO_8859_1);
 
                 if (atomSize < 8 || !TOP_LEVEL_ATOMS.contains(atomType)) {
                     System.err.printf("MP4Parser: junk at: %d\n", file.getFilePointer());
                     break;
                 }
 
-                atomStart = file.getFilePointer() - 8;
-                atomEnd   = atomStart + atomSize;
+                atomEnd    = atomStart + atomSize;
+                headerSize = (int) (file.getFilePointer() - atomStart);
 
                 MP4Atom atom = new MP4Atom(atomType, atomSize);
-                atom.setStart((int) atomStart);
-                atom.setEnd((int) atomEnd);
+                atom.setStart(atomStart);
+                atom.setEnd(atomEnd);
 
                 switch (atomType) {
 
                     case "moof":
                         isFragmented = true;
-                        parseAtom(file, atom);
+                        parseAtom(readAtom(file, atomStart, atomSize), atomStart, atom, headerSize);
                         atoms.add(atom);
+                        file.seek(atomEnd);
                         break;
 
                     case "moov":
-                        moovStart = (int) atomStart;
+                        moovStart = atomStart;
                         hasMoovAtom = true;
-                        parseAtom(file, atom);
+                        parseAtom(readAtom(file, atomStart, atomSize), atomStart, atom, headerSize);
                         atoms.add(atom);
+                        file.seek(atomEnd);
                         break;
 
                     case "mdat":
-                        mdatStart = (int) atomStart;
+                        mdatStart = atomStart;
 
                     default:
                         atoms.add(atom);
@@ -563,7 +701,7 @@ public class MP4Parser implements TagParser<MP4>, StreamInfoParser<MP4> {
     }
 
     @Override
-    public MP4 parseStreamInfo(RandomAccessFile file) {
+    public MP4 parseStreamInfo(SeekableSource file) {
         return mp4;
     }
 }
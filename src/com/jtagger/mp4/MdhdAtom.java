@@ -1,5 +1,7 @@
 package com.jtagger.mp4;
 
+import java.nio.ByteBuffer;
+
 public class MdhdAtom extends MP4Atom {
 
     private final long dateCreated;
@@ -21,6 +23,18 @@ public class MdhdAtom extends MP4Atom {
         this.version      = version;
     }
 
+    MdhdAtom(String type, ByteBuffer region,
+             long dateCreated, long dateModified,
+             long duration, long timescale, byte version)
+    {
+        super(type, region);
+        this.dateCreated  = dateCreated;
+        this.dateModified = dateModified;
+        this.duration     = duration;
+        this.timescale    = timescale;
+        this.version      = version;
+    }
+
     public MdhdAtom(String type, long dateCreated, long dateModified,
                     long duration, long timescale, byte version)
     {
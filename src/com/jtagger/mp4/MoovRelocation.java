@@ -0,0 +1,16 @@
+package com.jtagger.mp4;
+
+public interface MoovRelocation {
+
+    long MIN_RELOCATION_SHIFT = 1024 * 1024;
+
+    MoovRelocation NEVER  = (moovLength, shiftLength) -> false;
+    MoovRelocation ALWAYS = (moovLength, shiftLength) -> true;
+
+    // relocating writes the moov twice, shifting reads and writes everything after the tag
+    MoovRelocation AUTO = (moovLength, shiftLength) ->
+            shiftLength >= MIN_RELOCATION_SHIFT && shiftLength > moovLength * 4;
+
+    // true to free the old moov and append a rewritten one at the end of file instead of shifting shiftLength bytes
+    boolean isRelocated(long moovLength, long shiftLength);
+}
@@ -2,6 +2,8 @@ package com.jtagger.mp4;
 
 import com.jtagger.utils.IntegerUtils;
 
+import java.nio.ByteBuffer;
+
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 public class NumberAtom extends ItunesAtom<Number> {
@@ -9,8 +11,8 @@ public class NumberAtom extends ItunesAtom<Number> {
     private Number number;
     private int length = Integer.BYTES;
 
-    NumberAtom(String type, byte[] atomData) {
-        super(type, atomData);
+    NumberAtom(String type, ByteBuffer region) {
+        super(type, region);
     }
 
     public NumberAtom(String type) {
@@ -36,14 +38,14 @@ public class NumberAtom extends ItunesAtom<Number> {
         byte[] dataAtom   = new byte[8 + 8 + numberBytes.length];
         byte[] itunesAtom = new byte[dataAtom.length + 8];
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(dataAtom.length), 0, dataAtom, 0, 4); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, 0, dataAtom.length); index += 4;
         System.arraycopy("data".getBytes(ISO_8859_1), 0, dataAtom, index, 4); index += 4;
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(TYPE_INTEGER), 0, dataAtom, index, 4); index += 4;
-        System.arraycopy(IntegerUtils.fromUInt32BE(0x000000), 0, dataAtom, index, 4); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, index, TYPE_INTEGER); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, index, 0x000000); index += 4;
         System.arraycopy(numberBytes, 0, dataAtom, index, numberBytes.length);
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(itunesAtom.length), 0, itunesAtom, 0, 4);
+        IntegerUtils.putUInt32BE(itunesAtom, 0, itunesAtom.length);
         System.arraycopy(getType().getBytes(ISO_8859_1), 0, itunesAtom, 4, 4);
         System.arraycopy(dataAtom, 0, itunesAtom, 8, dataAtom.length);
 
@@ -2,6 +2,10 @@ package com.jtagger.mp4;
 
 import com.jtagger.AttachedPicture;
 import com.jtagger.utils.IntegerUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 public class PictureAtom extends ItunesAtom<AttachedPicture> {
@@ -9,8 +13,13 @@ public class PictureAtom extends ItunesAtom<AttachedPicture> {
     private AttachedPicture picture;
     private int atomType;
 
-    PictureAtom(String type, byte[] data, int atomType) {
-        super(type, data);
+    PictureAtom(String type, ByteBuffer region, int atomType) {
+        super(type, region);
+        this.atomType = atomType;
+    }
+
+    PictureAtom(String type, long size, int atomType) {
+        super(type, size);
         this.atomType = atomType;
     }
 
@@ -23,22 +32,26 @@ public class PictureAtom extends ItunesAtom<AttachedPicture> {
     public byte[] assemble(byte version) {
 
         int index = 0;
-        byte[] pictureBytes = picture.getPictureData();
+        int pictureLength = picture.getPictureLength();
 
-        byte[] dataAtom   = new byte[8 + 8 + pictureBytes.length];
+        byte[] dataAtom   = new byte[8 + 8 + pictureLength];
         byte[] itunesAtom = new byte[dataAtom.length + 8];
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(dataAtom.length), 0, dataAtom, 0, 4); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, 0, dataAtom.length); index += 4;
         System.arraycopy("data".getBytes(ISO_8859_1), 0, dataAtom, index, 4); index += 4;
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(getAtomType()), 0, dataAtom, index, 4); index += 4;
-        System.arraycopy(IntegerUtils.fromUInt32BE(0x000000), 0, dataAtom, index, 4); index += 4;
-        System.arraycopy(pictureBytes, 0, dataAtom, index, pictureBytes.length);
+        IntegerUtils.putUInt32BE(dataAtom, index, getAtomType()); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, index, 0x000000); index += 4;
+        picture.readPictureData(dataAtom, index);
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(itunesAtom.length), 0, itunesAtom, 0, 4);
+        IntegerUtils.putUInt32BE(itunesAtom, 0, itunesAtom.length);
         System.arraycopy(getType().getBytes(ISO_8859_1), 0, itunesAtom, 4, 4);
         System.arraycopy(dataAtom, 0, itunesAtom, 8, dataAtom.length);
 
+        if (picture.isFileBacked()) { // the file region is rewritten on save
+            picture.setPictureData(ByteBuffer.wrap(itunesAtom, 8 + index, pictureLength));
+        }
+
         this.data = itunesAtom;
         return itunesAtom;
     }
@@ -55,10 +68,18 @@ public class PictureAtom extends ItunesAtom<AttachedPicture> {
 
     @Override
     public void setAtomData(byte[] pictureData) {
-
         AttachedPicture picture = new AttachedPicture();
         picture.setPictureData(pictureData);
+        setPicture(picture);
+    }
+
+    void setAtomData(Path path, long offset, int length) {
+        AttachedPicture picture = new AttachedPicture();
+        picture.setPictureData(path, offset, length);
+        setPicture(picture);
+    }
 
+    private void setPicture(AttachedPicture picture) {
         if (ItunesAtom.TYPE_PNG  == atomType) picture.setMimeType("image/png");
         if (ItunesAtom.TYPE_BMP  == atomType) picture.setMimeType("image/bmp");
         if (ItunesAtom.TYPE_JPEG == atomType) picture.setMimeType("image/jpeg");
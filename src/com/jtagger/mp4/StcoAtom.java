@@ -1,6 +1,6 @@
 package com.jtagger.mp4;
 
-import com.jtagger.utils.IntegerUtils;
+import java.nio.ByteBuffer;
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
@@ -12,25 +12,25 @@ public class StcoAtom extends MP4Atom {
         super(type, data);
     }
 
+    StcoAtom(String type, ByteBuffer region) {
+        super(type, region);
+    }
+
     @Override
     public byte[] assemble(byte version) {
 
-        byte[] stco = new byte[8 + 1 + 3 + 4 + offsets.length * 4];
-        stco[8] = 0x0;
-
-        System.arraycopy(IntegerUtils.fromUInt32BE(stco.length), 0, stco, 0, 4);
-        System.arraycopy("stco".getBytes(ISO_8859_1), 0, stco, 4, 4);
-        System.arraycopy(IntegerUtils.fromUInt24BE(0x0), 0, stco, 9, 3);
-        System.arraycopy(IntegerUtils.fromUInt32BE(offsets.length), 0, stco, 12, 4);
+        ByteBuffer stco = ByteBuffer.allocate(16 + offsets.length * 4);
+        stco.putInt(stco.capacity());
+        stco.put("stco".getBytes(ISO_8859_1));
+        stco.putInt(0); // version and flags
+        stco.putInt(offsets.length);
 
-        int j = 16;
         for (int offset : offsets) {
-            System.arraycopy(IntegerUtils.fromUInt32BE(offset), 0, stco, j, 4);
-            j += 4;
+            stco.putInt(offset);
         }
 
-        this.data = stco;
-        return stco;
+        this.data = stco.array();
+        return data;
     }
 
     public int[] getOffsets() {
@@ -1,5 +1,7 @@
 package com.jtagger.mp4;
 
+import java.nio.ByteBuffer;
+
 public class StsdAtom extends MP4Atom {
 
     private String codec;
@@ -18,6 +20,10 @@ public class StsdAtom extends MP4Atom {
         super(type, data);
     }
 
+    StsdAtom(String type, ByteBuffer region) {
+        super(type, region);
+    }
+
     public String getCodec() {
         return codec;
     }
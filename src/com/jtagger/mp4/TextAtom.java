@@ -2,6 +2,7 @@ package com.jtagger.mp4;
 
 import com.jtagger.utils.IntegerUtils;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -12,8 +13,8 @@ public class TextAtom extends ItunesAtom<String> {
     private String text;
     private final int atomType;
 
-    TextAtom(String type, byte[] data, int atomType) {
-        super(type, data);
+    TextAtom(String type, ByteBuffer region, int atomType) {
+        super(type, region);
         this.atomType = atomType;
     }
 
@@ -31,14 +32,14 @@ public class TextAtom extends ItunesAtom<String> {
         byte[] dataAtom   = new byte[8 + 8 + textBytes.length];
         byte[] itunesAtom = new byte[dataAtom.length + 8];
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(dataAtom.length), 0, dataAtom, 0, 4); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, 0, dataAtom.length); index += 4;
         System.arraycopy("data".getBytes(ISO_8859_1), 0, dataAtom, index, 4); index += 4;
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(getAtomType()), 0, dataAtom, index, 4); index += 4;
-        System.arraycopy(IntegerUtils.fromUInt32BE(0x000000), 0, dataAtom, index, 4); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, index, getAtomType()); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, index, 0x000000); index += 4;
         System.arraycopy(textBytes, 0, dataAtom, index, textBytes.length);
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(itunesAtom.length), 0, itunesAtom, 0, 4);
+        IntegerUtils.putUInt32BE(itunesAtom, 0, itunesAtom.length);
         System.arraycopy(getType().getBytes(ISO_8859_1), 0, itunesAtom, 4, 4);
         System.arraycopy(dataAtom, 0, itunesAtom, 8, dataAtom.length);
 
@@ -1,7 +1,7 @@
 package com.jtagger.mp4;
 
 import com.jtagger.utils.IntegerUtils;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
@@ -10,8 +10,8 @@ public class TrackNumberAtom extends ItunesAtom<TrackNumber> {
     private TrackNumber trackNumber;
     private final int atomType;
 
-    TrackNumberAtom(String type, byte[] atomBytes, int atomType) {
-        super(type, atomBytes);
+    TrackNumberAtom(String type, ByteBuffer region, int atomType) {
+        super(type, region);
         this.atomType = atomType;
     }
 
@@ -29,16 +29,16 @@ public class TrackNumberAtom extends ItunesAtom<TrackNumber> {
         byte[] dataAtom   = new byte[8 + 8 + intBytes.length];
         byte[] itunesAtom = new byte[dataAtom.length + 8];
 
-        System.arraycopy(IntegerUtils.fromUInt16BE(trackNumber.trackPos), 0, intBytes, 2, 2);
-        System.arraycopy(IntegerUtils.fromUInt16BE(trackNumber.totalTracks), 0, intBytes, 4, 2);
-        System.arraycopy(IntegerUtils.fromUInt32BE(dataAtom.length), 0, dataAtom, 0, 4); index += 4;
+        IntegerUtils.putUInt16BE(intBytes, 2, trackNumber.trackPos);
+        IntegerUtils.putUInt16BE(intBytes, 4, trackNumber.totalTracks);
+        IntegerUtils.putUInt32BE(dataAtom, 0, dataAtom.length); index += 4;
         System.arraycopy("data".getBytes(ISO_8859_1), 0, dataAtom, index, 4); index += 4;
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(getAtomType()), 0, dataAtom, index, 4); index += 4;
-        System.arraycopy(IntegerUtils.fromUInt32BE(0x000000), 0, dataAtom, index, 4); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, index, getAtomType()); index += 4;
+        IntegerUtils.putUInt32BE(dataAtom, index, 0x000000); index += 4;
         System.arraycopy(intBytes, 0, dataAtom, index, intBytes.length);
 
-        System.arraycopy(IntegerUtils.fromUInt32BE(itunesAtom.length), 0, itunesAtom, 0, 4);
+        IntegerUtils.putUInt32BE(itunesAtom, 0, itunesAtom.length);
         System.arraycopy(getType().getBytes(ISO_8859_1), 0, itunesAtom, 4, 4);
         System.arraycopy(dataAtom, 0, itunesAtom, 8, dataAtom.length);
 
@@ -59,8 +59,8 @@ public class TrackNumberAtom extends ItunesAtom<TrackNumber> {
     @Override
     public void setAtomData(byte[] data) {
         if (data.length >= 6) {
-            int posNum       = IntegerUtils.toUInt16BE(Arrays.copyOfRange(data, 2, 4));
-            int trackNum     = IntegerUtils.toUInt16BE(Arrays.copyOfRange(data, 4, 6));
+            int posNum       = IntegerUtils.toUInt16BE(data, 2);
+            int trackNum     = IntegerUtils.toUInt16BE(data, 4);
             this.trackNumber = new TrackNumber(posNum, trackNum);
         }
     }
@@ -1,5 +1,7 @@
 package com.jtagger.mp4;
 
+import java.nio.ByteBuffer;
+
 public class UnknownAtom extends ItunesAtom<byte[]> {
 
     private int atomType;
@@ -9,6 +11,11 @@ public class UnknownAtom extends ItunesAtom<byte[]> {
         this.atomType = atomType;
     }
 
+    UnknownAtom(String type, ByteBuffer region, int atomType) {
+        super(type, region);
+        this.atomType = atomType;
+    }
+
     public UnknownAtom(String type) {
         super(type);
     }
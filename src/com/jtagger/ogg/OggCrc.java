@@ -0,0 +1,105 @@
+package com.jtagger.ogg;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Checksum;
+
+// CRC-32 of Ogg pages: polynomial 0x04c11db7, no reflection, zero initial value and no final xor
+public class OggCrc implements Checksum {
+
+    private static final int POLYNOMIAL = 0x04c11db7;
+    private static final int[][] TABLES = new int[8][256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 24;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ POLYNOMIAL : crc << 1;
+            }
+            TABLES[0][i] = crc;
+        }
+        // TABLES[k][i] is the crc of byte i followed by k zero bytes
+        for (int k = 1; k < TABLES.length; k++) {
+            for (int i = 0; i < 256; i++) {
+                int crc = TABLES[k - 1][i];
+                TABLES[k][i] = (crc << 8) ^ TABLES[0][crc >>> 24];
+            }
+        }
+    }
+
+    private int crc = 0;
+
+    public static int compute(byte[] bytes, int offset, int length) {
+        return update(0, bytes, offset, length);
+    }
+
+    // slicing-by-8: folds eight bytes per step using one lookup per byte
+    private static int update(int crc, byte[] bytes, int offset, int length) {
+
+        final int[] t0 = TABLES[0], t1 = TABLES[1], t2 = TABLES[2], t3 = TABLES[3];
+        final int[] t4 = TABLES[4], t5 = TABLES[5], t6 = TABLES[6], t7 = TABLES[7];
+
+        int index = offset;
+        int end   = offset + length;
+
+        for (; end - index >= 8; index += 8) {
+
+            int high = crc ^ ((bytes[index] & 0xFF) << 24 |
+                              (bytes[index + 1] & 0xFF) << 16 |
+                              (bytes[index + 2] & 0xFF) << 8  |
+                              (bytes[index + 3] & 0xFF));
+
+            crc = t7[high >>> 24] ^
+                  t6[(high >>> 16) & 0xFF] ^
+                  t5[(high >>> 8) & 0xFF] ^
+                  t4[high & 0xFF] ^
+                  t3[bytes[index + 4] & 0xFF] ^
+                  t2[bytes[index + 5] & 0xFF] ^
+                  t1[bytes[index + 6] & 0xFF] ^
+                  t0[bytes[index + 7] & 0xFF];
+        }
+        for (; index < end; index++) {
+            crc = (crc << 8) ^ t0[(crc >>> 24) ^ (bytes[index] & 0xFF)];
+        }
+        return crc;
+    }
+
+    @Override
+    public void update(int b) {
+        crc = (crc << 8) ^ TABLES[0][(crc >>> 24) ^ (b & 0xFF)];
+    }
+
+    @Override
+    public void update(byte[] bytes, int offset, int length) {
+        crc = update(crc, bytes, offset, length);
+    }
+
+    public void update(byte[] bytes) {
+        update(bytes, 0, bytes.length);
+    }
+
+    public void update(ByteBuffer buffer) {
+
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return;
+        }
+
+        byte[] chunk = new byte[Math.min(buffer.remaining(), 4096)];
+        while (buffer.hasRemaining()) {
+            int length = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, length);
+            update(chunk, 0, length);
+        }
+    }
+
+    @Override
+    public long getValue() {
+        return Integer.toUnsignedLong(crc);
+    }
+
+    @Override
+    public void reset() {
+        crc = 0;
+    }
+}
@@ -130,10 +130,10 @@ public class OggPageHeader implements Component {
 
         bytes[offset++] = flags;
 
-        System.arraycopy(IntegerUtils.fromUInt64LE(granulePosition), 0, bytes, offset, Long.BYTES); offset += Long.BYTES;
-        System.arraycopy(IntegerUtils.fromUInt32LE(serial), 0, bytes, offset, Integer.BYTES);       offset += Integer.BYTES;
-        System.arraycopy(IntegerUtils.fromUInt32LE(pageSequence), 0, bytes, offset, Integer.BYTES); offset += Integer.BYTES;
-        System.arraycopy(IntegerUtils.fromUInt32LE(checksum), 0, bytes, offset, Integer.BYTES);     offset += Integer.BYTES;
+        IntegerUtils.putUInt64LE(bytes, offset, granulePosition); offset += Long.BYTES;
+        IntegerUtils.putUInt32LE(bytes, offset, serial);       offset += Integer.BYTES;
+        IntegerUtils.putUInt32LE(bytes, offset, pageSequence); offset += Integer.BYTES;
+        IntegerUtils.putUInt32LE(bytes, offset, checksum);     offset += Integer.BYTES;
 
         bytes[offset++] = (byte) pageSegments;
         System.arraycopy(segmentTable, 0, bytes, offset, pageSegments);
@@ -1,38 +1,49 @@
 package com.jtagger.ogg;
 
+import com.jtagger.ScanPart;
 import com.jtagger.StreamInfo;
 import com.jtagger.TagParser;
 import com.jtagger.ogg.vorbis.VorbisComments;
 import com.jtagger.utils.IntegerUtils;
+import com.jtagger.utils.SeekableSource;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 
 import static com.jtagger.ogg.OggPage.SEGMENT_MAX_SIZE;
 
 abstract public class OggParser implements TagParser<VorbisComments> {
 
+    private static final int TAIL_SCAN_SIZE  = 64 * 1024;
+    private static final int PAGE_MAX_LENGTH = OggPageHeader.OGG_HEADER_SIZE + SEGMENT_MAX_SIZE + OggPage.PAGE_MAX_SIZE;
+
     protected ArrayList<OggPage> pages;
     protected ArrayList<OggPacket> packets;
 
-    private int streamLength = 0;
-    private int streamOffset = 0;
-    private int headerPages  = 0;
-    private int granulePos   = 0;
+    private long streamLength = 0;
+    private long streamOffset = 0;
+    private int headerPages   = 0;
+    private long granulePos   = 0;
 
     private boolean isLastPage = false;
 
-    public int getStreamLength() {
+    protected EnumSet<ScanPart> scanParts = ScanPart.all();
+
+    public void setScanParts(EnumSet<ScanPart> scanParts) {
+        this.scanParts = scanParts;
+    }
+
+    public long getStreamLength() {
         return streamLength;
     }
 
-    public int getTotalSamples() {
+    public long getTotalSamples() {
         return granulePos;
     }
 
-    public int getStreamOffset() {
+    public long getStreamOffset() {
         return streamOffset;
     }
 
@@ -40,25 +51,30 @@ abstract public class OggParser implements TagParser<VorbisComments> {
         return headerPages;
     }
 
+    // a save rewrites the header pages, the audio that follows them keeps its length
+    void setHeaderLayout(long streamOffset, int headerPages) {
+        this.streamOffset = streamOffset;
+        this.headerPages  = headerPages;
+    }
+
     int getSerialNumber() {
         return pages.get(0).getHeader().getSerialNumber();
     }
 
     protected int getDuration(StreamInfo streamInfo) {
-        return getTotalSamples() / streamInfo.getSampleRate();
+        return (int) (getTotalSamples() / streamInfo.getSampleRate());
     }
 
-    public OggPage parsePage(RandomAccessFile file, boolean meta) throws IOException {
+    public OggPage parsePage(SeekableSource file, boolean meta) throws IOException {
 
         int offset = 0;
-        byte[] headerMagic;
         byte[] pageHeader  = new byte[OggPageHeader.OGG_HEADER_SIZE];
         file.readFully(pageHeader);
 
-        headerMagic = Arrays.copyOfRange(pageHeader, offset, offset + 4); offset += 4;
-        if (!Arrays.equals(headerMagic, OggPageHeader.OGG_HEADER_MAGIC)) {
-            throw new IllegalStateException(new String(headerMagic));
+        if (!Arrays.equals(pageHeader, offset, offset + 4, OggPageHeader.OGG_HEADER_MAGIC, 0, 4)) {
+            throw new IllegalStateException(new String(pageHeader, offset, 4));
         }
+        offset += 4;
 
         byte flags = pageHeader[++offset];
         boolean isFreshPage = (flags & 0x01) == 0;
@@ -66,14 +82,14 @@ abstract public class OggParser implements TagParser<VorbisComments> {
         boolean isLastPage  = (flags & 0x04) != 0;
         offset++;
 
-        long granulePosition = IntegerUtils.toUInt64LE(Arrays.copyOfRange(pageHeader, offset, offset + 8)); offset += 8;
-        int serialNumber     = IntegerUtils.toUInt32LE(Arrays.copyOfRange(pageHeader, offset, offset + 4)); offset += 4;
-        int pageSequence     = IntegerUtils.toUInt32LE(Arrays.copyOfRange(pageHeader, offset, offset + 4)); offset += 4;
-        int checksum         = IntegerUtils.toUInt32LE(Arrays.copyOfRange(pageHeader, offset, offset + 4)); offset += 4;
+        long granulePosition = IntegerUtils.toUInt64LE(pageHeader, offset); offset += 8;
+        int serialNumber     = IntegerUtils.toUInt32LE(pageHeader, offset); offset += 4;
+        int pageSequence     = IntegerUtils.toUInt32LE(pageHeader, offset); offset += 4;
+        int checksum         = IntegerUtils.toUInt32LE(pageHeader, offset); offset += 4;
         int pageSegments     = Byte.toUnsignedInt(pageHeader[offset++]);
         int pageDataSize     = 0;
 
-        this.granulePos = (int) granulePosition;
+        this.granulePos = granulePosition;
         this.isLastPage = isLastPage;
 
         byte[] segmentTable = new byte[pageSegments]; // TODO: check pageSegments before allocating memory
@@ -83,8 +99,9 @@ abstract public class OggParser implements TagParser<VorbisComments> {
             pageDataSize += Byte.toUnsignedInt(b);
         }
 
-        if (meta && granulePos <= 0 ||
-            !meta && granulePos > 0)
+        // header pages are the ones with a zero granule position
+        if (meta && granulePos == 0 ||
+            !meta && granulePos != 0)
         {
             byte[] pageData = new byte[pageDataSize]; // TODO: check pageDataSize before allocating memory
             file.read(pageData);
@@ -105,7 +122,7 @@ abstract public class OggParser implements TagParser<VorbisComments> {
         return null;
     }
 
-    public ArrayList<OggPage> parsePages(RandomAccessFile file) {
+    public ArrayList<OggPage> parsePages(SeekableSource file) {
         try {
 
             if (pages != null) return pages;
@@ -123,15 +140,20 @@ abstract public class OggParser implements TagParser<VorbisComments> {
                 page = parsePage(file, true);
 
                 if (page == null) {
-                    streamOffset = streamOffset == 0 ? (int) position : streamOffset;
-                    streamLength = streamLength == 0 ? (int) (file.length() - streamOffset) : streamLength;
-                } else {
-                    pages.add(page);
+                    streamOffset = position;
+                    streamLength = fLength - streamOffset;
+                    break; // the first audio page ends the headers
                 }
+                pages.add(page);
             }
 
             headerPages = pages.size();
             this.pages = pages;
+
+            if (streamOffset > 0 && !pages.isEmpty() && scanParts.contains(ScanPart.STREAM_INFO)) {
+                long lastGranulePos = findLastGranulePosition(file, getSerialNumber());
+                if (lastGranulePos > 0) granulePos = lastGranulePos;
+            }
             return pages;
 
         } catch (IOException e) {
@@ -140,6 +162,55 @@ abstract public class OggParser implements TagParser<VorbisComments> {
         }
     }
 
+    // "OggS" may appear inside packet data, so only a complete page with a matching checksum counts
+    private static boolean isPageIntact(byte[] buffer, int offset, int limit) {
+
+        int pageLength = OggPage.getPageLength(buffer, offset, limit);
+        if (pageLength == -1) return false;
+
+        final int checksumOffset = offset + OggPage.CHECKSUM_OFFSET;
+        int checksum = IntegerUtils.toUInt32LE(buffer, checksumOffset);
+
+        // the checksum field counts as zero
+        OggCrc crc = new OggCrc();
+        crc.update(buffer, offset, OggPage.CHECKSUM_OFFSET);
+        crc.update(new byte[4]);
+        crc.update(buffer, checksumOffset + 4, pageLength - OggPage.CHECKSUM_OFFSET - 4);
+
+        return (int) crc.getValue() == checksum;
+    }
+
+    // scans backwards from the end of file for the last page of the stream, like libogg does when seeking
+    private long findLastGranulePosition(SeekableSource file, int serialNumber) throws IOException {
+
+        long fLength  = file.length();
+        long chunkEnd = fLength;
+        byte[] buffer = new byte[(int) Math.min(TAIL_SCAN_SIZE + PAGE_MAX_LENGTH, fLength - streamOffset)];
+
+        while (chunkEnd > streamOffset) {
+
+            // pages starting in this chunk may end in the next one
+            long chunkStart = Math.max(streamOffset, chunkEnd - TAIL_SCAN_SIZE);
+            int length      = (int) (Math.min(fLength, chunkEnd + PAGE_MAX_LENGTH) - chunkStart);
+
+            file.seek(chunkStart);
+            file.readFully(buffer, 0, length);
+
+            for (int i = (int) (chunkEnd - chunkStart) - 1; i >= 0; i--) {
+
+                if (!isPageIntact(buffer, i, length)) continue;
+
+                long granulePosition = IntegerUtils.toUInt64LE(buffer, i + 6);
+                int serial           = IntegerUtils.toUInt32LE(buffer, i + 14);
+
+                // -1 marks a page on which no packet ends
+                if (serial == serialNumber && granulePosition != -1) return granulePosition;
+            }
+            chunkEnd = chunkStart;
+        }
+        return -1;
+    }
+
     public ArrayList<OggPacket> parsePackets(ArrayList<OggPage> pages) {
 
         if (packets != null) return packets;
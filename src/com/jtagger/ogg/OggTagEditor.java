@@ -14,6 +14,8 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 
 import static com.jtagger.MediaFile.FileContentTypeDetector.*;
+import static com.jtagger.utils.IntegerUtils.putUInt32LE;
+import static com.jtagger.utils.IntegerUtils.toUInt32LE;
 
 abstract public class OggTagEditor extends AbstractTagEditor<VorbisComments> {
 
@@ -46,8 +48,9 @@ abstract public class OggTagEditor extends AbstractTagEditor<VorbisComments> {
     @Override
     protected void parseTag() throws IOException {
         this.parser  = getOggParser(mimeType);
-        this.tag     = parser.parseTag(file);
-        this.pages   = parser.parsePages(file);
+        this.parser.setScanParts(scanParts);
+        this.tag     = parser.parseTag(source);
+        this.pages   = parser.parsePages(source);
         this.packets = parser.parsePackets(pages);
     }
 
@@ -56,13 +59,17 @@ abstract public class OggTagEditor extends AbstractTagEditor<VorbisComments> {
 
         super.commit();
         setHeaderPackets();
+
+        // keeping the original number of header pages leaves the audio pages untouched
+        final int serial = parser.getSerialNumber();
+        ArrayList<OggPage> headerPages = OggPage.fromPackets(packets, serial, 1, parser.headerPages() - 1);
+        if (headerPages == null) {
+            headerPages = OggPage.fromPackets(packets, serial, 1);
+        }
+
         ArrayList<OggPage> newPages = new ArrayList<>();
         newPages.add(pages.get(0));
-        newPages.addAll(OggPage.fromPackets(
-                packets,
-                parser.getSerialNumber(),
-                1
-        ));
+        newPages.addAll(headerPages);
 
         int size = 0;
         for (OggPage page : newPages) {
@@ -70,40 +77,76 @@ abstract public class OggTagEditor extends AbstractTagEditor<VorbisComments> {
             size += buffer.length;
         }
 
+        long diff = size - parser.getStreamOffset();
+        if (diff != 0) {
+
+            long from = parser.getStreamOffset();
+            long to   = from + diff;
+
+            moveTail(from, to);
+        }
         if (newPages.size() != parser.headerPages()) {
 
-            int diff = newPages.size() - parser.headerPages();
-            file.seek(parser.getStreamOffset());
+            int pageDiff = newPages.size() - parser.headerPages();
+            renumberPages(parser.getStreamOffset() + diff, serial, pageDiff);
+        }
+        if (diff == 0) { // the header pages keep their layout, only the bytes that changed are written
+            long position = 0;
+            for (OggPage page : newPages) {
+                byte[] buffer = page.getBytes();
+                writeChanged(buffer, 0, buffer.length, position);
+                position += buffer.length;
+            }
+        } else {
+            file.seek(0);
+            for (OggPage page : newPages) {
+                file.write(page.getBytes());
+            }
+        }
 
-            long position;
-            long fLength = file.length();
+        // a later save works from the layout just written
+        parser.setHeaderLayout(size, newPages.size());
+        pages = newPages;
+    }
+
+    // shifts the sequence numbers of the audio pages in a single buffered pass
+    private void renumberPages(long offset, int serial, int pageDiff) throws IOException {
+
+        final int sequenceOffset = 18;
+        final long fLength = file.length();
+
+        byte[] buffer = new byte[BytesIO.MOVE_BUFFER_SIZE];
+        boolean isLastPage = false;
+
+        while (offset < fLength && !isLastPage) {
 
-            while (file.getFilePointer() < fLength) {
+            int length = (int) Math.min(buffer.length, fLength - offset);
+            int index  = 0;
+            int pageLength;
 
-                position = file.getFilePointer();
-                OggPage page = parser.parsePage(file, false);
+            file.seek(offset);
+            file.readFully(buffer, 0, length);
 
-                OggPageHeader header = page.getHeader();
-                header.setSequenceNumber(header.getPageSequenceNumber() + diff);
+            while (!isLastPage && (pageLength = OggPage.getPageLength(buffer, index, length)) != -1) {
 
-                file.seek(position);
-                file.write(page.assemble());
+                int pageSerial = toUInt32LE(buffer, index + 14);
+                if (pageSerial == serial) {
 
-                if (header.isLastPage())
-                    break;
+                    int sequence = toUInt32LE(buffer, index + sequenceOffset);
+                    putUInt32LE(buffer, index + sequenceOffset, sequence + pageDiff);
+                    OggPage.updatePageChecksum(buffer, index, pageLength);
+
+                    isLastPage = (buffer[index + 5] & 0x04) != 0;
+                }
+                index += pageLength;
             }
-        }
-        int diff = size - parser.getStreamOffset();
-        if (diff != 0) {
 
-            int from = parser.getStreamOffset();
-            int to   = from + diff;
+            // a page always fits in the buffer, so nothing parsed means junk or a truncated page
+            if (index == 0) break;
 
-            BytesIO.moveBlock(file, from, to, diff, (int) file.length() - from);
-        }
-        file.seek(0);
-        for (OggPage page : newPages) {
-            file.write(page.getBytes());
+            file.seek(offset);
+            file.write(buffer, 0, index);
+            offset += index;
         }
     }
 
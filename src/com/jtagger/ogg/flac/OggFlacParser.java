@@ -4,9 +4,9 @@ import com.jtagger.StreamInfoParser;
 import com.jtagger.flac.*;
 import com.jtagger.ogg.OggParser;
 import com.jtagger.ogg.vorbis.VorbisComments;
+import com.jtagger.utils.SeekableSource;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.Arrays;
 
 import static com.jtagger.flac.AbstractMetadataBlock.BLOCK_TYPE_STREAMINFO;
@@ -25,7 +25,7 @@ public class OggFlacParser extends OggParser implements StreamInfoParser<StreamI
     private int headerPackets;
 
     @Override
-    public VorbisComments parseTag(RandomAccessFile file) throws IOException {
+    public VorbisComments parseTag(SeekableSource file) throws IOException {
 
         if (vorbis != null) return vorbis;
         parseStreamInfo(file);
@@ -37,7 +37,7 @@ public class OggFlacParser extends OggParser implements StreamInfoParser<StreamI
 
             byte blockHeader = packet[index++];
             int blockType    = blockHeader & 0x7F;
-            int blockLength  = toUInt24BE(Arrays.copyOfRange(packet, index, index + 3)); index += 3;
+            int blockLength  = toUInt24BE(packet, index); index += 3;
 
             if (!FlacParser.isValidBlockType(blockType)) {
                 throw new IllegalStateException("Invalid packet type");
@@ -45,6 +45,7 @@ public class OggFlacParser extends OggParser implements StreamInfoParser<StreamI
 
             if (blockType == BLOCK_TYPE_VORBIS_COMMENT) {
                 VorbisCommentBlockParser parser = new VorbisCommentBlockParser();
+                parser.setScanParts(scanParts);
                 vorbis = parser.parse(Arrays.copyOfRange(packet, index, index + blockLength))
                         .getVorbisComments();
                 break;
@@ -54,7 +55,7 @@ public class OggFlacParser extends OggParser implements StreamInfoParser<StreamI
     }
 
     @Override
-    public StreamInfoBlock parseStreamInfo(RandomAccessFile file) {
+    public StreamInfoBlock parseStreamInfo(SeekableSource file) {
 
         if (streamInfoBlock != null) return streamInfoBlock;
         parsePackets(parsePages(file));
@@ -77,7 +78,7 @@ public class OggFlacParser extends OggParser implements StreamInfoParser<StreamI
         if (majorVersion != 0x01) throw new IllegalStateException("Unsupported version");
         if (minorVersion != 0x00) throw new IllegalStateException("Unsupported version");
 
-        headerPackets = toUInt16BE(Arrays.copyOfRange(mappingPacket, index, index + 2)); index += 2;
+        headerPackets = toUInt16BE(mappingPacket, index); index += 2;
         signature     = new String(Arrays.copyOfRange(mappingPacket, index, index + 4)); index += 4;
 
         if (!signature.equals("fLaC")) {
@@ -85,7 +86,7 @@ public class OggFlacParser extends OggParser implements StreamInfoParser<StreamI
         }
 
         int blockType   = mappingPacket[index++] & 0x7F;
-        int blockLength = toUInt24BE(Arrays.copyOfRange(mappingPacket, index, index + 3)); index += 3;
+        int blockLength = toUInt24BE(mappingPacket, index); index += 3;
 
         if (blockType != BLOCK_TYPE_STREAMINFO) {
             throw new IllegalStateException("Expected block type STREAMINFO");
@@ -93,7 +94,7 @@ public class OggFlacParser extends OggParser implements StreamInfoParser<StreamI
 
         StreamInfoBlockParser parser = new StreamInfoBlockParser();
         streamInfoBlock = parser.parse(Arrays.copyOfRange(mappingPacket, index, index + blockLength));
-        streamInfoBlock.setTotalSamples(getTotalSamples());
+        streamInfoBlock.setTotalSamples((int) getTotalSamples());
         streamInfoBlock.setBitrate(getBitrate(streamInfoBlock, getStreamLength()));
         return streamInfoBlock;
     }
@@ -6,7 +6,7 @@ import com.jtagger.ogg.*;
 import static com.jtagger.flac.AbstractMetadataBlock.BLOCK_TYPE_VORBIS_COMMENT;
 import static com.jtagger.ogg.flac.OggFlacParser.FLAC_BLOCK_HEADER_OFFSET;
 import static com.jtagger.ogg.flac.OggFlacParser.HEADER_PACKETS_OFFSET;
-import static com.jtagger.utils.IntegerUtils.fromUInt16BE;
+import static com.jtagger.utils.IntegerUtils.putUInt16BE;
 
 public class OggFlacTagEditor extends OggTagEditor {
 
@@ -32,7 +32,7 @@ public class OggFlacTagEditor extends OggTagEditor {
             packets.set(1, new OggPacket(commentBlock.getBytes()));
         }
         byte[] page = pages.get(0).getBuffer();
-        System.arraycopy(fromUInt16BE(packets.size() - 1), 0, page, HEADER_PACKETS_OFFSET, Short.BYTES);
+        putUInt16BE(page, HEADER_PACKETS_OFFSET, packets.size() - 1);
         page[FLAC_BLOCK_HEADER_OFFSET] &= ~0x80;
     }
 }
@@ -5,8 +5,8 @@ import com.jtagger.StreamInfoParser;
 import com.jtagger.ogg.*;
 import com.jtagger.ogg.vorbis.VorbisComments;
 import com.jtagger.ogg.vorbis.VorbisCommentsParser;
+import com.jtagger.utils.SeekableSource;
 
-import java.io.RandomAccessFile;
 import java.util.Arrays;
 
 import static com.jtagger.utils.IntegerUtils.toUInt16LE;
@@ -34,7 +34,7 @@ public class OggOpusParser extends OggParser implements StreamInfoParser<OpusIde
     }
 
     @Override
-    public OpusIdentificationHeader parseStreamInfo(RandomAccessFile file) {
+    public OpusIdentificationHeader parseStreamInfo(SeekableSource file) {
 
         parsePackets(parsePages(file));
 
@@ -50,9 +50,9 @@ public class OggOpusParser extends OggParser implements StreamInfoParser<OpusIde
         byte version      = header[offset++];
         byte channelCount = header[offset++];
 
-        short preSkip    = toUInt16LE(Arrays.copyOfRange(header, offset, offset + 2)); offset += 2;
-        int sampleRate   = toUInt32LE(Arrays.copyOfRange(header, offset, offset + 4)); offset += 4;
-        short outputGain = toUInt16LE(Arrays.copyOfRange(header, offset, offset + 2)); offset += 2;
+        short preSkip    = toUInt16LE(header, offset); offset += 2;
+        int sampleRate   = toUInt32LE(header, offset); offset += 4;
+        short outputGain = toUInt16LE(header, offset); offset += 2;
 
         byte channelMappingFamily = header[offset++];
 
@@ -87,7 +87,7 @@ public class OggOpusParser extends OggParser implements StreamInfoParser<OpusIde
     }
 
     @Override
-    public VorbisComments parseTag(RandomAccessFile file) {
+    public VorbisComments parseTag(SeekableSource file) {
 
         parsePackets(parsePages(file));
 
@@ -99,6 +99,7 @@ public class OggOpusParser extends OggParser implements StreamInfoParser<OpusIde
         }
 
         VorbisCommentsParser parser = new VorbisCommentsParser();
+        parser.setScanParts(scanParts);
         return parser.parse(Arrays.copyOfRange(header, OPUS_IDENTIFICATION_HEADER_MAGIC.length, header.length), false);
     }
 }
@@ -4,8 +4,8 @@ import com.jtagger.StreamInfoParser;
 import com.jtagger.ogg.OggPacket;
 import com.jtagger.ogg.OggParser;
 import com.jtagger.utils.IntegerUtils;
+import com.jtagger.utils.SeekableSource;
 
-import java.io.RandomAccessFile;
 import java.util.Arrays;
 
 public class OggVorbisParser extends OggParser implements StreamInfoParser<VorbisIdentificationHeader> {
@@ -27,12 +27,12 @@ public class OggVorbisParser extends OggParser implements StreamInfoParser<Vorbi
     }
 
     @Override
-    public VorbisComments parseTag(RandomAccessFile file) {
+    public VorbisComments parseTag(SeekableSource file) {
         return parseVorbisCommentHeader(file).getVorbisComments();
     }
 
     @Override
-    public VorbisIdentificationHeader parseStreamInfo(RandomAccessFile file) {
+    public VorbisIdentificationHeader parseStreamInfo(SeekableSource file) {
 
         VorbisIdentificationHeader header = parseVorbisIdentificationHeader(file);
         header.setDuration(getDuration(header));
@@ -40,7 +40,7 @@ public class OggVorbisParser extends OggParser implements StreamInfoParser<Vorbi
         return header;
     }
 
-    private VorbisCommentHeader parseVorbisCommentHeader(RandomAccessFile file) {
+    private VorbisCommentHeader parseVorbisCommentHeader(SeekableSource file) {
 
         parsePackets(parsePages(file));
 
@@ -59,12 +59,13 @@ public class OggVorbisParser extends OggParser implements StreamInfoParser<Vorbi
 
         VorbisCommentsParser parser       = new VorbisCommentsParser();
         VorbisCommentHeader commentHeader = new VorbisCommentHeader();
+        parser.setScanParts(scanParts);
         commentHeader.setVorbisComments(parser.parse(headerData, true));
 
         return commentHeader;
     }
 
-    private VorbisIdentificationHeader parseVorbisIdentificationHeader(RandomAccessFile file) {
+    private VorbisIdentificationHeader parseVorbisIdentificationHeader(SeekableSource file) {
 
         parsePackets(parsePages(file));
         OggPacket oggPacket = packets.get(0);
@@ -79,7 +80,6 @@ public class OggVorbisParser extends OggParser implements StreamInfoParser<Vorbi
         }
 
         byte[] headerData = Arrays.copyOfRange(packet, 7, packet.length);
-        byte[] bytes;
 
         int version;
         int sampleRate;
@@ -89,14 +89,13 @@ public class OggVorbisParser extends OggParser implements StreamInfoParser<Vorbi
 
         byte channels;
 
-        bytes = Arrays.copyOfRange(headerData, offset, offset + 4); offset += 4;
-        version = IntegerUtils.toUInt32LE(bytes);
+        version  = IntegerUtils.toUInt32LE(headerData, offset); offset += 4;
         channels = headerData[offset++];
 
-        bytes = Arrays.copyOfRange(headerData, offset, offset + 4); sampleRate     = IntegerUtils.toUInt32LE(bytes); offset += 4;
-        bytes = Arrays.copyOfRange(headerData, offset, offset + 4); maxBitrate     = IntegerUtils.toUInt32LE(bytes); offset += 4;
-        bytes = Arrays.copyOfRange(headerData, offset, offset + 4); nominalBitrate = IntegerUtils.toUInt32LE(bytes); offset += 4;
-        bytes = Arrays.copyOfRange(headerData, offset, offset + 4); minBitrate     = IntegerUtils.toUInt32LE(bytes); offset += 4;
+        sampleRate     = IntegerUtils.toUInt32LE(headerData, offset); offset += 4;
+        maxBitrate     = IntegerUtils.toUInt32LE(headerData, offset); offset += 4;
+        nominalBitrate = IntegerUtils.toUInt32LE(headerData, offset); offset += 4;
+        minBitrate     = IntegerUtils.toUInt32LE(headerData, offset); offset += 4;
 
         byte blockSize  = headerData[offset++];
         return new VorbisIdentificationHeader(
@@ -31,6 +31,7 @@ public class VorbisComments extends AbstractTag {
     }
 
     public void setFramingBit(boolean framingBit) {
+        if (this.framingBit != framingBit) markModified();
         this.framingBit = framingBit;
     }
 
@@ -48,6 +49,7 @@ public class VorbisComments extends AbstractTag {
     }
 
     public LinkedHashMap<String, String> getCommentsMap() {
+        markExposed();
         return commentsMap;
     }
 
@@ -56,27 +58,29 @@ public class VorbisComments extends AbstractTag {
     }
 
     public void setVendorString(String vendorString) {
+        markModified();
         this.vendorString = vendorString;
     }
 
     public void setCommentsMap(LinkedHashMap<String, String> commentsMap) {
+        markModified();
         this.commentsMap = commentsMap;
     }
 
     public void setComment(String field, String value) {
+        markModified();
         commentsMap.put(field.toUpperCase(), value);
     }
 
     public void removeComment(String field) {
+        markModified();
         commentsMap.remove(field.toUpperCase());
     }
 
     @Override
     public byte[] assemble(byte version) {
 
-        byte[] vendorStringLength = IntegerUtils.fromUInt32LE(vendorString.length());
         byte[] vendorStringBytes  = vendorString.getBytes(StandardCharsets.UTF_8);
-        byte[] numOfComments     = IntegerUtils.fromUInt32LE(commentsMap.keySet().size());
 
         int index = 4 + vendorStringBytes.length + 4;
 
@@ -86,9 +90,9 @@ public class VorbisComments extends AbstractTag {
 
         byte[] comments = new byte[size];
 
-        System.arraycopy(vendorStringLength, 0, comments, 0, vendorStringLength.length);
+        IntegerUtils.putUInt32LE(comments, 0, vendorString.length());
         System.arraycopy(vendorStringBytes, 0, comments, vendorStringOffset, vendorStringBytes.length);
-        System.arraycopy(numOfComments, 0, comments, numOfCommentsOffset, numOfComments.length);
+        IntegerUtils.putUInt32LE(comments, numOfCommentsOffset, commentsMap.size());
 
         for (Map.Entry<String, String> entry : commentsMap.entrySet()) {
 
@@ -101,20 +105,16 @@ public class VorbisComments extends AbstractTag {
 
             final int commentSize = fieldBytes.length + valueBytes.length + 1;
 
-            byte[] commentSizeBytes = IntegerUtils.fromUInt32LE(commentSize);
-            byte[] comment          = new byte[commentSize + 4];
-
-            final int fieldOffset     = 4;
+            final int fieldOffset     = index + 4;
             final int separatorOffset = fieldOffset + fieldBytes.length;
             final int valueOffset     = separatorOffset + 1;
 
-            System.arraycopy(commentSizeBytes, 0, comment, 0, commentSizeBytes.length);
-            System.arraycopy(fieldBytes, 0, comment, fieldOffset, fieldBytes.length);
-            System.arraycopy(valueBytes, 0, comment, valueOffset, valueBytes.length);
-            comment[separatorOffset] = separator;
+            IntegerUtils.putUInt32LE(comments, index, commentSize);
+            System.arraycopy(fieldBytes, 0, comments, fieldOffset, fieldBytes.length);
+            System.arraycopy(valueBytes, 0, comments, valueOffset, valueBytes.length);
+            comments[separatorOffset] = separator;
 
-            System.arraycopy(comment, 0, comments, index, comment.length);
-            index += comment.length;
+            index += commentSize + 4;
         }
 
         if (framingBit) {
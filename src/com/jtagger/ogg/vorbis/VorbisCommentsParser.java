@@ -1,11 +1,44 @@
 package com.jtagger.ogg.vorbis;
 
+import com.jtagger.AbstractTag;
+import com.jtagger.ScanPart;
 import com.jtagger.utils.IntegerUtils;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.EnumSet;
 
 public class VorbisCommentsParser {
 
+    private static final String UNSYNCED_LYRICS = "UNSYNCEDLYRICS";
+    private static final String CHAPTER         = "CHAPTER";
+
+    private EnumSet<ScanPart> scanParts = ScanPart.all();
+
+    public void setScanParts(EnumSet<ScanPart> scanParts) {
+        this.scanParts = scanParts;
+    }
+
+    private boolean isSkipped(String field) {
+        if (field.equalsIgnoreCase(VorbisComments.PICTURE)) {
+            return !scanParts.contains(ScanPart.PICTURES);
+        }
+        if (field.equalsIgnoreCase(AbstractTag.LYRICS) || field.equalsIgnoreCase(UNSYNCED_LYRICS)) {
+            return !scanParts.contains(ScanPart.LYRICS);
+        }
+        if (field.regionMatches(true, 0, CHAPTER, 0, CHAPTER.length())) {
+            return !scanParts.contains(ScanPart.CHAPTERS); // CHAPTERxxx and CHAPTERxxxNAME
+        }
+        return false;
+    }
+
+    // field names are ASCII, so the name can be checked before the value is decoded
+    private static String parseFieldName(byte[] data, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (data[i] == '=') return new String(data, offset, i - offset, StandardCharsets.US_ASCII);
+        }
+        return null;
+    }
+
     public VorbisComments parse(byte[] data, boolean framingBit) {
 
         if (data[data.length - 1] != 0x1 && framingBit) {
@@ -14,8 +47,8 @@ public class VorbisCommentsParser {
 
         VorbisComments comments = new VorbisComments(framingBit);
 
-        int vendorStringLength = IntegerUtils.toUInt32LE(Arrays.copyOfRange(data, 0, 4));
-        int commentsLength     = IntegerUtils.toUInt32LE(Arrays.copyOfRange(data, 4 + vendorStringLength, 4 + vendorStringLength + 4));
+        int vendorStringLength = IntegerUtils.toUInt32LE(data, 0);
+        int commentsLength     = IntegerUtils.toUInt32LE(data, 4 + vendorStringLength);
         String vendorString    = new String(Arrays.copyOfRange(data, 4, 4 + vendorStringLength));
 
         int n = 0;
@@ -24,8 +57,13 @@ public class VorbisCommentsParser {
         comments.setVendorString(vendorString);
         while (n < commentsLength) {
 
-            byte[] commentSizeBytes = Arrays.copyOfRange(data, offset, offset + 4); offset += 4;
-            int commentSize = IntegerUtils.toUInt32LE(commentSizeBytes);
+            int commentSize = IntegerUtils.toUInt32LE(data, offset); offset += 4;
+
+            String name = parseFieldName(data, offset, Math.min(commentSize, data.length - offset));
+            if (name == null || isSkipped(name)) {
+                n++; offset += commentSize;
+                continue;
+            }
 
             String comment = new String(Arrays.copyOfRange(data, offset, offset + commentSize), StandardCharsets.UTF_8);
             String[] split = comment.split("=");
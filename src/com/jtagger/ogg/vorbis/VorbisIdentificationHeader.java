@@ -104,14 +104,14 @@ public class VorbisIdentificationHeader extends VorbisHeader implements StreamIn
         int offset = 0;
 
         System.arraycopy(common, 0, header, offset, common.length); offset += common.length;
-        System.arraycopy(IntegerUtils.fromUInt32LE(version), 0, header, offset, 4); offset += 4;
+        IntegerUtils.putUInt32LE(header, offset, version); offset += 4;
 
         header[offset++] = channels;
 
-        System.arraycopy(IntegerUtils.fromUInt32LE(sampleRate), 0, header, offset, 4);     offset += 4;
-        System.arraycopy(IntegerUtils.fromUInt32LE(maxBitrate), 0, header, offset, 4);     offset += 4;
-        System.arraycopy(IntegerUtils.fromUInt32LE(nominalBitrate), 0, header, offset, 4); offset += 4;
-        System.arraycopy(IntegerUtils.fromUInt32LE(minBitrate), 0, header, offset, 4);     offset += 4;
+        IntegerUtils.putUInt32LE(header, offset, sampleRate);     offset += 4;
+        IntegerUtils.putUInt32LE(header, offset, maxBitrate);     offset += 4;
+        IntegerUtils.putUInt32LE(header, offset, nominalBitrate); offset += 4;
+        IntegerUtils.putUInt32LE(header, offset, minBitrate);     offset += 4;
 
         header[offset++] = blockSize;
         header[offset]   = 0x1;
@@ -0,0 +1,81 @@
+package com.jtagger.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/*
+ * Growable output buffer that components are serialized into in one pass. Fields whose value is
+ * only known at the end, like sizes, are patched in place with set.
+ */
+public class ArraySink {
+
+    private byte[] buffer;
+    private int size = 0;
+
+    public ArraySink() {
+        this(BytesIO.BUFFER_SIZE);
+    }
+
+    public ArraySink(int capacity) {
+        this.buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // backing array, valid up to size()
+    public byte[] array() {
+        return buffer;
+    }
+
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) b;
+    }
+
+    public void write(byte[] data) {
+        write(data, 0, data.length);
+    }
+
+    public void write(byte[] data, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, data.length);
+        ensureCapacity(size + length);
+        System.arraycopy(data, offset, buffer, size, length);
+        size += length;
+    }
+
+    // appends count zero bytes
+    public void skip(int count) {
+        ensureCapacity(size + count);
+        Arrays.fill(buffer, size, size + count, (byte) 0);
+        size += count;
+    }
+
+    public void set(int position, byte[] data) {
+        Objects.checkFromIndexSize(position, data.length, size);
+        System.arraycopy(data, 0, buffer, position, data.length);
+    }
+
+    // trims the backing array to size, so that repeated calls return the same array
+    public byte[] toByteArray() {
+        if (buffer.length != size) buffer = Arrays.copyOf(buffer, size);
+        return buffer;
+    }
+
+    public void writeTo(FileChannel channel, long position) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(buffer, 0, size);
+        while (data.hasRemaining()) {
+            channel.write(data, position + data.position());
+        }
+    }
+}
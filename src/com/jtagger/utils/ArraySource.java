@@ -0,0 +1,108 @@
+package com.jtagger.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public class ArraySource implements SeekableSource {
+
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+    private long position = 0;
+
+    public ArraySource(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public ArraySource(byte[] data, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, data.length);
+        this.data   = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    private int remaining() {
+        return (int) Math.max(length - position, 0);
+    }
+
+    private int require(int count) throws EOFException {
+        if (remaining() < count) throw new EOFException();
+        int index = offset + (int) position;
+        position += count;
+        return index;
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return ByteBuffer.wrap(data, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long getFilePointer() {
+        return position;
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        if (position < 0) throw new IOException("Negative seek offset");
+        this.position = position;
+    }
+
+    @Override
+    public int read() {
+        return remaining() > 0 ? Byte.toUnsignedInt(data[offset + (int) position++]) : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (length == 0) return 0;
+
+        int count = Math.min(length, remaining());
+        if (count == 0) return -1;
+
+        System.arraycopy(data, this.offset + (int) position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void readFully(byte[] buffer, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        System.arraycopy(data, require(length), buffer, offset, length);
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        int index = require(4);
+        return (data[index] & 0xFF) << 24 | (data[index + 1] & 0xFF) << 16 |
+               (data[index + 2] & 0xFF) << 8 | (data[index + 3] & 0xFF);
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        long high = Integer.toUnsignedLong(readInt());
+        long low  = Integer.toUnsignedLong(readInt());
+        return high << 32 | low;
+    }
+
+    @Override
+    public int skipBytes(int count) {
+        if (count <= 0) return 0;
+        int skipped = Math.min(count, remaining());
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() {
+
+    }
+}
@@ -1,7 +1,10 @@
 package com.jtagger.utils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class BytesIO {
 
@@ -9,8 +12,12 @@ public class BytesIO {
     public static final int PADDING_MIN = 1024;
     public static final int BUFFER_SIZE = 8192;
 
-    public static int getPadding(int fileLength) {
-        return Math.min(Math.max(fileLength / 100, PADDING_MIN), PADDING_MAX);
+    public static final int MOVE_BUFFER_SIZE = 1024 * 1024;
+    private static final int MOVE_BUFFER_POOL_SIZE = 4;
+    private static final ConcurrentLinkedQueue<ByteBuffer> MOVE_BUFFERS = new ConcurrentLinkedQueue<>();
+
+    public static int getPadding(long fileLength) {
+        return (int) Math.min(Math.max(fileLength / 100, PADDING_MIN), PADDING_MAX);
     }
 
     public static void copyBytes(InputStream in, OutputStream out) throws IOException {
@@ -30,7 +37,7 @@ public class BytesIO {
     public static void writeBlock(
             RandomAccessFile file,
             byte[] buffer,
-            int offset) throws IOException
+            long offset) throws IOException
     {
         file.seek(offset);
         file.write(buffer);
@@ -55,47 +62,105 @@ public class BytesIO {
 
     public static void moveBlock(
             RandomAccessFile file,
-            int from,
-            int to,
-            int sizeDiff,
-            int count) throws IOException
+            long from,
+            long to,
+            long sizeDiff,
+            long count) throws IOException
     {
         if (sizeDiff == 0) {
-            System.out.println("FileIO.moveBlock: sizeDiff == 0");
             return;
         }
         if (from == to) {
             throw new IllegalArgumentException("Destination position cannot be equal to source position");
         }
 
-        final int fLen = (int) file.length();
-        byte[] buffer  = new byte[BUFFER_SIZE];
+        final long fLen     = file.length();
+        FileChannel channel = file.getChannel();
 
-        int size;
-        int left = count;
-
-        if (to > from) {
-            while (left > 0) {
-                size = Math.min(BUFFER_SIZE, left);
-                file.seek(from + left - size);
-                file.read(buffer, 0, size);
-                file.seek(left + to - size);
-                file.write(buffer, 0, size);
-                left -= size;
+        // transferTo within one channel has no direct path in the JDK, so moves always go through the pool
+        ByteBuffer buffer = acquireBuffer();
+        try {
+            int size;
+            long left = count;
+
+            if (to > from) {
+                while (left > 0) {
+                    size = (int) Math.min(buffer.capacity(), left);
+                    readBlock(channel, buffer, from + left - size, size);
+                    writeBlock(channel, buffer, to + left - size);
+                    left -= size;
+                }
             }
-        }
-        else {
-            int copied = 0;
-            while (left > 0) {
-                size = Math.min(BUFFER_SIZE, left);
-                file.seek(from + copied);
-                file.read(buffer, 0, size);
-                file.seek(to + copied);
-                file.write(buffer, 0, size);
-                copied += size;
-                left -= size;
+            else {
+                long copied = 0;
+                while (left > 0) {
+                    size = (int) Math.min(buffer.capacity(), left);
+                    readBlock(channel, buffer, from + copied, size);
+                    writeBlock(channel, buffer, to + copied);
+                    copied += size;
+                    left -= size;
+                }
             }
+        } finally {
+            releaseBuffer(buffer);
         }
         file.setLength(fLen + sizeDiff);
     }
+
+    // copies between two different channels, which transferTo may do without going through user space
+    public static void transferBlock(
+            FileChannel source,
+            long from,
+            FileChannel target,
+            long to,
+            long count) throws IOException
+    {
+        long copied = 0;
+        long size;
+
+        while (copied < count) {
+            target.position(to + copied);
+            size = source.transferTo(from + copied, count - copied, target);
+            if (size <= 0) {
+                throw new EOFException("Unexpected end of file at " + (from + copied));
+            }
+            copied += size;
+        }
+    }
+
+    private static void readBlock(
+            FileChannel channel,
+            ByteBuffer buffer,
+            long position,
+            int size) throws IOException
+    {
+        buffer.clear().limit(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeBlock(
+            FileChannel channel,
+            ByteBuffer buffer,
+            long position) throws IOException
+    {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = MOVE_BUFFERS.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(MOVE_BUFFER_SIZE);
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        if (MOVE_BUFFERS.size() < MOVE_BUFFER_POOL_SIZE) {
+            MOVE_BUFFERS.offer(buffer);
+        }
+    }
 }
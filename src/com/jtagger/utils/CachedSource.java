@@ -0,0 +1,196 @@
+package com.jtagger.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * Read-ahead cache of a few aligned blocks with LRU eviction, so that the small header reads
+ * of the parsers turn into one read per block. Reads of a block or more bypass the cache.
+ */
+public class CachedSource implements SeekableSource {
+
+    public static final int BLOCK_SIZE  = 64 * 1024;
+    public static final int BLOCK_COUNT = 4;
+
+    private final SeekableSource source;
+    private final int blockSize;
+    private final LinkedHashMap<Long, byte[]> blocks;
+
+    private long position = 0;
+    private long length   = -1;
+
+    private long hitCount;
+    private long missCount;
+
+    public CachedSource(SeekableSource source) {
+        this(source, BLOCK_SIZE, BLOCK_COUNT);
+    }
+
+    public CachedSource(SeekableSource source, int blockSize, int blockCount) {
+        if (blockSize <= 0 || blockCount <= 0) {
+            throw new IllegalArgumentException("Block size and count must be positive");
+        }
+        this.source    = source;
+        this.blockSize = blockSize;
+        this.blocks    = new LinkedHashMap<>(blockCount * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > blockCount;
+            }
+        };
+    }
+
+    // blocks served from memory
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    // reads that went to the underlying source, one per loaded block or bypassing read
+    public long getMissCount() {
+        return missCount;
+    }
+
+    // drops cached blocks and length, needed once the underlying file was written
+    public void invalidate() {
+        blocks.clear();
+        length = -1;
+    }
+
+    private byte[] getBlock(long index) throws IOException {
+
+        byte[] block = blocks.get(index);
+        if (block != null) {
+            hitCount++;
+            return block;
+        }
+
+        long start = index * blockSize;
+        block = new byte[(int) Math.min(blockSize, length() - start)];
+        source.seek(start);
+        source.readFully(block);
+
+        missCount++;
+        blocks.put(index, block);
+        return block;
+    }
+
+    // copies up to count bytes at position from the cached blocks, returns the number of bytes copied
+    private int copy(byte[] buffer, int offset, int count) throws IOException {
+
+        int copied = 0;
+        while (copied < count && position < length()) {
+
+            byte[] block = getBlock(position / blockSize);
+            int index    = (int) (position % blockSize);
+            int size     = Math.min(count - copied, block.length - index);
+
+            System.arraycopy(block, index, buffer, offset + copied, size);
+            copied   += size;
+            position += size;
+        }
+        return copied;
+    }
+
+    @Override
+    public Path getPath() {
+        return source.getPath();
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return source.getByteBuffer();
+    }
+
+    @Override
+    public long length() throws IOException {
+        if (length == -1) length = source.length();
+        return length;
+    }
+
+    @Override
+    public long getFilePointer() {
+        return position;
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        if (position < 0) throw new IOException("Negative seek offset");
+        this.position = position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position >= length()) return -1;
+        byte[] block = getBlock(position / blockSize);
+        return Byte.toUnsignedInt(block[(int) (position++ % blockSize)]);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (length == 0) return 0;
+        if (position >= length()) return -1;
+        if (length >= blockSize) {
+            length = (int) Math.min(length, length() - position);
+            readFully(buffer, offset, length);
+            return length;
+        }
+        return copy(buffer, offset, length);
+    }
+
+    @Override
+    public void readFully(byte[] buffer, int offset, int length) throws IOException {
+
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (length > length() - position) {
+            throw new EOFException();
+        }
+        if (length < blockSize) {
+            copy(buffer, offset, length);
+            return;
+        }
+
+        missCount++;
+        source.seek(position);
+        source.readFully(buffer, offset, length);
+        position += length;
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        byte[] buffer = new byte[4];
+        readFully(buffer);
+        return (buffer[0] & 0xFF) << 24 | (buffer[1] & 0xFF) << 16 | (buffer[2] & 0xFF) << 8 | (buffer[3] & 0xFF);
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        long high = Integer.toUnsignedLong(readInt());
+        long low  = Integer.toUnsignedLong(readInt());
+        return high << 32 | low;
+    }
+
+    @Override
+    public int skipBytes(int count) throws IOException {
+        if (count <= 0) return 0;
+        int skipped = (int) Math.max(Math.min(count, length() - position), 0);
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        blocks.clear();
+        source.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CachedSource[hits=%d, misses=%d]", hitCount, missCount);
+    }
+}
@@ -0,0 +1,84 @@
+package com.jtagger.utils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+public class FileSource implements SeekableSource {
+
+    private final RandomAccessFile file;
+    private final Path path;
+
+    public FileSource(RandomAccessFile file) {
+        this(file, null);
+    }
+
+    public FileSource(RandomAccessFile file, Path path) {
+        this.file = file;
+        this.path = path;
+    }
+
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
+    public RandomAccessFile getFile() {
+        return file;
+    }
+
+    @Override
+    public long length() throws IOException {
+        return file.length();
+    }
+
+    @Override
+    public long getFilePointer() throws IOException {
+        return file.getFilePointer();
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        file.seek(position);
+    }
+
+    @Override
+    public int read() throws IOException {
+        return file.read();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        return file.read(buffer, offset, length);
+    }
+
+    @Override
+    public void readFully(byte[] buffer, int offset, int length) throws IOException {
+        file.readFully(buffer, offset, length);
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return file.readInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return file.readLong();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return file.readUnsignedByte();
+    }
+
+    @Override
+    public int skipBytes(int count) throws IOException {
+        return file.skipBytes(count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
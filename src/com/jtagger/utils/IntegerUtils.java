@@ -1,117 +1,145 @@
 package com.jtagger.utils;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/*
+ * Big and little endian integers at an offset of a byte array, read and written in place
+ * through VarHandle views. The overloads without an offset work on the start of the array.
+ */
 public class IntegerUtils {
 
-    @SuppressWarnings("all")
+    private static final VarHandle LONG_BE  = MethodHandles.byteArrayViewVarHandle(long[].class, BIG_ENDIAN);
+    private static final VarHandle LONG_LE  = MethodHandles.byteArrayViewVarHandle(long[].class, LITTLE_ENDIAN);
+    private static final VarHandle INT_BE   = MethodHandles.byteArrayViewVarHandle(int[].class, BIG_ENDIAN);
+    private static final VarHandle INT_LE   = MethodHandles.byteArrayViewVarHandle(int[].class, LITTLE_ENDIAN);
+    private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, BIG_ENDIAN);
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, LITTLE_ENDIAN);
+
     public static long toUInt64LE(byte[] b) {
-        return  (b[7] << 56) |
-                (b[6] & 0xFF) << 48 |
-                (b[5] & 0xFF) << 40 |
-                (b[4] & 0xFF) << 32 |
-                (b[3] & 0xFF) << 24 |
-                (b[2] & 0xFF) << 16 |
-                (b[1] & 0xFF) << 8  |
-                (b[0] & 0xFF);
+        return toUInt64LE(b, 0);
+    }
+
+    public static long toUInt64LE(byte[] b, int offset) {
+        return (long) LONG_LE.get(b, offset);
     }
 
     public static byte[] fromUInt64LE(long in) {
-        return new byte[] {
-                (byte) in,
-                (byte) (in >>> 8),
-                (byte) (in >>> 16),
-                (byte) (in >>> 24),
-                (byte) (in >>> 32),
-                (byte) (in >>> 40),
-                (byte) (in >>> 48),
-                (byte) (in >>> 56)
-        };
+        byte[] b = new byte[8];
+        putUInt64LE(b, 0, in);
+        return b;
+    }
+
+    public static void putUInt64LE(byte[] b, int offset, long in) {
+        LONG_LE.set(b, offset, in);
     }
 
     public static byte[] fromUInt64BE(long in) {
-        return new byte[] {
-                (byte) (in >>> 56),
-                (byte) (in >>> 48),
-                (byte) (in >>> 40),
-                (byte) (in >>> 32),
-                (byte) (in >>> 24),
-                (byte) (in >>> 16),
-                (byte) (in >>> 8),
-                (byte) in
-        };
-    }
-
-    @SuppressWarnings("all")
+        byte[] b = new byte[8];
+        putUInt64BE(b, 0, in);
+        return b;
+    }
+
+    public static void putUInt64BE(byte[] b, int offset, long in) {
+        LONG_BE.set(b, offset, in);
+    }
+
     public static long toUInt64BE(byte[] b) {
-        return  (b[0] << 56) |
-                (b[1] & 0xFF) << 48 |
-                (b[2] & 0xFF) << 40 |
-                (b[3] & 0xFF) << 32 |
-                (b[4] & 0xFF) << 24 |
-                (b[5] & 0xFF) << 16 |
-                (b[6] & 0xFF) << 8  |
-                (b[7] & 0xFF);
+        return toUInt64BE(b, 0);
+    }
+
+    public static long toUInt64BE(byte[] b, int offset) {
+        return (long) LONG_BE.get(b, offset);
     }
 
     public static int toUInt32BE(byte[] bytes) {
-        return  (bytes[0] << 24) |
-                (bytes[1] & 0xFF) << 16 |
-                (bytes[2] & 0xFF) << 8 |
-                (bytes[3] & 0xFF);
+        return toUInt32BE(bytes, 0);
+    }
+
+    public static int toUInt32BE(byte[] bytes, int offset) {
+        return (int) INT_BE.get(bytes, offset);
     }
 
     public static int toUInt32LE(byte[] bytes) {
-        return  (bytes[3] << 24) |
-                (bytes[2] & 0xFF) << 16 |
-                (bytes[1] & 0xFF) << 8 |
-                (bytes[0] & 0xFF);
+        return toUInt32LE(bytes, 0);
+    }
+
+    public static int toUInt32LE(byte[] bytes, int offset) {
+        return (int) INT_LE.get(bytes, offset);
     }
 
     public static int toUInt24BE(byte[] bytes) {
-        return  (bytes[0] & 0xFF) << 16 |
-                (bytes[1] & 0xFF) << 8  |
-                (bytes[2] & 0xFF);
+        return toUInt24BE(bytes, 0);
+    }
+
+    public static int toUInt24BE(byte[] bytes, int offset) {
+        return  (bytes[offset] & 0xFF) << 16 |
+                (bytes[offset + 1] & 0xFF) << 8  |
+                (bytes[offset + 2] & 0xFF);
     }
 
     public static byte[] fromUInt24BE(int in) {
-        return new byte[] {
-                (byte) (in >>> 16),
-                (byte) (in >>> 8),
-                (byte) in
-        };
+        byte[] b = new byte[3];
+        putUInt24BE(b, 0, in);
+        return b;
+    }
+
+    public static void putUInt24BE(byte[] b, int offset, int in) {
+        b[offset]     = (byte) (in >>> 16);
+        b[offset + 1] = (byte) (in >>> 8);
+        b[offset + 2] = (byte) in;
     }
 
     public static byte[] fromUInt32BE(int in) {
-        return new byte[] {
-                (byte) (in >>> 24),
-                (byte) (in >>> 16),
-                (byte) (in >>> 8),
-                (byte) in
-        };
+        byte[] b = new byte[4];
+        putUInt32BE(b, 0, in);
+        return b;
+    }
+
+    public static void putUInt32BE(byte[] b, int offset, int in) {
+        INT_BE.set(b, offset, in);
     }
 
     public static byte[] fromUInt32LE(int in) {
-        return new byte[] {
-                (byte) in,
-                (byte) (in >>> 8),
-                (byte) (in >>> 16),
-                (byte) (in >>> 24)
-        };
+        byte[] b = new byte[4];
+        putUInt32LE(b, 0, in);
+        return b;
+    }
+
+    public static void putUInt32LE(byte[] b, int offset, int in) {
+        INT_LE.set(b, offset, in);
     }
 
     public static byte[] fromUInt16BE(long in) {
-        return new byte[] {
-                (byte) (in >>> 8),
-                (byte) in
-        };
+        byte[] b = new byte[2];
+        putUInt16BE(b, 0, (int) in);
+        return b;
+    }
+
+    public static void putUInt16BE(byte[] b, int offset, int in) {
+        SHORT_BE.set(b, offset, (short) in);
+    }
+
+    public static void putUInt16LE(byte[] b, int offset, int in) {
+        SHORT_LE.set(b, offset, (short) in);
     }
 
     public static short toUInt16LE(byte[] bytes) {
-        return (short) (((bytes[1] & 0xFF) << 8) |
-                       (bytes[0] & 0xFF));
+        return toUInt16LE(bytes, 0);
+    }
+
+    public static short toUInt16LE(byte[] bytes, int offset) {
+        return (short) SHORT_LE.get(bytes, offset);
     }
 
     public static short toUInt16BE(byte[] bytes) {
-        return (short) (((bytes[0] & 0xFF) << 8) |
-                        (bytes[1] & 0xFF));
+        return toUInt16BE(bytes, 0);
+    }
+
+    public static short toUInt16BE(byte[] bytes, int offset) {
+        return (short) SHORT_BE.get(bytes, offset);
     }
 }
@@ -0,0 +1,158 @@
+package com.jtagger.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/*
+ * Read-only view of a memory mapped file, reads touch no file descriptor.
+ * A buffer maps at most 2 GB, so the file is mapped in windows of WINDOW_SIZE bytes and a read
+ * that crosses the end of a window continues in the next one.
+ * The mappings are released by the garbage collector, the file is not locked while it is open.
+ */
+public class MappedSource implements SeekableSource {
+
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_SIZE = 1L << WINDOW_SHIFT;
+    private static final long WINDOW_MASK = WINDOW_SIZE - 1;
+
+    private final Path path;
+    private final MappedByteBuffer[] windows;
+    private final long length;
+    private long position = 0;
+
+    public MappedSource(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+
+            this.path    = path;
+            this.length  = channel.size();
+            this.windows = new MappedByteBuffer[(int) ((length + WINDOW_SIZE - 1) >>> WINDOW_SHIFT)];
+
+            for (int i = 0; i < windows.length; i++) {
+                long start = (long) i << WINDOW_SHIFT;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, length - start));
+            }
+        }
+    }
+
+    private long remaining() {
+        return Math.max(length - position, 0);
+    }
+
+    private long require(int count) throws EOFException {
+        if (remaining() < count) throw new EOFException();
+        long index = position;
+        position += count;
+        return index;
+    }
+
+    private MappedByteBuffer window(long index) {
+        return windows[(int) (index >>> WINDOW_SHIFT)];
+    }
+
+    // copies length bytes from index on, window by window
+    private void copy(long index, byte[] buffer, int offset, int length) {
+        while (length > 0) {
+            MappedByteBuffer window = window(index);
+            int start = (int) (index & WINDOW_MASK);
+            int count = Math.min(length, window.limit() - start);
+
+            window.duplicate().position(start).get(buffer, offset, count);
+            index  += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
+    // only a file mapped in one window can be viewed as one buffer
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return windows.length == 1 ? windows[0].asReadOnlyBuffer() : null;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long getFilePointer() {
+        return position;
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        if (position < 0) throw new IOException("Negative seek offset");
+        this.position = position;
+    }
+
+    @Override
+    public int read() {
+        if (remaining() == 0) return -1;
+        int value = Byte.toUnsignedInt(window(position).get((int) (position & WINDOW_MASK)));
+        position++;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (length == 0) return 0;
+
+        int count = (int) Math.min(length, remaining());
+        if (count == 0) return -1;
+
+        copy(position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void readFully(byte[] buffer, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        copy(require(length), buffer, offset, length);
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        long index = require(4);
+        MappedByteBuffer window = window(index);
+        int start = (int) (index & WINDOW_MASK);
+        if (start + 4 <= window.limit()) return window.getInt(start);
+
+        byte[] bytes = new byte[4];
+        copy(index, bytes, 0, 4);
+        return IntegerUtils.toUInt32BE(bytes);
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        long high = Integer.toUnsignedLong(readInt());
+        long low  = Integer.toUnsignedLong(readInt());
+        return high << 32 | low;
+    }
+
+    @Override
+    public int skipBytes(int count) {
+        if (count <= 0) return 0;
+        int skipped = (int) Math.min(count, remaining());
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() {
+
+    }
+}
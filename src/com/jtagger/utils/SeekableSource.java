@@ -0,0 +1,74 @@
+package com.jtagger.utils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/*
+ * Random access input the parsers read from, method names follow RandomAccessFile.
+ * Backed by a RandomAccessFile, a heap byte[] or a memory mapped file.
+ */
+public interface SeekableSource extends Closeable {
+
+    static SeekableSource of(RandomAccessFile file) {
+        return new FileSource(file);
+    }
+
+    static SeekableSource of(byte[] data) {
+        return new ArraySource(data);
+    }
+
+    static SeekableSource map(File file) throws IOException {
+        return new MappedSource(file.toPath());
+    }
+
+    long length() throws IOException;
+
+    long getFilePointer() throws IOException;
+
+    void seek(long position) throws IOException;
+
+    int read() throws IOException;
+
+    int read(byte[] buffer, int offset, int length) throws IOException;
+
+    void readFully(byte[] buffer, int offset, int length) throws IOException;
+
+    int readInt() throws IOException;
+
+    long readLong() throws IOException;
+
+    int skipBytes(int count) throws IOException;
+
+    default int read(byte[] buffer) throws IOException {
+        return read(buffer, 0, buffer.length);
+    }
+
+    default void readFully(byte[] buffer) throws IOException {
+        readFully(buffer, 0, buffer.length);
+    }
+
+    default int readUnsignedByte() throws IOException {
+        int value = read();
+        if (value < 0) throw new EOFException();
+        return value;
+    }
+
+    default byte readByte() throws IOException {
+        return (byte) readUnsignedByte();
+    }
+
+    // file the bytes come from if there is one, parsers leave large pictures in it
+    default Path getPath() {
+        return null;
+    }
+
+    // read-only view of all the bytes if they are already in memory, null otherwise
+    default ByteBuffer getByteBuffer() {
+        return null;
+    }
+}
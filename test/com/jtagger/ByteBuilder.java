@@ -0,0 +1,68 @@
+package com.jtagger;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+// builds the headers of test files, multi-byte values are big-endian unless the method says otherwise
+public class ByteBuilder {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    public ByteBuilder u8(int value) {
+        out.write(value);
+        return this;
+    }
+
+    public ByteBuilder u16(int value) {
+        return u8(value >>> 8).u8(value);
+    }
+
+    public ByteBuilder u24(int value) {
+        return u8(value >>> 16).u16(value);
+    }
+
+    public ByteBuilder u32(long value) {
+        return u16((int) (value >>> 16)).u16((int) value);
+    }
+
+    public ByteBuilder u64(long value) {
+        return u32(value >>> 32).u32(value);
+    }
+
+    public ByteBuilder u16LE(int value) {
+        return u8(value).u8(value >>> 8);
+    }
+
+    public ByteBuilder u32LE(long value) {
+        return u16LE((int) value).u16LE((int) (value >>> 16));
+    }
+
+    public ByteBuilder u64LE(long value) {
+        return u32LE(value).u32LE(value >>> 32);
+    }
+
+    public ByteBuilder ascii(String value) {
+        return bytes(value.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    public ByteBuilder utf8(String value) {
+        return bytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ByteBuilder zeros(int length) {
+        return bytes(new byte[length]);
+    }
+
+    public ByteBuilder bytes(byte[] bytes) {
+        out.write(bytes, 0, bytes.length);
+        return this;
+    }
+
+    public int size() {
+        return out.size();
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
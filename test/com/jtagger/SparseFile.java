@@ -0,0 +1,38 @@
+package com.jtagger;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+// a file of the given length where only the blocks written take up disk space
+public class SparseFile implements AutoCloseable {
+
+    public static final long GB = 1L << 30;
+
+    private final RandomAccessFile file;
+
+    public SparseFile(Path path, long length) throws IOException {
+        file = new RandomAccessFile(path.toFile(), "rw");
+        file.setLength(length);
+    }
+
+    public SparseFile write(long position, byte[] bytes) throws IOException {
+        file.seek(position);
+        file.write(bytes);
+        return this;
+    }
+
+    public static byte[] read(Path path, long position, int length) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            byte[] bytes = new byte[length];
+            file.seek(position);
+            file.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
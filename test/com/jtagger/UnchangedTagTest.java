@@ -0,0 +1,161 @@
+package com.jtagger;
+
+import com.jtagger.flac.FLAC;
+import com.jtagger.mp3.id3.AbstractFrame;
+import com.jtagger.mp3.id3.ID3V2Tag;
+import com.jtagger.mp3.id3.TagHeader;
+import com.jtagger.mp3.id3.TextFrame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static com.jtagger.mp3.id3.ID3V2Tag.ID3V2_4;
+import static org.junit.jupiter.api.Assertions.*;
+
+// accessors that hand out mutable parts of a tag don't dirty it, changes made through those parts are saved
+class UnchangedTagTest {
+
+    private static final FileTime STORED = FileTime.fromMillis(0);
+
+    @TempDir
+    Path directory;
+
+    // keeps the editor so that a test can ask whether save has anything to write
+    private static class EditedFile<T extends AbstractTag> extends MediaFile<T, StreamInfo> {
+
+        @SuppressWarnings("rawtypes")
+        private AbstractTagEditor editor;
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        protected AbstractTagEditor getEditor(String mimeType) {
+            return editor = super.getEditor(mimeType);
+        }
+    }
+
+    private static byte[] mpegFrames() {
+        ByteBuilder frames = new ByteBuilder();
+        for (int i = 0; i < 8; i++) {
+            frames.u32(0xFFFB9064).zeros(417 - 4); // MPEG-1 layer III, 128 kbps, 44.1 kHz
+        }
+        return frames.toByteArray();
+    }
+
+    private Path createMpeg() throws IOException {
+        byte[] tag = ID3V2Tag.newBuilder()
+                .setHeader(TagHeader.newBuilder(ID3V2_4).build(ID3V2_4))
+                .setTitle("title")
+                .setArtist("artist")
+                .build(ID3V2_4)
+                .assemble(ID3V2_4);
+        return Files.write(directory.resolve("file.mp3"), new ByteBuilder().bytes(tag).bytes(mpegFrames()).toByteArray());
+    }
+
+    private Path createFlac() throws IOException {
+
+        byte[] streamInfo = new ByteBuilder()
+                .u16(4096).u16(4096).u24(0).u24(0)
+                .u64(44100L << 44 | 1L << 41 | 15L << 36 | 44100)
+                .zeros(16)
+                .toByteArray();
+
+        byte[] comment  = new ByteBuilder().ascii("TITLE=title").toByteArray();
+        byte[] comments = new ByteBuilder()
+                .u32LE(6).ascii("vendor")
+                .u32LE(1).u32LE(comment.length).bytes(comment)
+                .toByteArray();
+
+        byte[] file = new ByteBuilder()
+                .ascii("fLaC")
+                .u8(0).u24(streamInfo.length).bytes(streamInfo)
+                .u8(4).u24(comments.length).bytes(comments)
+                .u8(0x81).u24(1024).zeros(1024)
+                .u16(0xFFF8).zeros(64)
+                .toByteArray();
+        return Files.write(directory.resolve("file.flac"), file);
+    }
+
+    // saves and checks whether the file was written to
+    private static boolean save(MediaFile<?, ?> mediaFile, Path path) throws IOException {
+        byte[] stored = Files.readAllBytes(path);
+        Files.setLastModifiedTime(path, STORED);
+        mediaFile.save();
+        boolean written = !Files.getLastModifiedTime(path).equals(STORED);
+        if (!written) assertArrayEquals(stored, Files.readAllBytes(path));
+        return written;
+    }
+
+    private static String readTitle(Path path) throws IOException {
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "r");
+            return mediaFile.getTag().getStringField(AbstractTag.TITLE);
+        }
+    }
+
+    @Test
+    void readingFramesDoesNotSave() throws IOException {
+
+        Path path = createMpeg();
+        try (EditedFile<ID3V2Tag> mediaFile = new EditedFile<>()) {
+            mediaFile.scan(path.toFile(), "rw");
+
+            ID3V2Tag tag = mediaFile.getTag();
+            assertEquals(2, tag.getFrames().size());
+            assertEquals(2, tag.getFrameMap().size());
+            assertEquals("title", tag.<TextFrame>getFrame(AbstractFrame.TITLE).getText());
+            assertEquals(ID3V2_4, tag.getTagHeader().getMajorVersion());
+            assertNull(tag.getPictureField());
+
+            assertFalse(mediaFile.editor.isModified());
+            assertFalse(save(mediaFile, path));
+        }
+    }
+
+    @Test
+    void changesToHandedOutFramesAreSaved() throws IOException {
+
+        Path path = createMpeg();
+        try (MediaFile<ID3V2Tag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "rw");
+
+            TextFrame title = mediaFile.getTag().getFrame(AbstractFrame.TITLE);
+            title.setText("changed");
+            assertTrue(save(mediaFile, path));
+            assertFalse(save(mediaFile, path));
+
+            // the frame is still handed out after the save
+            title.setText("changed again");
+            assertTrue(save(mediaFile, path));
+        }
+        assertEquals("changed again", readTitle(path));
+    }
+
+    @Test
+    void readingCommentsDoesNotSave() throws IOException {
+
+        Path path = createFlac();
+        try (EditedFile<FLAC> mediaFile = new EditedFile<>()) {
+            mediaFile.scan(path.toFile(), "rw");
+            assertEquals("title", mediaFile.getTag().getCommentsMap().get("TITLE"));
+            assertNull(mediaFile.getTag().getPictureField());
+            assertFalse(mediaFile.editor.isModified());
+            assertFalse(save(mediaFile, path));
+        }
+    }
+
+    @Test
+    void changesToHandedOutCommentsAreSaved() throws IOException {
+
+        Path path = createFlac();
+        try (MediaFile<FLAC, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "rw");
+            mediaFile.getTag().getCommentsMap().put("TITLE", "changed");
+            assertTrue(save(mediaFile, path));
+        }
+        assertEquals("changed", readTitle(path));
+    }
+}
@@ -0,0 +1,121 @@
+package com.jtagger.flac;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.ByteBuilder;
+import com.jtagger.MediaFile;
+import com.jtagger.SparseFile;
+import com.jtagger.StreamInfo;
+import com.jtagger.utils.SeekableSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.jtagger.SparseFile.GB;
+import static org.junit.jupiter.api.Assertions.*;
+
+// a sparse file with more than 2 GB of frames after the metadata
+class LargeFlacTest {
+
+    private static final int SAMPLE_RATE  = 44100;
+    private static final int DURATION     = 5 * 3600;
+    private static final long AUDIO_SIZE  = 3 * GB;
+
+    private static final byte[] AUDIO_START = new ByteBuilder().u16(0xFFF8).ascii("first frame").toByteArray();
+    private static final byte[] AUDIO_END   = new ByteBuilder().ascii("last frame").toByteArray();
+
+    @TempDir
+    Path directory;
+
+    private static byte[] block(int type, boolean last, byte[] body) {
+        return new ByteBuilder().u8(type | (last ? 0x80 : 0)).u24(body.length).bytes(body).toByteArray();
+    }
+
+    private static byte[] metadata(String title) {
+
+        long totalSamples = (long) DURATION * SAMPLE_RATE;
+        byte[] streamInfo = new ByteBuilder()
+                .u16(4096).u16(4096).u24(0).u24(0)
+                .u64((long) SAMPLE_RATE << 44 | 1L << 41 | 15L << 36 | totalSamples)
+                .zeros(16)
+                .toByteArray();
+
+        byte[] comment  = new ByteBuilder().ascii("TITLE=").utf8(title).toByteArray();
+        byte[] comments = new ByteBuilder()
+                .u32LE(6).ascii("vendor")
+                .u32LE(1).u32LE(comment.length).bytes(comment)
+                .toByteArray();
+
+        return new ByteBuilder()
+                .ascii("fLaC")
+                .bytes(block(0, false, streamInfo))
+                .bytes(block(4, false, comments))
+                .bytes(block(1, true, new byte[4096]))
+                .toByteArray();
+    }
+
+    private Path create() throws IOException {
+        Path path       = directory.resolve("large.flac");
+        byte[] metadata = metadata("title");
+        try (SparseFile file = new SparseFile(path, metadata.length + AUDIO_SIZE)) {
+            file.write(0, metadata)
+                .write(metadata.length, AUDIO_START)
+                .write(metadata.length + AUDIO_SIZE - AUDIO_END.length, AUDIO_END);
+        }
+        return path;
+    }
+
+    private static void assertAudio(Path path) throws IOException {
+        long audioStart = metadata("title").length;
+        assertArrayEquals(AUDIO_START, SparseFile.read(path, audioStart, AUDIO_START.length));
+        assertArrayEquals(AUDIO_END, SparseFile.read(path, Files.size(path) - AUDIO_END.length, AUDIO_END.length));
+        assertEquals(audioStart + AUDIO_SIZE, Files.size(path));
+    }
+
+    @Test
+    void streamLengthPastTwoGigabytes() throws IOException {
+
+        Path path = create();
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "r");
+
+            StreamInfo streamInfo = mediaFile.getStreamInfo();
+            assertEquals(DURATION, streamInfo.getDuration());
+            assertEquals((int) (AUDIO_SIZE * 8f / (DURATION * 1000f)), streamInfo.getBitrate());
+            assertEquals("title", mediaFile.getTag().getStringField(AbstractTag.TITLE));
+        }
+    }
+
+    @Test
+    void scansMappedFile() throws IOException {
+
+        Path path = create();
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(SeekableSource.map(path.toFile()));
+            assertEquals(DURATION, mediaFile.getStreamInfo().getDuration());
+            assertEquals("title", mediaFile.getTag().getStringField(AbstractTag.TITLE));
+        }
+    }
+
+    @Test
+    void savesInPaddingWithoutMovingFrames() throws IOException {
+
+        Path path = create();
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "rw");
+            AbstractTag tag = mediaFile.getTag();
+            tag.setStringField(AbstractTag.TITLE, "a longer title");
+            mediaFile.setTag(tag);
+            mediaFile.save();
+        }
+
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "r");
+            assertEquals("a longer title", mediaFile.getTag().getStringField(AbstractTag.TITLE));
+            assertEquals(DURATION, mediaFile.getStreamInfo().getDuration());
+        }
+        assertAudio(path);
+    }
+}
@@ -0,0 +1,101 @@
+package com.jtagger.mp3;
+
+import com.jtagger.ByteBuilder;
+import com.jtagger.utils.ArraySource;
+import com.jtagger.utils.CachedSource;
+import com.jtagger.utils.SeekableSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// sources that are already in memory are walked in place instead of being copied
+class MpegFrameScannerTest {
+
+    private static final int FRAME_HEADER = 0xFFFB9064; // MPEG-1 layer III, 128 kbps, 44.1 kHz
+    private static final int FRAME_SIZE   = 417;
+    private static final int FRAME_COUNT  = 5000; // a few chunks
+
+    @TempDir
+    Path directory;
+
+    private static byte[] frames(int offset) {
+        ByteBuilder frames = new ByteBuilder().zeros(offset);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            frames.u32(FRAME_HEADER).zeros(FRAME_SIZE - 4);
+        }
+        return frames.toByteArray();
+    }
+
+    private static long countFrames(SeekableSource source) throws IOException {
+        return MpegFrameScanner.scan(source, 0, ForkJoinPool.commonPool(), 0).getFrameCount();
+    }
+
+    // counts the bytes copied out of the array
+    private static class CountingSource extends ArraySource {
+
+        private long copied;
+
+        CountingSource(byte[] data, int offset, int length) {
+            super(data, offset, length);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = super.read(buffer, offset, length);
+            copied   += Math.max(count, 0);
+            return count;
+        }
+
+        @Override
+        public void readFully(byte[] buffer, int offset, int length) throws IOException {
+            super.readFully(buffer, offset, length);
+            copied += length;
+        }
+    }
+
+    @Test
+    void walksArrayInPlace() throws IOException {
+
+        byte[] data = frames(100);
+        CountingSource source = new CountingSource(data, 100, data.length - 100);
+
+        assertEquals(FRAME_COUNT, countFrames(source));
+        assertTrue(source.copied < FRAME_SIZE, "copied " + source.copied + " bytes");
+    }
+
+    @Test
+    void walksCachedArrayInPlace() throws IOException {
+
+        byte[] data = frames(0);
+        CountingSource source = new CountingSource(data, 0, data.length);
+
+        assertEquals(FRAME_COUNT, countFrames(new CachedSource(source)));
+        assertTrue(source.copied < data.length / 2, "copied " + source.copied + " bytes");
+    }
+
+    @Test
+    void walksMappedFileInPlace() throws IOException {
+        Path path = Files.write(directory.resolve("frames.mp3"), frames(0));
+        try (SeekableSource source = SeekableSource.map(path.toFile())) {
+            assertEquals(FRAME_COUNT, countFrames(source));
+        }
+    }
+
+    @Test
+    void viewFollowsArray() {
+
+        byte[] data = new byte[] { 1, 2, 3, 4 };
+        ArraySource source = new ArraySource(data, 1, 2);
+        assertEquals(2, source.getByteBuffer().remaining());
+        assertTrue(source.getByteBuffer().isReadOnly());
+
+        data[1] = 9;
+        assertEquals(9, source.getByteBuffer().get(0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.jtagger.mp3.id3;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.ByteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.jtagger.mp3.id3.ID3V2Tag.ID3V2_4;
+import static com.jtagger.mp3.id3.TagHeaderParser.HEADER_LENGTH;
+import static org.junit.jupiter.api.Assertions.*;
+
+// frames accessed through a LazyFrame are decoded and take its place in the tag
+@SuppressWarnings("rawtypes")
+class LazyFrameTest {
+
+    private byte[] stored;
+    private ArrayList<AbstractFrame> frames;
+    private ID3V2Tag tag;
+
+    @BeforeEach
+    void setUp() {
+
+        stored = ID3V2Tag.newBuilder()
+                .setHeader(TagHeader.newBuilder(ID3V2_4).build(ID3V2_4))
+                .setTitle("Title")
+                .setArtist("Artist")
+                .setAlbum("Album")
+                .build(ID3V2_4)
+                .assemble(ID3V2_4);
+
+        TagHeaderParser headerParser = new TagHeaderParser();
+        headerParser.setHeaderData(Arrays.copyOf(stored, HEADER_LENGTH));
+        TagHeader header = headerParser.parse();
+
+        FrameParser frameParser = new FrameParser();
+        frameParser.setTagHeader(header);
+        frameParser.setFrames(Arrays.copyOfRange(stored, HEADER_LENGTH, stored.length));
+        frameParser.setLazy(true);
+
+        frames = new ArrayList<>();
+        frameParser.parseFrames(frames);
+        tag = ID3V2Tag.newBuilder()
+                .setFrames(frames)
+                .setHeader(header)
+                .build();
+    }
+
+    private LazyFrame lazyFrame(String id) {
+        for (AbstractFrame frame : frames) {
+            if (frame.getIdentifier().equals(id)) return (LazyFrame) frame;
+        }
+        throw new IllegalStateException("No frame " + id);
+    }
+
+    private List<String> frameIds() {
+        List<String> ids = new ArrayList<>();
+        for (AbstractFrame frame : tag.getFrames()) ids.add(frame.getIdentifier());
+        return ids;
+    }
+
+    @Test
+    void untouchedFramesAreWrittenAsStored() {
+        assertArrayEquals(stored, tag.assemble(ID3V2_4));
+    }
+
+    @Test
+    void setFrameDataReplacesTheLazyFrame() {
+
+        LazyFrame artist = lazyFrame(AbstractFrame.ARTIST);
+        artist.setFrameData("Other artist");
+
+        AbstractFrame frame = tag.getFrame(AbstractFrame.ARTIST);
+        assertInstanceOf(TextFrame.class, frame);
+        assertEquals("Other artist", frame.getFrameData());
+        assertEquals(List.of(AbstractFrame.TITLE, AbstractFrame.ARTIST, AbstractFrame.ALBUM), frameIds());
+
+        tag.assemble(ID3V2_4);
+        assertEquals("Other artist", tag.getStringField(AbstractTag.ARTIST));
+        assertEquals("Title", tag.getStringField(AbstractTag.TITLE));
+    }
+
+    @Test
+    void getFrameDataDecodesTheFrame() {
+        assertEquals("Album", lazyFrame(AbstractFrame.ALBUM).getFrameData());
+        assertInstanceOf(TextFrame.class, tag.getFrame(AbstractFrame.ALBUM));
+        assertArrayEquals(stored, tag.assemble(ID3V2_4));
+    }
+
+    @Test
+    void parseFrameDataDecodesTheGivenBody() {
+
+        LazyFrame title = lazyFrame(AbstractFrame.TITLE);
+        byte[] body = new ByteBuilder().u8(TextEncoding.ENCODING_UTF_8).utf8("Parsed").toByteArray();
+        title.parseFrameData(body, title.getHeader());
+
+        AbstractFrame frame = tag.getFrame(AbstractFrame.TITLE);
+        assertInstanceOf(TextFrame.class, frame);
+        assertEquals("Parsed", frame.getFrameData());
+        assertEquals(List.of(AbstractFrame.TITLE, AbstractFrame.ARTIST, AbstractFrame.ALBUM), frameIds());
+    }
+}
@@ -0,0 +1,263 @@
+package com.jtagger.mp4;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.ByteBuilder;
+import com.jtagger.MediaFile;
+import com.jtagger.SparseFile;
+import com.jtagger.StreamInfo;
+import com.jtagger.utils.SeekableSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static com.jtagger.SparseFile.GB;
+import static org.junit.jupiter.api.Assertions.*;
+
+// sparse files whose atoms and chunk offsets lie past 2 GB and 4 GB, only the small tails after moov are shifted
+class LargeMP4Test {
+
+    private static final int SAMPLE_RATE = 44100;
+    private static final int DURATION    = 3 * 3600;
+
+    @TempDir
+    Path directory;
+
+    private static byte[] atom(String type, byte[]... children) {
+        ByteBuilder body = new ByteBuilder();
+        for (byte[] child : children) body.bytes(child);
+        return new ByteBuilder().u32(8 + body.size()).ascii(type).bytes(body.toByteArray()).toByteArray();
+    }
+
+    private static byte[] fullAtom(String type, int flags, byte[]... children) {
+        byte[][] body = new byte[children.length + 1][];
+        body[0] = new ByteBuilder().u32(flags).toByteArray();
+        System.arraycopy(children, 0, body, 1, children.length);
+        return atom(type, body);
+    }
+
+    private static byte[] descriptor(int tag, byte[] body) {
+        return new ByteBuilder().u8(tag).u8(0x80).u8(0x80).u8(0x80).u8(body.length).bytes(body).toByteArray();
+    }
+
+    private static byte[] ftyp() {
+        return atom("ftyp", new ByteBuilder().ascii("M4A ").u32(0x200).ascii("M4A mp42isom").toByteArray());
+    }
+
+    private static byte[] moov(boolean co64, long[] chunkOffsets, String title, int padding) {
+
+        long duration = (long) DURATION * SAMPLE_RATE;
+        byte[] matrix = new ByteBuilder().u32(0x10000).zeros(12).u32(0x10000).zeros(12).u32(0x40000000).toByteArray();
+
+        ByteBuilder table = new ByteBuilder().u32(chunkOffsets.length);
+        for (long offset : chunkOffsets) {
+            if (co64) table.u64(offset); else table.u32(offset);
+        }
+
+        byte[] esds = descriptor(0x03, new ByteBuilder()
+                .u16(1).u8(0)
+                .bytes(descriptor(0x04, new ByteBuilder()
+                        .u8(0x40).u8(0x15).u24(0).u32(128000).u32(128000)
+                        .bytes(descriptor(0x05, new byte[] { 0x12, 0x10 }))
+                        .toByteArray()))
+                .bytes(descriptor(0x06, new byte[] { 0x02 }))
+                .toByteArray());
+        byte[] mp4a = atom("mp4a",
+                new ByteBuilder().zeros(6).u16(1).zeros(8).u16(2).u16(16).zeros(4).u32((long) SAMPLE_RATE << 16).toByteArray(),
+                fullAtom("esds", 0, esds));
+        byte[] stbl = atom("stbl",
+                fullAtom("stsd", 0, new ByteBuilder().u32(1).toByteArray(), mp4a),
+                fullAtom("stts", 0, new ByteBuilder().u32(0).toByteArray()),
+                fullAtom("stsc", 0, new ByteBuilder().u32(0).toByteArray()),
+                fullAtom("stsz", 0, new ByteBuilder().u32(0).u32(0).toByteArray()),
+                fullAtom(co64 ? "co64" : "stco", 0, table.toByteArray()));
+
+        byte[] trak = atom("trak",
+                fullAtom("tkhd", 7, new ByteBuilder()
+                        .u32(0).u32(0).u32(1).u32(0).u32(duration).zeros(8).u16(0).u16(0).u16(0x100).u16(0)
+                        .bytes(matrix).u32(0).u32(0)
+                        .toByteArray()),
+                atom("mdia",
+                        fullAtom("mdhd", 0, new ByteBuilder().u32(0).u32(0).u32(SAMPLE_RATE).u32(duration).u16(0x55C4).u16(0).toByteArray()),
+                        fullAtom("hdlr", 0, new ByteBuilder().u32(0).ascii("soun").zeros(12).ascii("SoundHandler").u8(0).toByteArray()),
+                        atom("minf",
+                                fullAtom("smhd", 0, new byte[4]),
+                                atom("dinf", fullAtom("dref", 0, new ByteBuilder().u32(1).toByteArray(), fullAtom("url ", 1))),
+                                stbl)));
+
+        byte[] ilst = atom("ilst", atom("©nam", fullAtom("data", 1, new ByteBuilder().u32(0).utf8(title).toByteArray())));
+        byte[] meta = fullAtom("meta", 0,
+                fullAtom("hdlr", 0, new ByteBuilder().u32(0).ascii("mdirappl").zeros(9).toByteArray()),
+                ilst,
+                atom("free", new byte[padding]));
+
+        byte[] mvhd = fullAtom("mvhd", 0, new ByteBuilder()
+                .u32(0).u32(0).u32(SAMPLE_RATE).u32(duration).u32(0x10000).u16(0x100).zeros(10)
+                .bytes(matrix).zeros(24).u32(2)
+                .toByteArray());
+        return atom("moov", mvhd, trak, atom("udta", meta));
+    }
+
+    // what the chunk at index i starts with, so that a moved offset can be told from a stale one
+    private static byte[] chunk(int index) {
+        return new ByteBuilder().ascii("chunk").u32(index).toByteArray();
+    }
+
+    private static void writeChunks(SparseFile file, long[] chunkOffsets) throws IOException {
+        for (int i = 0; i < chunkOffsets.length; i++) file.write(chunkOffsets[i], chunk(i));
+    }
+
+    private static MP4 parse(Path path) throws IOException {
+        try (SeekableSource file = SeekableSource.of(new RandomAccessFile(path.toFile(), "r"))) {
+            return new MP4Parser().parseTag(file);
+        }
+    }
+
+    private static ArrayList<MP4Atom> chunkTables(MP4 mp4) {
+        ArrayList<MP4Atom> tables = new ArrayList<>();
+        mp4.collectAtoms(mp4.getMoovAtom(), tables, "stco", "co64");
+        return tables;
+    }
+
+    private static long[] chunkOffsets(MP4Atom table) {
+        if (table instanceof Co64Atom) return ((Co64Atom) table).getOffsets();
+
+        int[] offsets = ((StcoAtom) table).getOffsets();
+        long[] result = new long[offsets.length];
+        for (int i = 0; i < offsets.length; i++) result[i] = Integer.toUnsignedLong(offsets[i]);
+        return result;
+    }
+
+    private static void assertChunks(Path path, long[] chunkOffsets) throws IOException {
+        for (int i = 0; i < chunkOffsets.length; i++) {
+            assertArrayEquals(chunk(i), SparseFile.read(path, chunkOffsets[i], chunk(i).length), "chunk " + i);
+        }
+    }
+
+    private static void setTitle(Path path, String title) throws IOException {
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "rw");
+            AbstractTag tag = mediaFile.getTag();
+            tag.setStringField(AbstractTag.TITLE, title);
+            mediaFile.setTag(tag);
+            mediaFile.save();
+        }
+    }
+
+    private static void assertScan(Path path, String title) throws IOException {
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "r");
+            assertEquals(title, mediaFile.getTag().getStringField(AbstractTag.TITLE));
+            assertEquals(DURATION, mediaFile.getStreamInfo().getDuration());
+            assertEquals(SAMPLE_RATE, mediaFile.getStreamInfo().getSampleRate());
+        }
+    }
+
+    @Test
+    void moovAfterMdatWith64BitSize() throws IOException {
+
+        Path path        = directory.resolve("large-size.m4a");
+        byte[] ftyp      = ftyp();
+        long mdatStart   = ftyp.length;
+        long mdatLength  = 5 * GB;
+        long moovStart   = mdatStart + mdatLength;
+        long[] offsets   = { mdatStart + 16, mdatStart + 5 * GB / 2, mdatStart + 9 * GB / 2 };
+        byte[] mdat      = new ByteBuilder().u32(1).ascii("mdat").u64(mdatLength).toByteArray();
+        byte[] moov      = moov(true, offsets, "title", 0);
+
+        try (SparseFile file = new SparseFile(path, moovStart + moov.length)) {
+            file.write(0, ftyp).write(mdatStart, mdat).write(moovStart, moov);
+            writeChunks(file, offsets);
+        }
+        assertScan(path, "title");
+
+        // without padding the rest of moov moves, the media data stays where it is
+        String title = "a title that does not fit in the space of the old one";
+        setTitle(path, title);
+
+        assertScan(path, title);
+        assertArrayEquals(mdat, SparseFile.read(path, mdatStart, mdat.length));
+
+        MP4 mp4 = parse(path);
+        assertEquals(moovStart, mp4.getMoovAtom().getStart());
+        assertEquals(Files.size(path), mp4.getMoovAtom().getEnd());
+
+        ArrayList<MP4Atom> tables = chunkTables(mp4);
+        assertEquals(1, tables.size());
+        assertArrayEquals(offsets, chunkOffsets(tables.get(0)));
+        assertChunks(path, offsets);
+    }
+
+    @Test
+    void moovBeforeMdatRunningToEndOfFile() throws IOException {
+
+        Path path      = directory.resolve("to-end.m4a");
+        byte[] ftyp    = ftyp();
+        long mdatStart = ftyp.length + moov(true, new long[3], "title", 1024).length;
+        long[] offsets = { mdatStart + 8, mdatStart + 3 * GB, mdatStart + 17 * GB / 4 };
+        byte[] mdat    = new ByteBuilder().u32(0).ascii("mdat").toByteArray();
+        long length    = mdatStart + 9 * GB / 2;
+
+        try (SparseFile file = new SparseFile(path, length)) {
+            file.write(0, ftyp).write(ftyp.length, moov(true, offsets, "title", 1024)).write(mdatStart, mdat);
+            writeChunks(file, offsets);
+        }
+        assertScan(path, "title");
+
+        // the padding after ilst takes the longer title, nothing after moov moves
+        String title = "a longer title";
+        setTitle(path, title);
+
+        assertScan(path, title);
+        assertEquals(length, Files.size(path));
+        assertArrayEquals(mdat, SparseFile.read(path, mdatStart, mdat.length));
+        assertArrayEquals(offsets, chunkOffsets(chunkTables(parse(path)).get(0)));
+        assertChunks(path, offsets);
+    }
+
+    @Test
+    void stcoPastFourGigabytesBecomesCo64() throws IOException {
+
+        Path path       = directory.resolve("promote.m4a");
+        byte[] ftyp     = ftyp();
+        long moovStart  = 0xFFFF0000L;
+        long moovLength = moov(false, new long[3], "title", 0).length;
+        long mdatStart  = moovStart + moovLength;
+
+        // a first mdat with a 32-bit size above 2 GB, the second one follows moov just below 4 GB
+        byte[] head    = new ByteBuilder().u32(moovStart - ftyp.length).ascii("mdat").toByteArray();
+        byte[] mdat    = new ByteBuilder().u32(8 + 8192).ascii("mdat").toByteArray();
+        long[] offsets = { ftyp.length + 8, mdatStart + 8, mdatStart + 8 + 4096 };
+
+        try (SparseFile file = new SparseFile(path, mdatStart + 8 + 8192)) {
+            file.write(0, ftyp).write(ftyp.length, head).write(moovStart, moov(false, offsets, "title", 0)).write(mdatStart, mdat);
+            writeChunks(file, offsets);
+        }
+        assertScan(path, "title");
+
+        // the second mdat moves past 4 GB, so the table needs 64-bit offsets
+        String title = "x".repeat(128 * 1024);
+        setTitle(path, title);
+        assertScan(path, title);
+
+        MP4 mp4 = parse(path);
+        ArrayList<MP4Atom> tables = chunkTables(mp4);
+        assertEquals(1, tables.size());
+        assertTrue(tables.get(0) instanceof Co64Atom);
+
+        long[] moved = chunkOffsets(tables.get(0));
+        long shift   = mp4.getMoovAtom().getSize() - moovLength;
+        assertEquals(offsets[0], moved[0]);
+        assertEquals(offsets[1] + shift, moved[1]);
+        assertEquals(offsets[2] + shift, moved[2]);
+        assertTrue(moved[1] > 0xFFFFFFFFL);
+
+        assertArrayEquals(head, SparseFile.read(path, ftyp.length, head.length));
+        assertArrayEquals(mdat, SparseFile.read(path, moved[1] - 8, mdat.length));
+        assertChunks(path, moved);
+    }
+}
@@ -0,0 +1,115 @@
+package com.jtagger.ogg;
+
+import com.jtagger.AbstractTag;
+import com.jtagger.ByteBuilder;
+import com.jtagger.MediaFile;
+import com.jtagger.SparseFile;
+import com.jtagger.StreamInfo;
+import com.jtagger.utils.IntegerUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.jtagger.SparseFile.GB;
+import static org.junit.jupiter.api.Assertions.*;
+
+// a sparse Opus file with more than 2 GB between the first and the last audio page
+class LargeOggTest {
+
+    private static final int SAMPLE_RATE = 48000;
+    private static final int DURATION    = 5 * 3600;
+    private static final long LENGTH     = 3 * GB;
+    private static final int SERIAL      = 0x4A544147;
+
+    private static final byte[] FIRST_PAGE = page(0x00, 960, 2, new byte[] { 0x7C, 1, 2, 3 });
+    private static final byte[] LAST_PAGE  = page(0x04, (long) DURATION * SAMPLE_RATE, 3, new byte[] { 0x7C, 4, 5, 6 });
+
+    @TempDir
+    Path directory;
+
+    private static byte[] page(int flags, long granulePosition, int sequence, byte[] packet) {
+
+        ByteBuilder page = new ByteBuilder()
+                .ascii("OggS").u8(0).u8(flags)
+                .u64LE(granulePosition).u32LE(SERIAL).u32LE(sequence).u32LE(0)
+                .u8(packet.length / 255 + 1);
+        for (int i = 0; i < packet.length / 255; i++) page.u8(255);
+        page.u8(packet.length % 255).bytes(packet);
+
+        byte[] bytes = page.toByteArray();
+        IntegerUtils.putUInt32LE(bytes, OggPage.CHECKSUM_OFFSET, OggCrc.compute(bytes, 0, bytes.length));
+        return bytes;
+    }
+
+    private static byte[] headerPages(String title) {
+
+        byte[] identification = new ByteBuilder()
+                .ascii("OpusHead").u8(1).u8(2).u16LE(312).u32LE(SAMPLE_RATE).u16LE(0).u8(0)
+                .toByteArray();
+        byte[] comment  = new ByteBuilder().ascii("TITLE=").utf8(title).toByteArray();
+        byte[] comments = new ByteBuilder()
+                .ascii("OpusTags").u32LE(6).ascii("vendor")
+                .u32LE(1).u32LE(comment.length).bytes(comment)
+                .toByteArray();
+
+        return new ByteBuilder()
+                .bytes(page(0x02, 0, 0, identification))
+                .bytes(page(0x00, 0, 1, comments))
+                .toByteArray();
+    }
+
+    private Path create() throws IOException {
+        Path path      = directory.resolve("large.opus");
+        byte[] headers = headerPages("title");
+        try (SparseFile file = new SparseFile(path, LENGTH)) {
+            file.write(0, headers)
+                .write(headers.length, FIRST_PAGE)
+                .write(LENGTH - LAST_PAGE.length, LAST_PAGE);
+        }
+        return path;
+    }
+
+    @Test
+    void streamLengthPastTwoGigabytes() throws IOException {
+
+        Path path = create();
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "r");
+
+            long streamLength     = LENGTH - headerPages("title").length;
+            StreamInfo streamInfo = mediaFile.getStreamInfo();
+            assertEquals(DURATION, streamInfo.getDuration());
+            assertEquals((int) Math.ceil(streamLength * 8f / (DURATION * 1000f)), streamInfo.getBitrate());
+            assertEquals("title", mediaFile.getTag().getStringField(AbstractTag.TITLE));
+        }
+    }
+
+    @Test
+    void savesSameSizeHeadersWithoutMovingPages() throws IOException {
+
+        // a title of the same length keeps the header pages in place
+        Path path = create();
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "rw");
+            AbstractTag tag = mediaFile.getTag();
+            tag.setStringField(AbstractTag.TITLE, "eltit");
+            mediaFile.setTag(tag);
+            mediaFile.save();
+        }
+
+        byte[] headers = headerPages("eltit");
+        assertArrayEquals(headers, SparseFile.read(path, 0, headers.length));
+        assertArrayEquals(FIRST_PAGE, SparseFile.read(path, headers.length, FIRST_PAGE.length));
+        assertArrayEquals(LAST_PAGE, SparseFile.read(path, LENGTH - LAST_PAGE.length, LAST_PAGE.length));
+        assertEquals(LENGTH, Files.size(path));
+
+        try (MediaFile<AbstractTag, StreamInfo> mediaFile = new MediaFile<>()) {
+            mediaFile.scan(path.toFile(), "r");
+            assertEquals("eltit", mediaFile.getTag().getStringField(AbstractTag.TITLE));
+            assertEquals(DURATION, mediaFile.getStreamInfo().getDuration());
+        }
+    }
+}
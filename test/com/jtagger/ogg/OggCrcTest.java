@@ -0,0 +1,112 @@
+package com.jtagger.ogg;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OggCrcTest {
+
+    private static final int ROUNDS     = 2000;
+    private static final int MAX_LENGTH = 70 * 1024;
+
+    private static final int[] CRC_LOOKUP = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 24;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+            }
+            CRC_LOOKUP[i] = crc;
+        }
+    }
+
+    // the loop OggPage.computePageChecksum used before OggCrc
+    private static int tableChecksum(byte[] bytes, int offset, int length) {
+        long checksum = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte index = (byte) ((checksum ^ (bytes[i] << 24)) >> 24);
+            checksum = ((checksum << 8) ^ (CRC_LOOKUP[Byte.toUnsignedInt(index)]));
+        }
+        return (int) checksum;
+    }
+
+    @Test
+    void computeMatchesTable() {
+        Random random = new Random(1);
+        byte[] bytes  = new byte[MAX_LENGTH + 64];
+        random.nextBytes(bytes);
+
+        for (int i = 0; i < ROUNDS; i++) {
+            int length = i < 64 ? i : random.nextInt(MAX_LENGTH);
+            int offset = random.nextInt(64);
+            assertEquals(tableChecksum(bytes, offset, length), OggCrc.compute(bytes, offset, length),
+                    "length " + length + " at " + offset);
+        }
+    }
+
+    @Test
+    void updateInPiecesMatchesTable() {
+        Random random = new Random(2);
+        byte[] bytes  = new byte[MAX_LENGTH];
+        random.nextBytes(bytes);
+
+        for (int i = 0; i < ROUNDS / 10; i++) {
+            int length = random.nextInt(MAX_LENGTH);
+            OggCrc crc = new OggCrc();
+
+            int position = 0;
+            while (position < length) {
+                int piece = Math.min(length - position, random.nextInt(20));
+                if (piece == 1) crc.update(bytes[position]); else crc.update(bytes, position, piece);
+                position += piece;
+            }
+            assertEquals(Integer.toUnsignedLong(tableChecksum(bytes, 0, length)), crc.getValue(), "length " + length);
+        }
+    }
+
+    @Test
+    void updateByteBufferMatchesTable() {
+        Random random   = new Random(3);
+        byte[] bytes    = new byte[MAX_LENGTH + 64];
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+        random.nextBytes(bytes);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).clear();
+
+        // slices starting at byte 1, so that the heap one has a non-zero array offset
+        ByteBuffer[] buffers = { heap.position(1).slice(), direct.position(1).slice() };
+
+        for (int i = 0; i < ROUNDS; i++) {
+            int length    = random.nextInt(MAX_LENGTH);
+            int offset    = random.nextInt(64);
+            long expected = Integer.toUnsignedLong(tableChecksum(bytes, 1 + offset, length));
+
+            for (ByteBuffer buffer : buffers) {
+                buffer.limit(offset + length).position(offset);
+
+                OggCrc crc = new OggCrc();
+                crc.update(buffer);
+                assertEquals(expected, crc.getValue(), (buffer.isDirect() ? "direct " : "heap ") + length + " at " + offset);
+                assertEquals(offset + length, buffer.position());
+                buffer.clear();
+            }
+        }
+    }
+
+    @Test
+    void resetStartsOver() {
+        byte[] bytes = "OggS".getBytes(StandardCharsets.ISO_8859_1);
+        OggCrc crc   = new OggCrc();
+        crc.update(new byte[100]);
+        crc.update(1);
+        crc.reset();
+        crc.update(bytes);
+        assertEquals(Integer.toUnsignedLong(tableChecksum(bytes, 0, bytes.length)), crc.getValue());
+    }
+}
@@ -0,0 +1,73 @@
+package com.jtagger.utils;
+
+import com.jtagger.ByteBuilder;
+import com.jtagger.SparseFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static com.jtagger.SparseFile.GB;
+import static org.junit.jupiter.api.Assertions.*;
+
+// a sparse file larger than one mapping, with values written across the ends of the mapped windows
+class MappedSourceTest {
+
+    private static final long LENGTH = 5 * GB / 2;
+
+    @TempDir
+    Path directory;
+
+    private Path create() throws IOException {
+        Path path = directory.resolve("large.bin");
+        try (SparseFile file = new SparseFile(path, LENGTH)) {
+            file.write(GB - 2, new ByteBuilder().u32(0x01020304).toByteArray())
+                .write(2 * GB - 3, new ByteBuilder().u64(0x1112131415161718L).toByteArray())
+                .write(LENGTH - 4, new ByteBuilder().ascii("end.").toByteArray());
+        }
+        return path;
+    }
+
+    @Test
+    void readsAcrossWindows() throws IOException {
+        try (SeekableSource source = SeekableSource.map(create().toFile())) {
+
+            assertEquals(LENGTH, source.length());
+
+            source.seek(GB - 2);
+            assertEquals(0x01020304, source.readInt());
+            assertEquals(GB + 2, source.getFilePointer());
+
+            source.seek(2 * GB - 3);
+            assertEquals(0x1112131415161718L, source.readLong());
+
+            byte[] bytes = new byte[8];
+            source.seek(2 * GB - 3);
+            source.readFully(bytes);
+            assertArrayEquals(new ByteBuilder().u64(0x1112131415161718L).toByteArray(), bytes);
+
+            source.seek(GB - 1);
+            assertEquals(0x02, source.read());
+            assertEquals(0x03, source.read());
+        }
+    }
+
+    @Test
+    void stopsAtEndOfFile() throws IOException {
+        try (SeekableSource source = SeekableSource.map(create().toFile())) {
+
+            byte[] bytes = new byte[16];
+            source.seek(LENGTH - 4);
+            assertEquals(4, source.read(bytes, 0, bytes.length));
+            assertEquals("end.", new String(bytes, 0, 4, StandardCharsets.ISO_8859_1));
+            assertEquals(-1, source.read());
+
+            source.seek(LENGTH - 2);
+            assertThrows(EOFException.class, source::readInt);
+            assertEquals(2, source.skipBytes(16));
+        }
+    }
+}